@@ -0,0 +1,331 @@
+package info.toyonos.config;
+
+import java.util.Map;
+
+/**
+ * Classes of 1, 8 and 64 <code>&#064;ConfigProperty</code> fields, each with a hand-written bind as a baseline
+ *
+ * @author ToYonos
+ */
+final class BenchmarkTargets
+{
+	private BenchmarkTargets()
+	{
+	}
+
+	@ConfigProperties(prefix = "bench")
+	public static class Target1
+	{
+		@ConfigProperty
+		public static String F0;
+
+		static void bindByHand(Map<String, String> config)
+		{
+			F0 = config.get("bench.f0");
+		}
+	}
+
+	@ConfigProperties(prefix = "bench")
+	public static class Target8
+	{
+		@ConfigProperty
+		public static String F0;
+
+		@ConfigProperty
+		public static String F1;
+
+		@ConfigProperty
+		public static String F2;
+
+		@ConfigProperty
+		public static String F3;
+
+		@ConfigProperty
+		public static String F4;
+
+		@ConfigProperty
+		public static String F5;
+
+		@ConfigProperty
+		public static String F6;
+
+		@ConfigProperty
+		public static String F7;
+
+		static void bindByHand(Map<String, String> config)
+		{
+			F0 = config.get("bench.f0");
+			F1 = config.get("bench.f1");
+			F2 = config.get("bench.f2");
+			F3 = config.get("bench.f3");
+			F4 = config.get("bench.f4");
+			F5 = config.get("bench.f5");
+			F6 = config.get("bench.f6");
+			F7 = config.get("bench.f7");
+		}
+	}
+
+	@ConfigProperties(prefix = "bench")
+	public static class Target64
+	{
+		@ConfigProperty
+		public static String F0;
+
+		@ConfigProperty
+		public static String F1;
+
+		@ConfigProperty
+		public static String F2;
+
+		@ConfigProperty
+		public static String F3;
+
+		@ConfigProperty
+		public static String F4;
+
+		@ConfigProperty
+		public static String F5;
+
+		@ConfigProperty
+		public static String F6;
+
+		@ConfigProperty
+		public static String F7;
+
+		@ConfigProperty
+		public static String F8;
+
+		@ConfigProperty
+		public static String F9;
+
+		@ConfigProperty
+		public static String F10;
+
+		@ConfigProperty
+		public static String F11;
+
+		@ConfigProperty
+		public static String F12;
+
+		@ConfigProperty
+		public static String F13;
+
+		@ConfigProperty
+		public static String F14;
+
+		@ConfigProperty
+		public static String F15;
+
+		@ConfigProperty
+		public static String F16;
+
+		@ConfigProperty
+		public static String F17;
+
+		@ConfigProperty
+		public static String F18;
+
+		@ConfigProperty
+		public static String F19;
+
+		@ConfigProperty
+		public static String F20;
+
+		@ConfigProperty
+		public static String F21;
+
+		@ConfigProperty
+		public static String F22;
+
+		@ConfigProperty
+		public static String F23;
+
+		@ConfigProperty
+		public static String F24;
+
+		@ConfigProperty
+		public static String F25;
+
+		@ConfigProperty
+		public static String F26;
+
+		@ConfigProperty
+		public static String F27;
+
+		@ConfigProperty
+		public static String F28;
+
+		@ConfigProperty
+		public static String F29;
+
+		@ConfigProperty
+		public static String F30;
+
+		@ConfigProperty
+		public static String F31;
+
+		@ConfigProperty
+		public static String F32;
+
+		@ConfigProperty
+		public static String F33;
+
+		@ConfigProperty
+		public static String F34;
+
+		@ConfigProperty
+		public static String F35;
+
+		@ConfigProperty
+		public static String F36;
+
+		@ConfigProperty
+		public static String F37;
+
+		@ConfigProperty
+		public static String F38;
+
+		@ConfigProperty
+		public static String F39;
+
+		@ConfigProperty
+		public static String F40;
+
+		@ConfigProperty
+		public static String F41;
+
+		@ConfigProperty
+		public static String F42;
+
+		@ConfigProperty
+		public static String F43;
+
+		@ConfigProperty
+		public static String F44;
+
+		@ConfigProperty
+		public static String F45;
+
+		@ConfigProperty
+		public static String F46;
+
+		@ConfigProperty
+		public static String F47;
+
+		@ConfigProperty
+		public static String F48;
+
+		@ConfigProperty
+		public static String F49;
+
+		@ConfigProperty
+		public static String F50;
+
+		@ConfigProperty
+		public static String F51;
+
+		@ConfigProperty
+		public static String F52;
+
+		@ConfigProperty
+		public static String F53;
+
+		@ConfigProperty
+		public static String F54;
+
+		@ConfigProperty
+		public static String F55;
+
+		@ConfigProperty
+		public static String F56;
+
+		@ConfigProperty
+		public static String F57;
+
+		@ConfigProperty
+		public static String F58;
+
+		@ConfigProperty
+		public static String F59;
+
+		@ConfigProperty
+		public static String F60;
+
+		@ConfigProperty
+		public static String F61;
+
+		@ConfigProperty
+		public static String F62;
+
+		@ConfigProperty
+		public static String F63;
+
+		static void bindByHand(Map<String, String> config)
+		{
+			F0 = config.get("bench.f0");
+			F1 = config.get("bench.f1");
+			F2 = config.get("bench.f2");
+			F3 = config.get("bench.f3");
+			F4 = config.get("bench.f4");
+			F5 = config.get("bench.f5");
+			F6 = config.get("bench.f6");
+			F7 = config.get("bench.f7");
+			F8 = config.get("bench.f8");
+			F9 = config.get("bench.f9");
+			F10 = config.get("bench.f10");
+			F11 = config.get("bench.f11");
+			F12 = config.get("bench.f12");
+			F13 = config.get("bench.f13");
+			F14 = config.get("bench.f14");
+			F15 = config.get("bench.f15");
+			F16 = config.get("bench.f16");
+			F17 = config.get("bench.f17");
+			F18 = config.get("bench.f18");
+			F19 = config.get("bench.f19");
+			F20 = config.get("bench.f20");
+			F21 = config.get("bench.f21");
+			F22 = config.get("bench.f22");
+			F23 = config.get("bench.f23");
+			F24 = config.get("bench.f24");
+			F25 = config.get("bench.f25");
+			F26 = config.get("bench.f26");
+			F27 = config.get("bench.f27");
+			F28 = config.get("bench.f28");
+			F29 = config.get("bench.f29");
+			F30 = config.get("bench.f30");
+			F31 = config.get("bench.f31");
+			F32 = config.get("bench.f32");
+			F33 = config.get("bench.f33");
+			F34 = config.get("bench.f34");
+			F35 = config.get("bench.f35");
+			F36 = config.get("bench.f36");
+			F37 = config.get("bench.f37");
+			F38 = config.get("bench.f38");
+			F39 = config.get("bench.f39");
+			F40 = config.get("bench.f40");
+			F41 = config.get("bench.f41");
+			F42 = config.get("bench.f42");
+			F43 = config.get("bench.f43");
+			F44 = config.get("bench.f44");
+			F45 = config.get("bench.f45");
+			F46 = config.get("bench.f46");
+			F47 = config.get("bench.f47");
+			F48 = config.get("bench.f48");
+			F49 = config.get("bench.f49");
+			F50 = config.get("bench.f50");
+			F51 = config.get("bench.f51");
+			F52 = config.get("bench.f52");
+			F53 = config.get("bench.f53");
+			F54 = config.get("bench.f54");
+			F55 = config.get("bench.f55");
+			F56 = config.get("bench.f56");
+			F57 = config.get("bench.f57");
+			F58 = config.get("bench.f58");
+			F59 = config.get("bench.f59");
+			F60 = config.get("bench.f60");
+			F61 = config.get("bench.f61");
+			F62 = config.get("bench.f62");
+			F63 = config.get("bench.f63");
+		}
+	}
+}
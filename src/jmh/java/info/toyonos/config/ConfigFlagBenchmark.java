@@ -0,0 +1,96 @@
+package info.toyonos.config;
+
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+
+/**
+ * Compare a hot loop checking a disabled flag bound to a <code>Boolean</code> field, to a <code>ConfigFlag</code>, and to the invoker of a <code>ConfigFlag</code>
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigFlagBenchmark
+{
+	private static final int ITERATIONS = 1024;
+
+	@ConfigProperties(prefix = "bench")
+	public static class Target
+	{
+		@ConfigProperty
+		public static Boolean DEBUG_BOXED;
+
+		@ConfigProperty
+		public static final ConfigFlag DEBUG_FLAG = new ConfigFlag(true);
+	}
+
+	private static final MethodHandle DEBUG_INVOKER = Target.DEBUG_FLAG.getInvoker();
+
+	private int[] values;
+
+	@Setup
+	public void setup()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("bench.debug.boxed", "false");
+		config.put("bench.debug.flag", "false");
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), Target.class).bind();
+		values = new int[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) values[i] = i;
+	}
+
+	@Benchmark
+	public long boxedField()
+	{
+		long sum = 0;
+		for (int value : values)
+		{
+			if (Target.DEBUG_BOXED) sum -= value;
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long configFlag()
+	{
+		long sum = 0;
+		for (int value : values)
+		{
+			if (Target.DEBUG_FLAG.isEnabled()) sum -= value;
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long configFlagInvoker() throws Throwable
+	{
+		long sum = 0;
+		for (int value : values)
+		{
+			if ((boolean) DEBUG_INVOKER.invokeExact()) sum -= value;
+			sum += value;
+		}
+		return sum;
+	}
+}
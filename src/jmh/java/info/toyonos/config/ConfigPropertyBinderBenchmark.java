@@ -0,0 +1,107 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+
+/**
+ * Compare the first bind of a class, which compiles its binding plan, with the next ones, which reuse it, and with the rebind of a single changed key
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigPropertyBinderBenchmark
+{
+	@ConfigProperties(prefix = "bench")
+	public static class Target
+	{
+		@ConfigProperty
+		public static String A_S1;
+
+		@ConfigProperty
+		public static String A_S2;
+
+		@ConfigProperty(trim = true)
+		public static String A_S3;
+
+		@ConfigProperty
+		public static Integer A_I1;
+
+		@ConfigProperty
+		public static Long A_L1;
+
+		@ConfigProperty
+		public static Boolean A_B1;
+
+		@ConfigProperty
+		public static Duration A_D1;
+
+		@ConfigProperty
+		public static String[] A_A1;
+
+		@ConfigProperty
+		public static long[] A_A2;
+
+		@ConfigProperty(defaultValue = "default")
+		public static String A_S4;
+	}
+
+	private static final Set<String> CHANGED_KEYS = Collections.singleton("bench.a.i1");
+
+	private ConfigPropertyBinder binder;
+
+	@Setup
+	public void setup()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("bench.a.s1", "value1");
+		config.put("bench.a.s2", "value2");
+		config.put("bench.a.s3", "  value3  ");
+		config.put("bench.a.i1", "42");
+		config.put("bench.a.l1", "4242");
+		config.put("bench.a.b1", "true");
+		config.put("bench.a.d1", "1h30m");
+		config.put("bench.a.a1", "a;b;c;d");
+		config.put("bench.a.a2", "1;2;3;4");
+		binder = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), Target.class);
+	}
+
+	@Benchmark
+	public ConfigPropertyBindReport firstBind()
+	{
+		return binder.bind(ConfigPropertyBindingPlan.compile(Target.class));
+	}
+
+	@Benchmark
+	public ConfigPropertyBindReport nextBinds()
+	{
+		return binder.bind();
+	}
+
+	@Benchmark
+	public ConfigPropertyBindReport rebindChangedKey()
+	{
+		return binder.rebind(CHANGED_KEYS);
+	}
+}
@@ -0,0 +1,88 @@
+package info.toyonos.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+
+/**
+ * Measure how <code>ConfigPropertyBinder.bind()</code> scales with the number of fields of a class, against direct static field writes
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigPropertyBinderScalingBenchmark
+{
+	@Param({ "1", "8", "64" })
+	public int fieldCount;
+
+	private Class<?> target;
+	private Map<String, String> config;
+	private ConfigPropertyBinder binder;
+
+	@Setup
+	public void setup()
+	{
+		switch (fieldCount)
+		{
+			case 1:
+				target = BenchmarkTargets.Target1.class;
+				break;
+			case 8:
+				target = BenchmarkTargets.Target8.class;
+				break;
+			case 64:
+				target = BenchmarkTargets.Target64.class;
+				break;
+			default:
+				throw new IllegalArgumentException(String.format("No target class with %d fields", fieldCount));
+		}
+
+		config = new HashMap<>();
+		for (int i = 0; i < fieldCount; i++)
+		{
+			config.put("bench.f" + i, "value" + i);
+		}
+		binder = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), target);
+	}
+
+	@Benchmark
+	public ConfigPropertyBindReport bind()
+	{
+		return binder.bind();
+	}
+
+	@Benchmark
+	public void baselineDirectWrites()
+	{
+		switch (fieldCount)
+		{
+			case 1:
+				BenchmarkTargets.Target1.bindByHand(config);
+				break;
+			case 8:
+				BenchmarkTargets.Target8.bindByHand(config);
+				break;
+			default:
+				BenchmarkTargets.Target64.bindByHand(config);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+
+/**
+ * Measure a single property lookup of each adapter, by number of keys, against a <code>HashMap</code> lookup of an already built key
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdapterLookupBenchmark
+{
+	private static final int LOOKUPS = 1024;
+
+	@Param({ "100", "10000", "100000" })
+	public int keyCount;
+
+	@Param({ "simple", "properties", "indexed", "frozen", "environment", "composite" })
+	public String adapterType;
+
+	private ConfigPropertyAdapter adapter;
+	private Map<String, String> map;
+	private String[] prefixes;
+	private String[] properties;
+	private String[] fullKeys;
+	private int next;
+
+	@Setup
+	public void setup()
+	{
+		map = new HashMap<>();
+		for (int i = 0; i < keyCount; i++)
+		{
+			map.put(String.format("myapp.module%d.key%d", i % 100, i), "value" + i);
+		}
+
+		switch (adapterType)
+		{
+			case "simple":
+				adapter = new SimpleConfigPropertyAdapter(map);
+				break;
+			case "properties":
+				Properties props = new Properties();
+				props.putAll(map);
+				adapter = new PropertiesAdapter(props);
+				break;
+			case "indexed":
+				adapter = new IndexedConfigPropertyAdapter(map);
+				break;
+			case "frozen":
+				adapter = new FrozenPropertiesAdapter(map);
+				break;
+			case "environment":
+				adapter = new EnvironmentAdapter(map);
+				break;
+			case "composite":
+				adapter = new CompositeConfigPropertyAdapter(Arrays.asList(new SimpleConfigPropertyAdapter(new HashMap<>()), new SimpleConfigPropertyAdapter(map)));
+				break;
+			default:
+				throw new IllegalArgumentException(adapterType);
+		}
+
+		Random random = new Random(42);
+		prefixes = new String[LOOKUPS];
+		properties = new String[LOOKUPS];
+		fullKeys = new String[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++)
+		{
+			int key = random.nextInt(keyCount);
+			prefixes[i] = String.format("myapp.module%d", key % 100);
+			properties[i] = "key" + key;
+			fullKeys[i] = prefixes[i] + '.' + properties[i];
+		}
+	}
+
+	@Benchmark
+	public String lookup()
+	{
+		int i = next++ & (LOOKUPS - 1);
+		return adapter.getProperty(AdapterLookupBenchmark.class, prefixes[i], properties[i]);
+	}
+
+	@Benchmark
+	public String baselineMapGet()
+	{
+		int i = next++ & (LOOKUPS - 1);
+		return map.get(fullKeys[i]);
+	}
+}
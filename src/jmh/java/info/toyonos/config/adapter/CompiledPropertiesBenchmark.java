@@ -0,0 +1,85 @@
+package info.toyonos.config.adapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the loading of a properties file at launch : parsing it with <code>Properties.load</code>, against reusing its compiled snapshot
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledPropertiesBenchmark
+{
+	@Param({ "1000", "100000" })
+	public int keyCount;
+
+	private Path directory;
+	private Path source;
+	private Path compiled;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("compiled-properties-benchmark");
+		source = directory.resolve("config.properties");
+		compiled = directory.resolve("config.bin");
+		try (Writer writer = Files.newBufferedWriter(source, StandardCharsets.ISO_8859_1))
+		{
+			for (int i = 0; i < keyCount; i++)
+			{
+				writer.write(String.format("myapp.module%d.key%d = value%d%n", i % 100, i, i));
+			}
+		}
+		CompiledPropertiesAdapter.open(source, compiled);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(compiled);
+		Files.deleteIfExists(source);
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public String loadProperties() throws IOException
+	{
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(source))
+		{
+			properties.load(is);
+		}
+		return new PropertiesAdapter(properties).getProperty(CompiledPropertiesBenchmark.class, "myapp.module1", "key1");
+	}
+
+	@Benchmark
+	public String openCompiled() throws IOException
+	{
+		return CompiledPropertiesAdapter.open(source, compiled).getProperty(CompiledPropertiesBenchmark.class, "myapp.module1", "key1");
+	}
+}
@@ -0,0 +1,79 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+
+/**
+ * Measure the throughput of lookups from many threads at once : <code>PropertiesAdapter</code>, whose threads contend on the monitor of a <code>Hashtable</code>,
+ * against the lock-free <code>FrozenPropertiesAdapter</code>, and against a <code>CompositeConfigPropertyAdapter</code> over frozen layers, served by its cache
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ConcurrentLookupBenchmark
+{
+	private static final int KEY_COUNT = 10000;
+
+	@Param({ "properties", "frozen", "composite" })
+	public String adapterType;
+
+	private ConfigPropertyAdapter adapter;
+	private String[] prefixes;
+	private String[] properties;
+
+	@Setup
+	public void setup()
+	{
+		Properties props = new Properties();
+		prefixes = new String[KEY_COUNT];
+		properties = new String[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++)
+		{
+			prefixes[i] = String.format("myapp.module%d", i % 100);
+			properties[i] = "key" + i;
+			props.setProperty(prefixes[i] + '.' + properties[i], "value" + i);
+		}
+		switch (adapterType)
+		{
+			case "frozen":
+				adapter = new FrozenPropertiesAdapter(props);
+				break;
+			case "composite":
+				// Every key fits in the cache : the lookups are cache hits
+				adapter = new CompositeConfigPropertyAdapter(Arrays.asList(new FrozenPropertiesAdapter(new Properties()), new FrozenPropertiesAdapter(props)), KEY_COUNT);
+				break;
+			default:
+				adapter = new PropertiesAdapter(props);
+		}
+	}
+
+	@Benchmark
+	public String lookup()
+	{
+		int i = ThreadLocalRandom.current().nextInt(KEY_COUNT);
+		return adapter.getProperty(ConcurrentLookupBenchmark.class, prefixes[i], properties[i]);
+	}
+}
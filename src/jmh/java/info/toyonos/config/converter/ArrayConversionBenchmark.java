@@ -0,0 +1,81 @@
+package info.toyonos.config.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the conversion of lists of values into arrays, by array size, against a hand-written loop
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayConversionBenchmark
+{
+	@Param({ "1", "16", "256" })
+	public int arraySize;
+
+	private List<String> values;
+	private ListConverter<?> intArrayConverter;
+	private ListConverter<?> integerArrayConverter;
+	private ListConverter<?> stringArrayConverter;
+
+	@Setup
+	public void setup()
+	{
+		values = new ArrayList<>(arraySize);
+		for (int i = 0; i < arraySize; i++)
+		{
+			values.add(Integer.toString(i * 31));
+		}
+		intArrayConverter = ConverterRegistry.defaults().getListConverter(int[].class);
+		integerArrayConverter = ConverterRegistry.defaults().getListConverter(Integer[].class);
+		stringArrayConverter = ConverterRegistry.defaults().getListConverter(String[].class);
+	}
+
+	@Benchmark
+	public Object intArray()
+	{
+		return intArrayConverter.convert(values);
+	}
+
+	@Benchmark
+	public Object integerArray()
+	{
+		return integerArrayConverter.convert(values);
+	}
+
+	@Benchmark
+	public Object stringArray()
+	{
+		return stringArrayConverter.convert(values);
+	}
+
+	@Benchmark
+	public int[] baselineIntArray()
+	{
+		int[] array = new int[values.size()];
+		for (int i = 0; i < array.length; i++)
+		{
+			array[i] = Integer.parseInt(values.get(i).trim());
+		}
+		return array;
+	}
+}
@@ -0,0 +1,87 @@
+package info.toyonos.util;
+
+import static info.toyonos.util.SafeNavigationWrapper.$;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure a chain of <code>SafeNavigationWrapper.$</code> calls, by depth, against plain null checks
+ *
+ * @author ToYonos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeNavigationWrapperBenchmark
+{
+	public static class Node
+	{
+		private Node child;
+
+		public Node getChild()
+		{
+			return child;
+		}
+	}
+
+	@Param({ "1", "4", "16" })
+	public int depth;
+
+	/**
+	 * True to break the chain in the middle, with a null child
+	 */
+	@Param({ "false", "true" })
+	public boolean broken;
+
+	private Node root;
+
+	@Setup
+	public void setup()
+	{
+		root = new Node();
+		Node node = root;
+		int length = broken ? depth / 2 : depth;
+		for (int i = 0; i < length; i++)
+		{
+			node.child = new Node();
+			node = node.child;
+		}
+	}
+
+	@Benchmark
+	public Node wrapper()
+	{
+		SafeNavigationWrapper<Node> wrapper = $(root);
+		for (int i = 0; i < depth; i++)
+		{
+			wrapper = wrapper.$(Node::getChild);
+		}
+		return wrapper.get();
+	}
+
+	@Benchmark
+	public Node baselineNullChecks()
+	{
+		Node node = root;
+		for (int i = 0; i < depth && node != null; i++)
+		{
+			node = node.getChild();
+		}
+		return node;
+	}
+}
@@ -0,0 +1,78 @@
+package info.toyonos.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.Objects;
+
+/**
+ * <p>A value bound from a <code>&#064;ConfigProperty</code>, which the JIT can treat as a constant</p>
+ * <p>As for a {@link ConfigFlag}, {@link #get()} is a volatile read, and the invoker returns the constant target of a <code>MutableCallSite</code>,
+ * folded by the JIT when it is held in a <code>static final</code> field. A rebind changing the value invalidates the code compiled with the previous one.
+ * The type of the value is the type argument of the field : declare it <code>static final</code> and initialize it</p>
+ *
+ * Ex:
+ * <pre>
+ * &#064;ConfigProperty(defaultValue = "100")
+ * public static final ConfigConstant&lt;Integer&gt; BATCH_SIZE = new ConfigConstant&lt;&gt;(100);
+ *
+ * for (int i = 0; i &lt; BATCH_SIZE.get(); i++) ...
+ * </pre>
+ *
+ * @author ToYonos
+ *
+ * @param <T> the type of the value
+ */
+public final class ConfigConstant<T>
+{
+	private final MutableCallSite callSite;
+	private final MethodHandle invoker;
+	private volatile T value;
+
+	/**
+	 * @param value the value until it is bound, possibly null
+	 */
+	public ConfigConstant(T value)
+	{
+		this.value = value;
+		this.callSite = new MutableCallSite(MethodHandles.constant(Object.class, value));
+		this.invoker = callSite.dynamicInvoker();
+	}
+
+	/**
+	 * @return the value, possibly null
+	 */
+	public T get()
+	{
+		return value;
+	}
+
+	/**
+	 * @return a method handle of type <code>()Object</code> returning the value, to store in a <code>static final</code> field
+	 */
+	public MethodHandle getInvoker()
+	{
+		return invoker;
+	}
+
+	/**
+	 * Change the value, and invalidate the code compiled with the previous one
+	 *
+	 * @param value the new value, already converted to the type of the constant
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized void set(Object value)
+	{
+		if (Objects.equals(value, this.value)) return;
+
+		this.value = (T) value;
+		callSite.setTarget(MethodHandles.constant(Object.class, value));
+		MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+}
@@ -0,0 +1,90 @@
+package info.toyonos.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+
+/**
+ * <p>A boolean flag bound from a <code>&#064;ConfigProperty</code>, for the checks of hot code paths</p>
+ * <p>The field is never written by the binder, only its flag is updated : declare it <code>static final</code> and initialize it.
+ * As for any property, a missing value is a failure unless the annotation has a <code>defaultValue</code></p>
+ *
+ * Ex:
+ * <pre>
+ * &#064;ConfigProperty(defaultValue = "false")
+ * public static final ConfigFlag DEBUG_MODE = new ConfigFlag();
+ * private static final MethodHandle DEBUG = DEBUG_MODE.getInvoker();
+ *
+ * if (DEBUG_MODE.isEnabled()) ...
+ * if ((boolean) DEBUG.invokeExact()) ...
+ * </pre>
+ *
+ * <p>{@link #isEnabled()} is a plain volatile read, unboxed. The invoker returns the constant target of a <code>MutableCallSite</code> :
+ * held in a <code>static final</code> field, it is compiled as a constant and the JIT removes the dead branches.
+ * A rebind changing the value invalidates the compiled code depending on it, which picks up the new value.
+ * The invoker is not folded through the flag itself, HotSpot only trusts the final instance fields of its own classes</p>
+ *
+ * @author ToYonos
+ */
+public final class ConfigFlag
+{
+	private final MutableCallSite callSite;
+	private final MethodHandle invoker;
+	private volatile boolean enabled;
+
+	/**
+	 * Create a disabled flag
+	 */
+	public ConfigFlag()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param enabled the value of the flag until it is bound
+	 */
+	public ConfigFlag(boolean enabled)
+	{
+		this.enabled = enabled;
+		this.callSite = new MutableCallSite(MethodHandles.constant(boolean.class, enabled));
+		this.invoker = callSite.dynamicInvoker();
+	}
+
+	/**
+	 * @return true if the flag is enabled, false otherwise
+	 */
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * @return a method handle of type <code>()boolean</code> returning the value of the flag, to store in a <code>static final</code> field
+	 */
+	public MethodHandle getInvoker()
+	{
+		return invoker;
+	}
+
+	/**
+	 * Change the value of the flag, and invalidate the code compiled with the previous one
+	 *
+	 * @param value the new value, a <code>Boolean</code>
+	 * @throws IllegalArgumentException if the value is not a <code>Boolean</code>
+	 */
+	synchronized void set(Object value)
+	{
+		if (!(value instanceof Boolean)) throw new IllegalArgumentException(String.format("Can not set a ConfigFlag with %s", value));
+		if ((boolean) value == enabled) return;
+
+		enabled = (boolean) value;
+		callSite.setTarget(MethodHandles.constant(boolean.class, value));
+		MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.valueOf(isEnabled());
+	}
+}
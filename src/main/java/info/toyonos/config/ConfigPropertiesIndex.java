@@ -0,0 +1,88 @@
+package info.toyonos.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>The index of the classes annotated with <code>&#064;ConfigProperties</code>, generated at build time by the <code>ConfigPropertiesProcessor</code></p>
+ * <p>Each jar or classes directory contains its own index resource, listing one binary class name per line</p>
+ * 
+ * @author ToYonos
+ */
+public final class ConfigPropertiesIndex
+{
+	/**
+	 * The location of the index resources
+	 */
+	public static final String RESOURCE = "META-INF/toyo-tools/config-properties.idx";
+
+	private ConfigPropertiesIndex()
+	{
+	}
+
+	/**
+	 * Read the names of the indexed classes, from all the index resources visible by a class loader
+	 * 
+	 * @param classLoader the class loader to use
+	 * @return the binary names of the indexed classes
+	 * @throws ConfigPropertyException if an index can't be read
+	 */
+	public static Set<String> getClassNames(ClassLoader classLoader)
+	{
+		Set<String> classNames = new LinkedHashSet<>();
+		try
+		{
+			Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+			while (resources.hasMoreElements())
+			{
+				URL resource = resources.nextElement();
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)))
+				{
+					String line;
+					while ((line = reader.readLine()) != null)
+					{
+						line = line.trim();
+						if (!line.isEmpty() && !line.startsWith("#")) classNames.add(line);
+					}
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new ConfigPropertyException("Unable to read the ConfigProperties index", e);
+		}
+		return classNames;
+	}
+
+	/**
+	 * Load the indexed classes, without initializing them
+	 * 
+	 * @param classLoader the class loader to use
+	 * @return the indexed classes
+	 * @throws ConfigPropertyException if an index can't be read or if an indexed class is missing
+	 */
+	public static List<Class<?>> getClasses(ClassLoader classLoader)
+	{
+		List<Class<?>> classes = new ArrayList<>();
+		for (String className : getClassNames(classLoader))
+		{
+			try
+			{
+				classes.add(Class.forName(className, false, classLoader));
+			}
+			catch (ClassNotFoundException e)
+			{
+				throw new ConfigPropertyException(String.format("The indexed class '%s' can't be loaded", className), e);
+			}
+		}
+		return classes;
+	}
+}
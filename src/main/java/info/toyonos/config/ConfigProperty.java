@@ -7,10 +7,11 @@ import java.lang.annotation.Target;
 
 /**
  * A field annotated with <code>&#064;ConfigProperty</code> ...
+ * <p>A getter of an interface can be annotated as well, see <code>ConfigPropertyProxyFactory</code></p>
  * 
  * @author ToYonos
  */
-@Target(ElementType.FIELD)
+@Target({ ElementType.FIELD, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ConfigProperty
 {
@@ -1,5 +1,6 @@
 package info.toyonos.config;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,4 +29,41 @@ public interface ConfigPropertyAdapter
 	 * @return the associated value in configuration, as a List of String
 	 */
 	List<String> getPropertyAsList(Class<?> source, String prefix, String property);
-}
\ No newline at end of file
+
+	/**
+	 * <p>Stream the elements of a list property, without building a <code>List</code> nor a <code>String</code> for each of them</p>
+	 * <p>By default, the elements are retrieved with {@link #getPropertyAsList(Class, String, String)}.
+	 * An adapter which splits a raw value should stream its elements instead, for the huge lists</p>
+	 * 
+	 * @param source the class containing the target property
+	 * @param prefix the prefix of the property
+	 * @param property the key of the property
+	 * @param consumer the consumer of the elements
+	 * @return true if the property exists, false otherwise
+	 */
+	default boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		List<String> values = getPropertyAsList(source, prefix, property);
+		if (values == null) return false;
+		for (String value : values)
+		{
+			if (value == null) throw new IllegalArgumentException(String.format("Missing value in the list %s", ConfigPropertyKey.toKey(prefix, property)));
+			consumer.accept(value, 0, value.length());
+		}
+		return true;
+	}
+
+	/**
+	 * <p>Fetch several properties at once, before they are retrieved one by one</p>
+	 * <p>Meant for the adapters backed by a slow store (a database, a remote service...) : all the keys of a bind are fetched in one round trip,
+	 * and the returned adapter answers from the fetched values. The returned adapter may be used by several threads</p>
+	 * <p>By default, nothing is fetched and the properties are retrieved one by one from this adapter</p>
+	 * 
+	 * @param keys the keys which are about to be retrieved
+	 * @return an adapter answering at least for these keys
+	 */
+	default ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		return this;
+	}
+}
@@ -0,0 +1,73 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The combined report of a <code>ConfigPropertyBinder.bindAll</code> run
+ * 
+ * @author ToYonos
+ */
+public final class ConfigPropertyBindAllReport
+{
+	private final List<Class<?>> boundClasses;
+	private final Map<Class<?>, ConfigPropertyBindReport> reports;
+	private final Map<Class<?>, Throwable> failures;
+	private final Duration duration;
+
+	ConfigPropertyBindAllReport(List<Class<?>> boundClasses, Map<Class<?>, ConfigPropertyBindReport> reports, Map<Class<?>, Throwable> failures, Duration duration)
+	{
+		this.boundClasses = Collections.unmodifiableList(boundClasses);
+		this.reports = Collections.unmodifiableMap(reports);
+		this.failures = Collections.unmodifiableMap(failures);
+		this.duration = duration;
+	}
+
+	/**
+	 * @return the classes successfully bound
+	 */
+	public List<Class<?>> getBoundClasses()
+	{
+		return boundClasses;
+	}
+
+	/**
+	 * @return the reports of the classes successfully bound, which may still have fields which could not be set
+	 */
+	public Map<Class<?>, ConfigPropertyBindReport> getReports()
+	{
+		return reports;
+	}
+
+	/**
+	 * @return the classes which could not be bound, with the reason why
+	 */
+	public Map<Class<?>, Throwable> getFailures()
+	{
+		return failures;
+	}
+
+	/**
+	 * @return true if every class has been bound, false otherwise
+	 */
+	public boolean isSuccess()
+	{
+		return failures.isEmpty();
+	}
+
+	/**
+	 * @return the total duration of the run
+	 */
+	public Duration getDuration()
+	{
+		return duration;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%d classes bound, %d failures %s in %d ms", boundClasses.size(), failures.size(), failures.keySet(), duration.toMillis());
+	}
+}
@@ -0,0 +1,265 @@
+package info.toyonos.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyBindReport.FieldReport;
+import info.toyonos.config.ConfigPropertyBindReport.ValueSource;
+
+/**
+ * <p>The metrics of the binds of a class, registered in the platform <code>MBeanServer</code> on the first bind of the class</p>
+ * <p>The registered bean references the class : it must be unregistered for the class and its loader to be collected.
+ * When a class of the same name, from another loader, is already registered, the identity of the loader is added to the name of the bean</p>
+ * 
+ * @author ToYonos
+ */
+final class ConfigPropertyBindMetrics implements ConfigPropertyBinderMXBean
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConfigPropertyBindMetrics.class);
+
+	/**
+	 * Kept with the class, like the binding plans : only the registered bean keeps a bound class alive
+	 */
+	private static final ClassValue<ConfigPropertyBindMetrics> METRICS = new ClassValue<ConfigPropertyBindMetrics>()
+	{
+		@Override
+		protected ConfigPropertyBindMetrics computeValue(Class<?> type)
+		{
+			return new ConfigPropertyBindMetrics(type);
+		}
+	};
+
+	private static final long[] BUCKET_BOUNDS = { 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L };
+	private static final String[] BUCKET_NAMES = { "<1us", "<10us", "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s" };
+
+	private final Class<?> target;
+	private final LongAdder bindCount = new LongAdder();
+	private final LongAdder fieldCount = new LongAdder();
+	private final LongAdder failureCount = new LongAdder();
+	private final LongAdder defaultValueCount = new LongAdder();
+	private final LongAdder totalBindNanos = new LongAdder();
+	private final LongAdder totalLookupNanos = new LongAdder();
+	private final LongAdder totalConversionNanos = new LongAdder();
+	private final AtomicLongArray lookupHistogram = new AtomicLongArray(BUCKET_NAMES.length);
+	private final AtomicLongArray conversionHistogram = new AtomicLongArray(BUCKET_NAMES.length);
+	private volatile String adapterClassName;
+	private volatile ConfigPropertyBindReport lastReport;
+	private volatile boolean registered;
+	private volatile ObjectName objectName;
+
+	private ConfigPropertyBindMetrics(Class<?> target)
+	{
+		this.target = target;
+	}
+
+	/**
+	 * Get the metrics of a class, created and registered on first use
+	 * 
+	 * @param target the bound class
+	 * @return the metrics
+	 */
+	static ConfigPropertyBindMetrics of(Class<?> target)
+	{
+		ConfigPropertyBindMetrics metrics = METRICS.get(target);
+		if (!metrics.registered) metrics.register();
+		return metrics;
+	}
+
+	/**
+	 * Unregister the metrics of a class, a new bean is registered on its next bind
+	 * 
+	 * @param target the bound class
+	 */
+	static void unregister(Class<?> target)
+	{
+		ConfigPropertyBindMetrics metrics = METRICS.get(target);
+		METRICS.remove(target);
+		ObjectName name;
+		synchronized (metrics)
+		{
+			// Never registered once removed
+			metrics.registered = true;
+			name = metrics.objectName;
+			metrics.objectName = null;
+		}
+		if (name == null) return;
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+		catch (InstanceNotFoundException e)
+		{
+			// Already unregistered
+		}
+		catch (JMException | SecurityException e)
+		{
+			LOGGER.warn(String.format("Unable to unregister the metrics of %s", target.getName()), e);
+		}
+	}
+
+	private synchronized void register()
+	{
+		if (registered) return;
+		registered = true;
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try
+			{
+				objectName = server.registerMBean(this, objectName(target, false)).getObjectName();
+			}
+			catch (InstanceAlreadyExistsException e)
+			{
+				// The name is taken by a class of the same name, from another loader
+				objectName = server.registerMBean(this, objectName(target, true)).getObjectName();
+			}
+		}
+		catch (JMException | SecurityException e)
+		{
+			LOGGER.warn(String.format("Unable to register the metrics of %s", target.getName()), e);
+		}
+	}
+
+	static ObjectName objectName(Class<?> target, boolean withLoader) throws JMException
+	{
+		// A class name never contains the special characters of an ObjectName
+		String name = String.format("info.toyonos.config:type=ConfigPropertyBinder,name=%s", target.getName());
+		return new ObjectName(withLoader ? String.format("%s,loader=%x", name, System.identityHashCode(target.getClassLoader())) : name);
+	}
+
+	/**
+	 * @return the name of the registered bean, null if it is not registered
+	 */
+	ObjectName getObjectName()
+	{
+		return objectName;
+	}
+
+	void record(ConfigPropertyAdapter adapter, ConfigPropertyBindReport report)
+	{
+		bindCount.increment();
+		totalBindNanos.add(report.getDuration().toNanos());
+		for (FieldReport field : report.getFields())
+		{
+			fieldCount.increment();
+			if (field.getFailure() != null) failureCount.increment();
+			if (field.getSource() == ValueSource.DEFAULT) defaultValueCount.increment();
+			totalLookupNanos.add(field.getLookupNanos());
+			totalConversionNanos.add(field.getConversionNanos());
+			lookupHistogram.incrementAndGet(bucket(field.getLookupNanos()));
+			conversionHistogram.incrementAndGet(bucket(field.getConversionNanos()));
+		}
+		adapterClassName = adapter.getClass().getName();
+		lastReport = report;
+	}
+
+	private static int bucket(long nanos)
+	{
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS.length && nanos >= BUCKET_BOUNDS[bucket]) bucket++;
+		return bucket;
+	}
+
+	private static Map<String, Long> toMap(AtomicLongArray histogram)
+	{
+		Map<String, Long> map = new LinkedHashMap<>();
+		for (int i = 0; i < BUCKET_NAMES.length; i++)
+		{
+			map.put(BUCKET_NAMES[i], histogram.get(i));
+		}
+		return map;
+	}
+
+	@Override
+	public String getTargetClassName()
+	{
+		return target.getName();
+	}
+
+	@Override
+	public String getAdapterClassName()
+	{
+		return adapterClassName;
+	}
+
+	@Override
+	public long getBindCount()
+	{
+		return bindCount.sum();
+	}
+
+	@Override
+	public long getFieldCount()
+	{
+		return fieldCount.sum();
+	}
+
+	@Override
+	public long getFailureCount()
+	{
+		return failureCount.sum();
+	}
+
+	@Override
+	public long getDefaultValueCount()
+	{
+		return defaultValueCount.sum();
+	}
+
+	@Override
+	public long getLastBindNanos()
+	{
+		ConfigPropertyBindReport report = lastReport;
+		return report != null ? report.getDuration().toNanos() : 0;
+	}
+
+	@Override
+	public long getTotalBindNanos()
+	{
+		return totalBindNanos.sum();
+	}
+
+	@Override
+	public long getTotalLookupNanos()
+	{
+		return totalLookupNanos.sum();
+	}
+
+	@Override
+	public long getTotalConversionNanos()
+	{
+		return totalConversionNanos.sum();
+	}
+
+	@Override
+	public Map<String, Long> getLookupHistogram()
+	{
+		return toMap(lookupHistogram);
+	}
+
+	@Override
+	public Map<String, Long> getConversionHistogram()
+	{
+		return toMap(conversionHistogram);
+	}
+
+	@Override
+	public String getLastReport()
+	{
+		ConfigPropertyBindReport report = lastReport;
+		return report != null ? report.toString() : null;
+	}
+}
@@ -0,0 +1,183 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The report of a <code>ConfigPropertyBinder.bind</code> or <code>ConfigPropertyBinder.rebind</code> : for each bound field, where its value comes from,
+ * how long it took to retrieve and to convert it, and why it could not be set, if so
+ *
+ * @author ToYonos
+ */
+public final class ConfigPropertyBindReport
+{
+	/**
+	 * Where the value of a field comes from
+	 */
+	public enum ValueSource
+	{
+		/**
+		 * The <code>ConfigPropertyAdapter</code>
+		 */
+		ADAPTER,
+		/**
+		 * The <code>defaultValue</code> or <code>defaultListValue</code> of the <code>&#064;ConfigProperty</code>
+		 */
+		DEFAULT,
+		/**
+		 * Nowhere, the field is set to null
+		 */
+		NONE
+	}
+
+	private final Class<?> target;
+	private final List<FieldReport> fields;
+	private final Duration duration;
+
+	ConfigPropertyBindReport(Class<?> target, List<FieldReport> fields, Duration duration)
+	{
+		this.target = target;
+		this.fields = Collections.unmodifiableList(fields);
+		this.duration = duration;
+	}
+
+	/**
+	 * @return the bound class
+	 */
+	public Class<?> getTarget()
+	{
+		return target;
+	}
+
+	/**
+	 * @return the reports of the fields, in the order they have been bound
+	 */
+	public List<FieldReport> getFields()
+	{
+		return fields;
+	}
+
+	/**
+	 * @return the fields which could not be set, by name, with the reason why
+	 */
+	public Map<String, Throwable> getFailures()
+	{
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		for (FieldReport field : fields)
+		{
+			if (field.getFailure() != null) failures.put(field.getFieldName(), field.getFailure());
+		}
+		return failures;
+	}
+
+	/**
+	 * @return true if every field has been set, false otherwise
+	 */
+	public boolean isSuccess()
+	{
+		for (FieldReport field : fields)
+		{
+			if (field.getFailure() != null) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the total duration of the bind
+	 */
+	public Duration getDuration()
+	{
+		return duration;
+	}
+
+	@Override
+	public String toString()
+	{
+		Map<String, Throwable> failures = getFailures();
+		return String.format("%s : %d fields bound, %d failures %s in %d ms", target.getName(), fields.size(), failures.size(), failures.keySet(), duration.toMillis());
+	}
+
+	/**
+	 * The report of a single field
+	 */
+	public static final class FieldReport
+	{
+		private final String fieldName;
+		private final ConfigPropertyKey key;
+		private final ValueSource source;
+		private final long lookupNanos;
+		private final long conversionNanos;
+		private final Throwable failure;
+
+		FieldReport(String fieldName, ConfigPropertyKey key, ValueSource source, long lookupNanos, long conversionNanos, Throwable failure)
+		{
+			this.fieldName = fieldName;
+			this.key = key;
+			this.source = source;
+			this.lookupNanos = lookupNanos;
+			this.conversionNanos = conversionNanos;
+			this.failure = failure;
+		}
+
+		/**
+		 * @return the name of the field
+		 */
+		public String getFieldName()
+		{
+			return fieldName;
+		}
+
+		/**
+		 * @return the key of the property
+		 */
+		public ConfigPropertyKey getKey()
+		{
+			return key;
+		}
+
+		/**
+		 * @return where the value comes from, null if the lookup itself failed
+		 */
+		public ValueSource getSource()
+		{
+			return source;
+		}
+
+		/**
+		 * @return the time spent in the <code>ConfigPropertyAdapter</code>, in nanoseconds.
+		 * It includes the parsing of the elements of a list streamed to a <code>StreamingListConverter</code>
+		 */
+		public long getLookupNanos()
+		{
+			return lookupNanos;
+		}
+
+		/**
+		 * @return the time spent converting the value, in nanoseconds
+		 */
+		public long getConversionNanos()
+		{
+			return conversionNanos;
+		}
+
+		/**
+		 * @return the reason why the field could not be set, null if it has been set
+		 */
+		public Throwable getFailure()
+		{
+			return failure;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format(
+				"%s (%s) : %s, lookup %d ns, conversion %d ns%s",
+				fieldName, key, source, lookupNanos, conversionNanos, failure != null ? ", failed : " + failure : ""
+			);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package info.toyonos.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import info.toyonos.config.ConfigPropertyBindReport.FieldReport;
+import info.toyonos.config.ConfigPropertyBindingPlan.FieldBinding;
+
+/**
+ * <p>A bind in progress, driven by a <code>GeneratedConfigBinder</code></p>
+ * <p>For each field, the generated binder resolves the value with {@link #resolve(GeneratedConfigProperty)}, then assigns {@link #value()} to the field if it succeeded.
+ * The fields which can't be assigned from the generated code (final or private fields, <code>ConfigFlag</code> and <code>ConfigConstant</code>) are bound with {@link #bindReflectively(GeneratedConfigProperty)}</p>
+ * 
+ * @author ToYonos
+ */
+public final class ConfigPropertyBindSession
+{
+	private final ConfigPropertyBinder binder;
+	private final ConfigPropertyAdapter adapter;
+	private final List<FieldReport> fieldReports = new ArrayList<>();
+	private final FieldWriter store = this::store;
+	private GeneratedConfigProperty current;
+	private Object value;
+
+	ConfigPropertyBindSession(ConfigPropertyBinder binder, ConfigPropertyAdapter adapter)
+	{
+		this.binder = binder;
+		this.adapter = adapter;
+	}
+
+	/**
+	 * Retrieve and convert the value of a property
+	 * 
+	 * @param property the property
+	 * @return true if the value can be assigned, false if it could not be resolved, or is missing while the property is not nullable :
+	 * the failure is logged and reported, a missing value is thrown by the bind once all the fields are bound
+	 */
+	public boolean resolve(GeneratedConfigProperty property)
+	{
+		current = property;
+		value = null;
+		FieldReport fieldReport = binder.bindProperty(adapter, property.getBinding(), property.getFieldName(), store);
+		fieldReports.add(fieldReport);
+		return fieldReport.getFailure() == null;
+	}
+
+	/**
+	 * <p>Get the value of the last resolved property, to be assigned right away</p>
+	 * <p>On Java 9 and later, a release fence is issued first : the assignment which follows is published like the release writes
+	 * of the <code>DefaultFieldWriterFactory</code></p>
+	 *
+	 * @return the value of the last resolved property
+	 */
+	public Object value()
+	{
+		DefaultFieldWriterFactory.releaseFence();
+		return value;
+	}
+
+	/**
+	 * Bind a field with reflection
+	 * 
+	 * @param property the property of the field
+	 */
+	public void bindReflectively(GeneratedConfigProperty property)
+	{
+		FieldBinding binding = ConfigPropertyBindingPlan.of(binder.getTarget()).getBinding(property.getFieldName());
+		if (binding == null)
+		{
+			throw new ConfigPropertyException(
+				String.format("The field %s of %s is not a ConfigProperty, the generated binder is outdated", property.getFieldName(), binder.getTarget().getName())
+			);
+		}
+		fieldReports.add(binder.bindField(adapter, binding));
+	}
+
+	List<FieldReport> getFieldReports()
+	{
+		return fieldReports;
+	}
+
+	private void store(Object value)
+	{
+		if (value == null && current.getBinding().getType().isPrimitive())
+		{
+			throw new IllegalArgumentException(String.format("The primitive field %s can't be set to null", current.getFieldName()));
+		}
+		this.value = value;
+	}
+}
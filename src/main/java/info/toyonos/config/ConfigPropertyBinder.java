@@ -1,25 +1,33 @@
 package info.toyonos.config;
 
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
-
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
 
-import org.apache.commons.beanutils.BeanUtilsBean;
 import org.apache.commons.beanutils.ConversionException;
-import org.apache.commons.beanutils.ConvertUtilsBean;
-import org.apache.commons.beanutils.Converter;
-import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.tuple.Pair;
-import org.joda.time.format.PeriodFormatter;
-import org.joda.time.format.PeriodFormatterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.toyonos.config.ConfigPropertyBindReport.FieldReport;
+import info.toyonos.config.ConfigPropertyBindReport.ValueSource;
+import info.toyonos.config.ConfigPropertyBindingPlan.FieldBinding;
+import info.toyonos.config.ConfigPropertyBindingPlan.PropertyBinding;
+import info.toyonos.config.converter.ConverterRegistry;
+import info.toyonos.config.converter.ListConverter;
+
 /**
  * <p>An object to bind annotated static fields from a class, to a configuration adapted in a <code>ConfigPropertyBinder</code></p> 
  * 
@@ -79,39 +87,36 @@ public final class ConfigPropertyBinder
 {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ConfigPropertyBinder.class);
 
-	private static final PeriodFormatter PERIOD_FORMATTER =
-			new PeriodFormatterBuilder()
-				.appendDays().appendSuffix("d")
-				.appendHours().appendSuffix("h")
-				.appendMinutes().appendSuffix("m")
-				.appendSeconds().appendSuffix("s")
-				.appendMillis().appendSuffix("ms")
-				.toFormatter();
-
-		private static final ConvertUtilsBean CONVERT_UTILS_BEAN = BeanUtilsBean.getInstance().getConvertUtils();
+	private static final ClassValue<Optional<GeneratedConfigBinder>> GENERATED_BINDERS = new ClassValue<Optional<GeneratedConfigBinder>>()
+	{
+		@Override
+		protected Optional<GeneratedConfigBinder> computeValue(Class<?> type)
+		{
+			return loadGeneratedBinder(type);
+		}
+	};
 
-		static
+	/**
+	 * One lock per target class : the binds of a class are serialized, the binds of different classes run in parallel
+	 */
+	private static final ClassValue<ReentrantLock> BIND_LOCKS = new ClassValue<ReentrantLock>()
+	{
+		@Override
+		protected ReentrantLock computeValue(Class<?> type)
 		{
-			CONVERT_UTILS_BEAN.register(false, true, 0);
-			CONVERT_UTILS_BEAN.register(new Converter()
-			{
-				@Override
-				public <T> T convert(Class<T> type, Object value)
-				{
-					return type.cast(Duration.parse(PERIOD_FORMATTER.parsePeriod(value.toString()).toStandardDuration().toString()));
-				}
-			}, Duration.class);
+			return new ReentrantLock();
 		}
+	};
 
 		private ConfigPropertyAdapter configPropertyAdapter;
 		private Class<?> target;
-		private ConfigProperties configProperties;
+		private FieldWriterFactory fieldWriterFactory = DefaultFieldWriterFactory.getInstance();
+		private ConverterRegistry converters = ConverterRegistry.defaults();
 
-		private ConfigPropertyBinder(ConfigPropertyAdapter configPropertyAdapter, Class<?> target, ConfigProperties configProperties)
+		private ConfigPropertyBinder(ConfigPropertyAdapter configPropertyAdapter, Class<?> target)
 		{
 			this.configPropertyAdapter = configPropertyAdapter;
 			this.target = target;
-			this.configProperties = configProperties;
 		}
 		
 		/**
@@ -123,7 +128,7 @@ public final class ConfigPropertyBinder
 		 */
 		public static ConfigPropertyBinder create(ConfigPropertyAdapter configPropertyAdapter, Class<?> target)
 		{
-			return new ConfigPropertyBinder(configPropertyAdapter, target, target.getAnnotation(ConfigProperties.class));
+			return new ConfigPropertyBinder(configPropertyAdapter, target);
 		}
 		
 		/**
@@ -142,180 +147,415 @@ public final class ConfigPropertyBinder
 				throw new ConfigPropertyException(String.format("The ConfigProperties annotation is not defined for the target class '%s'", target));
 			}
 
-			try
-			{
-				return new ConfigPropertyBinder(configProperties.configPropertyAdapterClass().newInstance(), target, configProperties);
-			}
-			catch (ReflectiveOperationException e)
-			{
-				throw new ConfigPropertyException("Unable to instantiate the ConfigPropertyAdapter", e);
-			}
+			return new ConfigPropertyBinder(newAdapter(configProperties.configPropertyAdapterClass()), target);
 		}
 
 		/**
-		 * Bind the configuration into the target class
+		 * <p>Bind all the classes annotated with <code>&#064;ConfigProperties</code>, as listed in the index generated at build time by the <code>ConfigPropertiesProcessor</code></p>
+		 * 
+		 * @param defaultAdapter the <code>ConfigPropertyAdapter</code> to use for the classes which do not define a <code>configPropertyAdapterClass</code>, possibly null
+		 * @return the combined report of the run
+		 * @throws ConfigPropertyException if the index can't be read
+		 * @see #bindAll(Collection, ConfigPropertyAdapter, ForkJoinPool)
 		 */
-		public void bind()
+		public static ConfigPropertyBindAllReport bindAll(ConfigPropertyAdapter defaultAdapter)
 		{
-			for (Field propertyField : target.getDeclaredFields())
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			return bindAll(
+				ConfigPropertiesIndex.getClasses(classLoader != null ? classLoader : ConfigPropertyBinder.class.getClassLoader()),
+				defaultAdapter,
+				ForkJoinPool.commonPool()
+			);
+		}
+
+		/**
+		 * <p>Bind several classes in parallel</p>
+		 * <p>Classes are grouped by the <code>configPropertyAdapterClass</code> of their <code>&#064;ConfigProperties</code> annotation, and share one adapter instance per group.
+		 * They are initialized one by one on the calling thread before being bound on the pool, so that no worker ever waits for a class initialization lock</p>
+		 * <p>The keys of all the classes of a group are given at once to <code>ConfigPropertyAdapter.prefetch</code>, before binding the group</p>
+		 * <p>A failure does not stop the run : it is reported, and the other classes are still bound</p>
+		 * 
+		 * @param targets the target classes to bind
+		 * @param defaultAdapter the <code>ConfigPropertyAdapter</code> to use for the classes which do not define a <code>configPropertyAdapterClass</code>, possibly null
+		 * @param pool the pool binding the classes
+		 * @return the combined report of the run
+		 */
+		public static ConfigPropertyBindAllReport bindAll(Collection<Class<?>> targets, ConfigPropertyAdapter defaultAdapter, ForkJoinPool pool)
+		{
+			long start = System.nanoTime();
+			Map<Class<?>, Throwable> failures = new ConcurrentHashMap<>();
+			Map<Class<? extends ConfigPropertyAdapter>, List<Class<?>>> groups = new LinkedHashMap<>();
+			for (Class<?> target : targets)
 			{
-				ConfigProperty configProperty = propertyField.getAnnotation(ConfigProperty.class);
-				if (Modifier.isStatic(propertyField.getModifiers()) && configProperty != null)
+				try
+				{
+					Class.forName(target.getName(), true, target.getClassLoader());
+				}
+				catch (ClassNotFoundException | LinkageError e)
+				{
+					failures.put(target, e);
+					continue;
+				}
+				ConfigProperties configProperties = target.getAnnotation(ConfigProperties.class);
+				groups.computeIfAbsent(
+					configProperties != null ? configProperties.configPropertyAdapterClass() : ConfigPropertyAdapter.class,
+					k -> new ArrayList<>()
+				).add(target);
+			}
+
+			List<ConfigPropertyBinder> binders = new ArrayList<>();
+			for (Map.Entry<Class<? extends ConfigPropertyAdapter>, List<Class<?>>> group : groups.entrySet())
+			{
+				Set<ConfigPropertyKey> keys = new LinkedHashSet<>();
+				List<Class<?>> groupTargets = new ArrayList<>();
+				for (Class<?> target : group.getValue())
 				{
 					try
 					{
-						if (!propertyField.isAccessible()) propertyField.setAccessible(true);
-						removeFinalModifier(propertyField);
-						setPropertyField(propertyField, configProperty);
-						if (LOGGER.isDebugEnabled())
-						{
-							Object value = propertyField.get(null);
-							LOGGER.debug(
-								String.format(
-									"Property %s has been set with %s",
-									propertyField.getName(),
-									value == null ?
-										null :
-										(propertyField.getType().isArray() ?
-											Arrays.asList(getArray(propertyField.get(null))) :
-											propertyField.get(null)
-										)
-									)
-							);
-						}
+						keys.addAll(ConfigPropertyBindingPlan.of(target).getKeys());
+						groupTargets.add(target);
 					}
-					catch (ConversionException | IllegalArgumentException | ReflectiveOperationException | SecurityException e)
+					catch (RuntimeException e)
 					{
-						LOGGER.warn(String.format("Unable to set the ConfigProperty %s", propertyField.getName()), e);
+						LOGGER.warn(String.format("Unable to bind the class %s", target.getName()), e);
+						failures.put(target, e);
 					}
 				}
+
+				ConfigPropertyAdapter adapter;
+				try
+				{
+					adapter = group.getKey() == ConfigPropertyAdapter.class ? defaultAdapter : newAdapter(group.getKey());
+					if (adapter == null) throw new ConfigPropertyException("No ConfigPropertyAdapter is defined for this class");
+					// The binders are given the prefetched adapter, whose own prefetch is expected to be a no-op
+					adapter = adapter.prefetch(keys);
+				}
+				catch (RuntimeException e)
+				{
+					for (Class<?> target : groupTargets) failures.put(target, e);
+					continue;
+				}
+				for (Class<?> target : groupTargets) binders.add(new ConfigPropertyBinder(adapter, target));
 			}
+
+			List<Class<?>> boundClasses = Collections.synchronizedList(new ArrayList<>());
+			Map<Class<?>, ConfigPropertyBindReport> reports = new ConcurrentHashMap<>();
+			pool.submit(() -> binders.parallelStream().forEach(binder ->
+			{
+				try
+				{
+					reports.put(binder.target, binder.bind());
+					boundClasses.add(binder.target);
+				}
+				catch (RuntimeException e)
+				{
+					LOGGER.warn(String.format("Unable to bind the class %s", binder.target.getName()), e);
+					failures.put(binder.target, e);
+				}
+			})).join();
+
+			return new ConfigPropertyBindAllReport(boundClasses, reports, failures, Duration.ofNanos(System.nanoTime() - start));
 		}
 
-		private Object[] getArray(Object val)
+		/**
+		 * <p>Unregister the JMX metrics of a bound class, for instance when the application which loaded it is undeployed</p>
+		 * <p>The registered metrics reference the class : until they are unregistered, the class and its loader can't be collected.
+		 * A new bind of the class registers new metrics</p>
+		 *
+		 * @param target the bound class
+		 */
+		public static void unregisterMetrics(Class<?> target)
 		{
+			ConfigPropertyBindMetrics.unregister(target);
+		}
 
-			if (val instanceof Object[]) return (Object[]) val;
-			int arrlength = Array.getLength(val);
-			Object[] outputArray = new Object[arrlength];
-			for (int i = 0; i < arrlength; ++i)
+		private static ConfigPropertyAdapter newAdapter(Class<? extends ConfigPropertyAdapter> configPropertyAdapterClass)
+		{
+			try
 			{
-				outputArray[i] = Array.get(val, i);
+				return configPropertyAdapterClass.newInstance();
+			}
+			catch (ReflectiveOperationException e)
+			{
+				throw new ConfigPropertyException("Unable to instantiate the ConfigPropertyAdapter", e);
 			}
-			return outputArray;
 		}
-		
-		private void removeFinalModifier(Field propertyField) throws NoSuchFieldException, IllegalAccessException
+
+		private static Optional<GeneratedConfigBinder> loadGeneratedBinder(Class<?> target)
 		{
-			if (Modifier.isFinal(propertyField.getModifiers()))
+			try
 			{
-				Field modifiersField = Field.class.getDeclaredField("modifiers");
-				if (!modifiersField.isAccessible()) modifiersField.setAccessible(true);
-				modifiersField.setInt(propertyField, propertyField.getModifiers() & ~Modifier.FINAL);
-				if (propertyField.get(null) != null)
-				{
-					/*
-					 * Special case for already set static final fields : they can't be changed
-					 * 
-					 * @see http://stackoverflow.com/a/3301818/2003986
-					 * @see http://docs.oracle.com/javase/specs/jls/se7/html/jls-13.html#jls-13.4.9
-					 * 
-					 * "If a field is a constant variable (§4.12.4), then deleting the keyword final or changing its value
-					 * will not break compatibility with pre-existing binaries by causing them not to run,
-					 * but they will not see any new value for the usage of the field unless they are recompiled.
-					 * This is true even if the usage itself is not a compile-time constant expression (§15.28)"
-					 * 
-					 */
-					throw new IllegalStateException(String.format("The final field %s has already a value", propertyField.getName()));
-				}
+				Class<?> generatedBinderClass = Class.forName(target.getName() + GeneratedConfigBinder.SUFFIX, true, target.getClassLoader());
+				return Optional.of((GeneratedConfigBinder) generatedBinderClass.getDeclaredConstructor().newInstance());
+			}
+			catch (ClassNotFoundException e)
+			{
+				return Optional.empty();
+			}
+			catch (ReflectiveOperationException | LinkageError | ClassCastException e)
+			{
+				LOGGER.warn(String.format("Unable to use the generated binder of %s, reflection is used instead", target.getName()), e);
+				return Optional.empty();
+			}
+		}
+
+		Class<?> getTarget()
+		{
+			return target;
+		}
+
+		/**
+		 * <p>Use another <code>FieldWriterFactory</code> to write the fields of the target class</p>
+		 * <p>By default, fields are written by the <code>DefaultFieldWriterFactory</code></p>
+		 * 
+		 * @param fieldWriterFactory the <code>FieldWriterFactory</code> to use
+		 * @return this <code>ConfigPropertyBinder</code>
+		 */
+		public ConfigPropertyBinder withFieldWriterFactory(FieldWriterFactory fieldWriterFactory)
+		{
+			this.fieldWriterFactory = fieldWriterFactory;
+			return this;
+		}
+
+		/**
+		 * <p>Use another <code>ConverterRegistry</code> to convert the values of the configuration</p>
+		 * <p>By default, values are converted by <code>ConverterRegistry.defaults()</code></p>
+		 * 
+		 * @param converters the <code>ConverterRegistry</code> to use
+		 * @return this <code>ConfigPropertyBinder</code>
+		 */
+		public ConfigPropertyBinder withConverters(ConverterRegistry converters)
+		{
+			this.converters = converters;
+			return this;
+		}
+
+		/**
+		 * <p>Bind the configuration into the target class</p>
+		 * <p>The binding plan of the target class is compiled on the first bind and reused by the next ones</p>
+		 * <p>All the keys of the target class are first given to <code>ConfigPropertyAdapter.prefetch</code>, so that an adapter backed by a slow store can fetch them in one round trip</p>
+		 * <p>The metrics of the binds of each class are also published as a <code>ConfigPropertyBinderMXBean</code></p>
+		 * <p>If the <code>ConfigPropertiesProcessor</code> has generated a <code>GeneratedConfigBinder</code> for the target class, it is used instead of reflection,
+		 * unless another <code>FieldWriterFactory</code> is set</p>
+		 * <p>A static final field is bound only while it has no value : as the JIT may fold it into the compiled code which reads it,
+		 * a bind which would overwrite it throws an <code>IllegalStateException</code>. Declare the fields without <code>final</code> to bind them again</p>
+		 * <p>The binds and rebinds of a target class are serialized, whatever their binder : their writes never interleave,
+		 * so the fields of a class never end up with values mixed from two binds. The binds of different classes run in parallel.
+		 * On Java 9 and later, the non final fields written by the <code>DefaultFieldWriterFactory</code> or by a generated binder are written
+		 * with release semantics : a thread which reads the new value of a field with acquire semantics, a volatile read for instance,
+		 * also sees the fields written before it. On Java 8, or with another <code>FieldWriterFactory</code>, the writes are plain.
+		 * A consistent view of several values is better read from a <code>ConfigPropertySnapshot</code></p>
+		 * 
+		 * @return the report of the bind
+		 * @throws MissingConfigPropertyException if the value of a field which is not nullable is missing, once the other fields are bound and the bind is recorded in the metrics
+		 * @throws IllegalStateException if a final field already has a value, or if a holder is not initialized, once the other fields are bound and the bind is recorded in the metrics
+		 */
+		public ConfigPropertyBindReport bind()
+		{
+			GeneratedConfigBinder generatedBinder = fieldWriterFactory == DefaultFieldWriterFactory.getInstance() ? GENERATED_BINDERS.get(target).orElse(null) : null;
+			return generatedBinder != null ? bind(generatedBinder) : bind(ConfigPropertyBindingPlan.of(target));
+		}
+
+		ConfigPropertyBindReport bind(GeneratedConfigBinder generatedBinder)
+		{
+			ReentrantLock lock = BIND_LOCKS.get(target);
+			lock.lock();
+			try
+			{
+				long start = System.nanoTime();
+				ConfigPropertyBindSession session = new ConfigPropertyBindSession(this, configPropertyAdapter.prefetch(generatedBinder.getKeys()));
+				generatedBinder.bind(session);
+				return failFast(report(session.getFieldReports(), start));
+			}
+			finally
+			{
+				lock.unlock();
 			}
 		}
 
-		private void setPropertyField(Field propertyField, ConfigProperty configProperty) throws IllegalAccessException
+		ConfigPropertyBindReport bind(ConfigPropertyBindingPlan plan)
 		{
-			Pair<String, String> propertyId = getPropertyId(propertyField, configProperty);
-			Object convertedValue = getConvertedValue(propertyField, configProperty, propertyId);
-			
-			if (!configProperty.nullable() && convertedValue == null)
+			ReentrantLock lock = BIND_LOCKS.get(target);
+			lock.lock();
+			try
 			{
-				throw new MissingConfigPropertyException(
-					String.format(
-						"The property %s could not be set, missing value in configuration (prefix : %s, key : %s)",
-						propertyField.getName(),
-						propertyId.getLeft(),
-						propertyId.getRight()
-					)
-				);
+				long start = System.nanoTime();
+				ConfigPropertyAdapter adapter = configPropertyAdapter.prefetch(plan.getKeys());
+				List<FieldReport> fieldReports = new ArrayList<>(plan.getBindings().size());
+				for (FieldBinding binding : plan.getBindings())
+				{
+					fieldReports.add(bindField(adapter, binding));
+				}
+				return failFast(report(fieldReports, start));
 			}
-			else
+			finally
 			{
-				propertyField.set(null, convertedValue);
+				lock.unlock();
 			}
 		}
 
-		private Object getConvertedValue(Field propertyField, ConfigProperty configProperty, Pair<String, String> propertyId)
-		{		
-			if (propertyField.getType().isArray())
+		/**
+		 * <p>Bind again the fields of the target class mapped to some keys only</p>
+		 * <p>Meant to be registered on an <code>ObservableConfigPropertyAdapter</code> : <code>adapter.addChangeListener(binder::rebind)</code></p>
+		 * <p>Only the fields declared without <code>final</code> can be rebound : the JIT may have folded the value of a static final field
+		 * into the compiled code which reads it. A final field mapped to a changed key is reported as a failure, and keeps its value</p>
+		 * <p>Unlike {@link #bind()}, a rebind never throws because of a field : a required key which has been removed is reported as a failure,
+		 * the field keeps its value, and the other changed keys are still bound</p>
+		 * 
+		 * @param changedKeys the full keys (<code>prefix.property</code>) which have changed
+		 * @return the report of the fields bound again
+		 */
+		public ConfigPropertyBindReport rebind(Set<String> changedKeys)
+		{
+			ReentrantLock lock = BIND_LOCKS.get(target);
+			lock.lock();
+			try
 			{
-				List<String> defaultValue = configProperty.defaultListValue().length > 0 ? Arrays.asList(configProperty.defaultListValue()) : null;
-				List<String> value = defaultIfNull(
-					configPropertyAdapter.getPropertyAsList(propertyField.getDeclaringClass(), propertyId.getLeft(), propertyId.getRight()),
-					defaultValue
-				);
-				if (value != null)
+				long start = System.nanoTime();
+				ConfigPropertyBindingPlan plan = ConfigPropertyBindingPlan.of(target);
+				List<FieldReport> fieldReports = new ArrayList<>();
+				for (String changedKey : changedKeys)
 				{
-			        Class<?> finalComponentType = ClassUtils.primitiveToWrapper(propertyField.getType().getComponentType());
-			        Object newArray = Array.newInstance(propertyField.getType().getComponentType(), value.size());
-			        for (int i = 0; i < value.size(); i++)
-			        {
-			        	Array.set(
-			        		newArray,
-			        		i,
-			        		finalComponentType.cast(CONVERT_UTILS_BEAN.convert(
-			        			configProperty.trim() && value.get(i) != null ? value.get(i).trim() : value.get(i),
-			        			finalComponentType
-			        		))
-			        	);
-			        }
-			        return propertyField.getType().cast(newArray);
+					for (FieldBinding binding : plan.getBindings(changedKey))
+					{
+						fieldReports.add(binding.isFinal() ? refuseFinalField(binding) : bindField(configPropertyAdapter, binding));
+					}
 				}
+				return report(fieldReports, start);
 			}
-			else
+			finally
 			{
-				String defaultValue = !configProperty.defaultValue().isEmpty() ? configProperty.defaultValue() : null;
-				String value = defaultIfNull(
-					configPropertyAdapter.getProperty(propertyField.getDeclaringClass(), propertyId.getLeft(), propertyId.getRight()),
-					defaultValue
-				);
-				if (value != null)
+				lock.unlock();
+			}
+		}
+
+		private FieldReport refuseFinalField(FieldBinding binding)
+		{
+			IllegalStateException e = new IllegalStateException(
+				String.format("The final field %s can't be rebound, declare it without final", binding.getField().getName())
+			);
+			LOGGER.warn(String.format("Unable to set the ConfigProperty %s", binding.getField().getName()), e);
+			return new FieldReport(binding.getField().getName(), binding.getKey(), null, 0, 0, e);
+		}
+
+		/**
+		 * A bind stops the application on a missing value or on a final field which already has a value,
+		 * but only once all the fields have been bound, reported and counted in the metrics. The first of these failures is thrown, all of them are in the report
+		 */
+		private static ConfigPropertyBindReport failFast(ConfigPropertyBindReport report)
+		{
+			for (FieldReport field : report.getFields())
+			{
+				if (field.getFailure() instanceof MissingConfigPropertyException || field.getFailure() instanceof IllegalStateException)
 				{
-					String processedValue = configProperty.trim() ? value.trim() : value;
-					Class<?> finalClass = ClassUtils.primitiveToWrapper(propertyField.getType());
-					return finalClass.cast(CONVERT_UTILS_BEAN.convert(processedValue, finalClass));
+					throw (RuntimeException) field.getFailure();
 				}
 			}
+			return report;
+		}
 
-			return null;
+		private ConfigPropertyBindReport report(List<FieldReport> fieldReports, long start)
+		{
+			ConfigPropertyBindReport report = new ConfigPropertyBindReport(target, fieldReports, Duration.ofNanos(System.nanoTime() - start));
+			ConfigPropertyBindMetrics.of(target).record(configPropertyAdapter, report);
+			return report;
 		}
 
-		private Pair<String, String> getPropertyId(Field propertyField, ConfigProperty configProperty)
+		FieldReport bindField(ConfigPropertyAdapter adapter, FieldBinding binding)
 		{
-			return Pair.of(
-				getDefaultValue(configProperty.prefix(), configProperties != null ? getDefaultValue(configProperties.prefix()) : null),
-				propertyField.getName().replace('_', '.').toLowerCase()
-			);
+			FieldWriter writer;
+			try
+			{
+				writer = binding.getWriter(fieldWriterFactory);
+			}
+			catch (ReflectiveOperationException | SecurityException | IllegalStateException e)
+			{
+				LOGGER.warn(String.format("Unable to set the ConfigProperty %s", binding.getField().getName()), e);
+				return new FieldReport(binding.getField().getName(), binding.getKey(), null, 0, 0, e);
+			}
+			return bindProperty(adapter, binding, binding.getField().getName(), writer);
 		}
 
-		private String getDefaultValue(String value)
+		FieldReport bindProperty(ConfigPropertyAdapter adapter, PropertyBinding binding, String fieldName, FieldWriter writer)
 		{
-			return getDefaultValue(value, null);
+			ValueSource source = null;
+			long lookupNanos = 0;
+			long conversionNanos = 0;
+			try
+			{
+				ListConverter<?> listConverter = binding.getListConverter(converters);
+
+				long start = System.nanoTime();
+				Object rawValue = binding.lookup(adapter, target, listConverter);
+				lookupNanos = System.nanoTime() - start;
+				source = ValueSource.ADAPTER;
+				if (rawValue == null)
+				{
+					rawValue = binding.getDefault(listConverter != null);
+					source = rawValue != null ? ValueSource.DEFAULT : ValueSource.NONE;
+				}
+
+				start = System.nanoTime();
+				Object value = rawValue != null ? binding.convert(rawValue, listConverter, converters) : null;
+				conversionNanos = System.nanoTime() - start;
+
+				setPropertyField(writer, binding, fieldName, value);
+				if (LOGGER.isDebugEnabled())
+				{
+					LOGGER.debug(
+						String.format(
+							"Property %s has been set with %s",
+							fieldName,
+							value == null ?
+								null :
+								(binding.getType().isArray() ?
+									Arrays.asList(getArray(value)) :
+									value
+								)
+							)
+					);
+				}
+				return new FieldReport(fieldName, binding.getKey(), source, lookupNanos, conversionNanos, null);
+			}
+			catch (ConversionException | IllegalArgumentException | MissingConfigPropertyException | ReflectiveOperationException | SecurityException e)
+			{
+				LOGGER.warn(String.format("Unable to set the ConfigProperty %s", fieldName), e);
+				return new FieldReport(fieldName, binding.getKey(), source, lookupNanos, conversionNanos, e);
+			}
 		}
-		
-		private String getDefaultValue(String value, String other)
+
+		private Object[] getArray(Object val)
 		{
-			return !value.isEmpty() ? value : other;
+
+			if (val instanceof Object[]) return (Object[]) val;
+			int arrlength = Array.getLength(val);
+			Object[] outputArray = new Object[arrlength];
+			for (int i = 0; i < arrlength; ++i)
+			{
+				outputArray[i] = Array.get(val, i);
+			}
+			return outputArray;
 		}
-	
+
+		private void setPropertyField(FieldWriter writer, PropertyBinding binding, String fieldName, Object convertedValue) throws ReflectiveOperationException
+		{
+			if (!binding.isNullable() && convertedValue == null)
+			{
+				throw new MissingConfigPropertyException(
+					String.format(
+						"The property %s could not be set, missing value in configuration (prefix : %s, key : %s)",
+						fieldName,
+						binding.getKey().getPrefix(),
+						binding.getKey().getProperty()
+					)
+				);
+			}
+			else
+			{
+				writer.set(convertedValue);
+			}
+		}
+
 //	static
 //	{
 //		BeanUtilsBean.getInstance().getConvertUtils().register(true, false, 0);
@@ -386,7 +626,7 @@ public final class ConfigPropertyBinder
 //					removeFinalModifier(propertyField);
 //					setPropertyField(propertyField, configProperty);
 //				}
-//				catch (ConversionException | IllegalArgumentException | ReflectiveOperationException | SecurityException e)
+//				catch (ConversionException | IllegalArgumentException | MissingConfigPropertyException | ReflectiveOperationException | SecurityException e)
 //				{
 //					LOGGER.warn(String.format("Unable to set the ConfigProperty %s", propertyField.getName()), e);
 //				}
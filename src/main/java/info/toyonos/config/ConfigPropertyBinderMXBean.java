@@ -0,0 +1,77 @@
+package info.toyonos.config;
+
+import java.util.Map;
+
+/**
+ * <p>The metrics of the binds of a class, registered as <code>info.toyonos.config:type=ConfigPropertyBinder,name=&lt;class name&gt;</code></p>
+ * <p>The histograms count the fields by latency bucket : <code>&lt;1us</code>, <code>&lt;10us</code>... up to <code>&gt;=1s</code></p>
+ * 
+ * @author ToYonos
+ */
+public interface ConfigPropertyBinderMXBean
+{
+	/**
+	 * @return the name of the bound class
+	 */
+	String getTargetClassName();
+
+	/**
+	 * @return the class name of the <code>ConfigPropertyAdapter</code> of the last bind
+	 */
+	String getAdapterClassName();
+
+	/**
+	 * @return the number of binds and rebinds
+	 */
+	long getBindCount();
+
+	/**
+	 * @return the number of fields bound, by all the binds
+	 */
+	long getFieldCount();
+
+	/**
+	 * @return the number of fields which could not be set
+	 */
+	long getFailureCount();
+
+	/**
+	 * @return the number of fields set with their default value
+	 */
+	long getDefaultValueCount();
+
+	/**
+	 * @return the duration of the last bind, in nanoseconds
+	 */
+	long getLastBindNanos();
+
+	/**
+	 * @return the cumulated duration of the binds, in nanoseconds
+	 */
+	long getTotalBindNanos();
+
+	/**
+	 * @return the cumulated time spent in the <code>ConfigPropertyAdapter</code>, in nanoseconds
+	 */
+	long getTotalLookupNanos();
+
+	/**
+	 * @return the cumulated time spent converting values, in nanoseconds
+	 */
+	long getTotalConversionNanos();
+
+	/**
+	 * @return the number of lookups by latency bucket
+	 */
+	Map<String, Long> getLookupHistogram();
+
+	/**
+	 * @return the number of conversions by latency bucket
+	 */
+	Map<String, Long> getConversionHistogram();
+
+	/**
+	 * @return the report of the last bind
+	 */
+	String getLastReport();
+}
@@ -0,0 +1,542 @@
+package info.toyonos.config;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import info.toyonos.config.converter.ConverterRegistry;
+import info.toyonos.config.converter.ListConverter;
+import info.toyonos.config.converter.StreamingListConverter;
+import info.toyonos.config.converter.ValueConverter;
+
+/**
+ * <p>The compiled binding plan of a target class : its <code>&#064;ConfigProperty</code> fields, with their keys, default values and converters already resolved</p>
+ * <p>A plan is compiled once per class and cached, rebinding a class only runs its plan again</p>
+ *
+ * @author ToYonos
+ */
+final class ConfigPropertyBindingPlan
+{
+	private static final ClassValue<ConfigPropertyBindingPlan> PLANS = new ClassValue<ConfigPropertyBindingPlan>()
+	{
+		@Override
+		protected ConfigPropertyBindingPlan computeValue(Class<?> type)
+		{
+			return compile(type);
+		}
+	};
+
+	private final Class<?> target;
+	private final List<FieldBinding> bindings;
+	private final Map<String, List<FieldBinding>> bindingsByKey;
+	private final Set<ConfigPropertyKey> keys;
+	private final Map<String, FieldBinding> bindingsByFieldName;
+
+	private ConfigPropertyBindingPlan(Class<?> target, List<FieldBinding> bindings)
+	{
+		this.target = target;
+		this.bindings = Collections.unmodifiableList(bindings);
+		this.bindingsByKey = new HashMap<>();
+		this.bindingsByFieldName = new HashMap<>();
+		Set<ConfigPropertyKey> keys = new LinkedHashSet<>();
+		for (FieldBinding binding : bindings)
+		{
+			bindingsByKey.computeIfAbsent(binding.getKey().getKey(), k -> new ArrayList<>(1)).add(binding);
+			bindingsByFieldName.put(binding.getField().getName(), binding);
+			keys.add(binding.getKey());
+		}
+		this.keys = Collections.unmodifiableSet(keys);
+	}
+
+	/**
+	 * Get the cached plan of a target class, compiling it on first use
+	 *
+	 * @param target the target class
+	 * @return the plan
+	 */
+	static ConfigPropertyBindingPlan of(Class<?> target)
+	{
+		return PLANS.get(target);
+	}
+
+	/**
+	 * Compile the plan of a target class, bypassing the cache
+	 *
+	 * @param target the target class
+	 * @return the new plan
+	 */
+	static ConfigPropertyBindingPlan compile(Class<?> target)
+	{
+		ConfigProperties configProperties = target.getAnnotation(ConfigProperties.class);
+		String defaultPrefix = configProperties != null ? emptyToNull(configProperties.prefix()) : null;
+
+		List<FieldBinding> bindings = new ArrayList<>();
+		for (Field propertyField : target.getDeclaredFields())
+		{
+			ConfigProperty configProperty = propertyField.getAnnotation(ConfigProperty.class);
+			if (Modifier.isStatic(propertyField.getModifiers()) && configProperty != null)
+			{
+				bindings.add(new FieldBinding(propertyField, configProperty, defaultPrefix));
+			}
+		}
+		return new ConfigPropertyBindingPlan(target, bindings);
+	}
+
+	Class<?> getTarget()
+	{
+		return target;
+	}
+
+	List<FieldBinding> getBindings()
+	{
+		return bindings;
+	}
+
+	/**
+	 * @return the distinct keys of the bindings
+	 */
+	Set<ConfigPropertyKey> getKeys()
+	{
+		return keys;
+	}
+
+	/**
+	 * @param fieldName the name of a field
+	 * @return the binding of this field, null if the field is not bound
+	 */
+	FieldBinding getBinding(String fieldName)
+	{
+		return bindingsByFieldName.get(fieldName);
+	}
+
+	/**
+	 * @param key a full key (<code>prefix.property</code>)
+	 * @return the bindings of the fields mapped to this key, possibly empty
+	 */
+	List<FieldBinding> getBindings(String key)
+	{
+		return bindingsByKey.getOrDefault(key, Collections.emptyList());
+	}
+
+	private static String emptyToNull(String value)
+	{
+		return !value.isEmpty() ? value : null;
+	}
+
+	/**
+	 * A single <code>&#064;ConfigProperty</code> : its key, its type and how to resolve its value
+	 */
+	static class PropertyBinding
+	{
+		private final ConfigPropertyKey key;
+		private final Class<?> type;
+		private final String defaultValue;
+		private final List<String> defaultListValue;
+		private final boolean nullable;
+		private final boolean trim;
+		private final ValueConverter<?> converter;
+		private final ListConverter<?> listConverter;
+
+		PropertyBinding(ConfigPropertyKey key, Class<?> type, ConfigProperty configProperty)
+		{
+			this(key, type, configProperty.defaultValue(), configProperty.defaultListValue(), configProperty.nullable(), configProperty.trim());
+		}
+
+		PropertyBinding(ConfigPropertyKey key, Class<?> type, String defaultValue, String[] defaultListValue, boolean nullable, boolean trim)
+		{
+			this.key = key;
+			this.type = type;
+			this.defaultValue = emptyToNull(defaultValue);
+			this.defaultListValue = defaultListValue.length > 0 ?
+				Collections.unmodifiableList(Arrays.asList(defaultListValue.clone())) :
+				null;
+			this.nullable = nullable;
+			this.trim = trim;
+			this.listConverter = ConverterRegistry.defaults().getListConverter(type);
+			this.converter = listConverter == null ? ConverterRegistry.defaults().getConverter(type) : null;
+		}
+
+		/**
+		 * Retrieve the value of the property from an adapter, or its default value, then convert it
+		 *
+		 * @param adapter the adapter
+		 * @param source the class requesting the property
+		 * @param converters the converters to use
+		 * @return the converted value, possibly null
+		 */
+		Object resolve(ConfigPropertyAdapter adapter, Class<?> source, ConverterRegistry converters)
+		{
+			ListConverter<?> listConverter = getListConverter(converters);
+			Object value = defaultIfNull(lookup(adapter, source, listConverter), getDefault(listConverter != null));
+			return value != null ? convert(value, listConverter, converters) : null;
+		}
+
+		/**
+		 * @param converters the converters to use
+		 * @return the list converter of the property, null if it's not a list property
+		 */
+		ListConverter<?> getListConverter(ConverterRegistry converters)
+		{
+			return converters == ConverterRegistry.defaults() ? listConverter : converters.getListConverter(type);
+		}
+
+		/**
+		 * <p>Retrieve the raw value of the property from an adapter</p>
+		 * <p>With a <code>StreamingListConverter</code>, the elements are streamed by the adapter and parsed on the fly, the value is then only finished by {@link #convert(Object, ListConverter, ConverterRegistry)}</p>
+		 *
+		 * @param adapter the adapter
+		 * @param source the class requesting the property
+		 * @param listConverter the list converter of the property, null if it's not a list property
+		 * @return the value, a String, a List of String or a streamed list, null if not found
+		 */
+		Object lookup(ConfigPropertyAdapter adapter, Class<?> source, ListConverter<?> listConverter)
+		{
+			if (listConverter instanceof StreamingListConverter)
+			{
+				Converted converted = new Converted(((StreamingListConverter<?>) listConverter).newAccumulator(), trim);
+				return adapter.forEachListElement(source, key.getPrefix(), key.getProperty(), converted) ? converted : null;
+			}
+			return listConverter != null ?
+				adapter.getPropertyAsList(source, key.getPrefix(), key.getProperty()) :
+				adapter.getProperty(source, key.getPrefix(), key.getProperty());
+		}
+
+		/**
+		 * @param list true for a list property
+		 * @return the raw default value of the property, possibly null
+		 */
+		Object getDefault(boolean list)
+		{
+			return list ? defaultListValue : defaultValue;
+		}
+
+		/**
+		 * Convert a raw value of the property
+		 *
+		 * @param value a String, or a List of String for a list property
+		 * @param listConverter the list converter of the property, null if it's not a list property
+		 * @param converters the converters to use
+		 * @return the converted value, possibly null
+		 */
+		@SuppressWarnings("unchecked")
+		Object convert(Object value, ListConverter<?> listConverter, ConverterRegistry converters)
+		{
+			if (value instanceof Converted) return ((Converted) value).get();
+			if (listConverter != null)
+			{
+				List<String> values = (List<String>) value;
+				return listConverter.convert(trim ? trim(values) : values);
+			}
+
+			ValueConverter<?> converter = converters == ConverterRegistry.defaults() ? this.converter : converters.getConverter(type);
+			return converter.convert(trim ? ((String) value).trim() : (String) value);
+		}
+
+		private static List<String> trim(List<String> values)
+		{
+			List<String> trimmedValues = new ArrayList<>(values.size());
+			for (String value : values)
+			{
+				trimmedValues.add(value != null ? value.trim() : null);
+			}
+			return trimmedValues;
+		}
+
+		ConfigPropertyKey getKey()
+		{
+			return key;
+		}
+
+		Class<?> getType()
+		{
+			return type;
+		}
+
+		String getDefaultValue()
+		{
+			return defaultValue;
+		}
+
+		List<String> getDefaultListValue()
+		{
+			return defaultListValue;
+		}
+
+		boolean isNullable()
+		{
+			return nullable;
+		}
+
+		boolean isTrim()
+		{
+			return trim;
+		}
+
+		/**
+		 * @return the converter of the property from the default <code>ConverterRegistry</code>, null for a list property
+		 */
+		ValueConverter<?> getConverter()
+		{
+			return converter;
+		}
+
+		/**
+		 * @return the list converter of the property from the default <code>ConverterRegistry</code>, null if it's not a list property
+		 */
+		ListConverter<?> getListConverter()
+		{
+			return listConverter;
+		}
+	}
+
+	/**
+	 * A list value streamed to the accumulator of a <code>StreamingListConverter</code> during its lookup.
+	 * An element which can't be converted is only reported by {@link #get()}, as a conversion failure
+	 */
+	private static final class Converted implements ListElementConsumer
+	{
+		private final StreamingListConverter.Accumulator<?> accumulator;
+		private final boolean trim;
+		private IllegalArgumentException failure;
+
+		private Converted(StreamingListConverter.Accumulator<?> accumulator, boolean trim)
+		{
+			this.accumulator = accumulator;
+			this.trim = trim;
+		}
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			if (failure != null) return;
+			if (trim)
+			{
+				while (start < end && value.charAt(start) <= ' ') start++;
+				while (end > start && value.charAt(end - 1) <= ' ') end--;
+			}
+			try
+			{
+				accumulator.accept(value, start, end);
+			}
+			catch (IllegalArgumentException e)
+			{
+				failure = e;
+			}
+		}
+
+		private Object get()
+		{
+			if (failure != null) throw failure;
+			return accumulator.finish();
+		}
+	}
+
+	/**
+	 * A single <code>&#064;ConfigProperty</code> field of a plan
+	 */
+	static final class FieldBinding extends PropertyBinding
+	{
+		private final Field field;
+		private final boolean holder;
+		private final boolean finalField;
+		private final Exception setupFailure;
+		private final FieldWriter writer;
+		private final ConcurrentMap<FieldWriterFactory, FieldWriter> customWriters = new ConcurrentHashMap<>();
+
+		private FieldBinding(Field field, ConfigProperty configProperty, String defaultPrefix)
+		{
+			super(
+				ConfigPropertyKey.of(
+					configProperty.prefix().isEmpty() ? defaultPrefix : configProperty.prefix(),
+					field.getName().replace('_', '.').toLowerCase(Locale.ROOT)
+				),
+				defaultIfNull(valueType(field), Object.class),
+				configProperty
+			);
+			this.field = field;
+			this.holder = isHolder(field.getType());
+			// Read before the writer removes the final modifier
+			this.finalField = !holder && Modifier.isFinal(field.getModifiers());
+			this.setupFailure = prepare(field, holder, finalField);
+			this.writer = setupFailure == null ? (holder ? createHolderWriter(field) : createWriter(field)) : null;
+		}
+
+		private static Exception prepare(Field propertyField, boolean holder, boolean finalField)
+		{
+			try
+			{
+				if (!propertyField.isAccessible()) propertyField.setAccessible(true);
+				if (holder)
+				{
+					checkHolder(propertyField);
+				}
+				else
+				{
+					checkNotAlreadySet(propertyField, finalField);
+				}
+				return null;
+			}
+			catch (ReflectiveOperationException | SecurityException | IllegalStateException e)
+			{
+				return e;
+			}
+		}
+
+		private static boolean isHolder(Class<?> type)
+		{
+			return type == ConfigFlag.class || type == ConfigConstant.class;
+		}
+
+		/**
+		 * @return the type of the values of the field : the type of the field, or the type held by a <code>ConfigFlag</code> or a <code>ConfigConstant</code>,
+		 * null if it can't be resolved
+		 */
+		private static Class<?> valueType(Field propertyField)
+		{
+			if (propertyField.getType() == ConfigFlag.class) return boolean.class;
+			if (propertyField.getType() != ConfigConstant.class) return propertyField.getType();
+
+			Type genericType = propertyField.getGenericType();
+			if (!(genericType instanceof ParameterizedType)) return null;
+			Type typeArgument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+			if (typeArgument instanceof Class) return (Class<?>) typeArgument;
+			if (typeArgument instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) typeArgument).getRawType();
+			return null;
+		}
+
+		/**
+		 * A <code>ConfigFlag</code> or a <code>ConfigConstant</code> field is not written, only its holder is updated : it must already be set
+		 */
+		private static void checkHolder(Field propertyField) throws IllegalAccessException
+		{
+			if (valueType(propertyField) == null)
+			{
+				throw new IllegalStateException(String.format("The type of the values of the ConfigConstant %s can't be resolved", propertyField.getName()));
+			}
+			if (readValue(propertyField) == null)
+			{
+				throw new IllegalStateException(String.format("The field %s must be initialized with its default %s", propertyField.getName(), propertyField.getType().getSimpleName()));
+			}
+		}
+
+		private static void checkNotAlreadySet(Field propertyField, boolean finalField) throws IllegalAccessException
+		{
+			if (finalField && readValue(propertyField) != null)
+			{
+				/*
+				 * Special case for already set static final fields : they can't be changed
+				 *
+				 * @see http://stackoverflow.com/a/3301818/2003986
+				 * @see http://docs.oracle.com/javase/specs/jls/se7/html/jls-13.html#jls-13.4.9
+				 *
+				 * "If a field is a constant variable (§4.12.4), then deleting the keyword final or changing its value
+				 * will not break compatibility with pre-existing binaries by causing them not to run,
+				 * but they will not see any new value for the usage of the field unless they are recompiled.
+				 * This is true even if the usage itself is not a compile-time constant expression (§15.28)"
+				 *
+				 * The check is done before every bind, not only when the plan is compiled : a value set by a previous bind
+				 * may already be folded as a constant by the JIT, it can't be changed either
+				 */
+				throw new IllegalStateException(String.format("The final field %s has already a value", propertyField.getName()));
+			}
+		}
+
+		private static Object readValue(Field propertyField) throws IllegalAccessException
+		{
+			// A method handle keeps Field.get from caching a read-only accessor on the field before it is made writable
+			MethodHandle getter = MethodHandles.lookup().unreflectGetter(propertyField);
+			try
+			{
+				return getter.invoke();
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static FieldWriter createHolderWriter(Field propertyField)
+		{
+			try
+			{
+				Object holder = readValue(propertyField);
+				return holder instanceof ConfigFlag ? ((ConfigFlag) holder)::set : ((ConfigConstant<?>) holder)::set;
+			}
+			catch (IllegalAccessException e)
+			{
+				return value -> { throw e; };
+			}
+		}
+
+		private static FieldWriter createWriter(Field propertyField)
+		{
+			try
+			{
+				return DefaultFieldWriterFactory.getInstance().create(propertyField);
+			}
+			catch (ReflectiveOperationException | SecurityException e)
+			{
+				return value -> { throw e; };
+			}
+		}
+
+		/**
+		 * Get the writer of the field for a <code>FieldWriterFactory</code>, created once per factory
+		 *
+		 * @param factory the factory of the writer
+		 * @return the writer
+		 * @throws ReflectiveOperationException if the field could not be made writable
+		 * @throws IllegalStateException if the field is final and already has a value
+		 */
+		FieldWriter getWriter(FieldWriterFactory factory) throws ReflectiveOperationException
+		{
+			if (setupFailure instanceof ReflectiveOperationException) throw (ReflectiveOperationException) setupFailure;
+			if (setupFailure instanceof RuntimeException) throw (RuntimeException) setupFailure;
+			checkNotAlreadySet(field, finalField);
+			// The holders are updated whatever the factory : their field is never written
+			if (factory == DefaultFieldWriterFactory.getInstance() || holder) return writer;
+
+			FieldWriter customWriter = customWriters.get(factory);
+			if (customWriter == null)
+			{
+				customWriter = factory.create(field);
+				FieldWriter previous = customWriters.putIfAbsent(factory, customWriter);
+				if (previous != null) customWriter = previous;
+			}
+			return customWriter;
+		}
+
+		Field getField()
+		{
+			return field;
+		}
+
+		/**
+		 * @return true if the field is declared final : it can only be bound once, while it has no value
+		 */
+		boolean isFinal()
+		{
+			return finalField;
+		}
+	}
+}
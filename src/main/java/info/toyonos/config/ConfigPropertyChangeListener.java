@@ -0,0 +1,19 @@
+package info.toyonos.config;
+
+import java.util.Set;
+
+/**
+ * A listener notified when the configuration behind an <code>ObservableConfigPropertyAdapter</code> changes
+ * 
+ * @author ToYonos
+ */
+@FunctionalInterface
+public interface ConfigPropertyChangeListener
+{
+	/**
+	 * Called after the configuration has changed
+	 * 
+	 * @param changedKeys the full keys (<code>prefix.property</code>) which have been added, modified or removed
+	 */
+	void onChange(Set<String> changedKeys);
+}
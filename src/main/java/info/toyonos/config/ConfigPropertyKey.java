@@ -0,0 +1,152 @@
+package info.toyonos.config;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The resolved key of a <code>&#064;ConfigProperty</code> : its prefix and its property name, as given to a <code>ConfigPropertyAdapter</code>
+ *
+ * @author ToYonos
+ */
+public final class ConfigPropertyKey
+{
+	private final String prefix;
+	private final String property;
+	private final String key;
+
+	private ConfigPropertyKey(String prefix, String property)
+	{
+		this.prefix = prefix;
+		this.property = property;
+		this.key = toKey(prefix, property);
+	}
+
+	/**
+	 * Constructs a <code>ConfigPropertyKey</code>
+	 *
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return the new <code>ConfigPropertyKey</code>
+	 */
+	public static ConfigPropertyKey of(String prefix, String property)
+	{
+		return new ConfigPropertyKey(prefix, property);
+	}
+
+	/**
+	 * Build the full key of a property, the same way the provided adapters do
+	 *
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return the full key, <code>prefix.property</code>
+	 */
+	public static String toKey(String prefix, String property)
+	{
+		return prefix + '.' + property;
+	}
+
+	/**
+	 * Compute the hash code of the full key of a property, without building it
+	 *
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return the hash code of {@link #toKey(String, String)}
+	 */
+	public static int hash(String prefix, String property)
+	{
+		String nonNullPrefix = String.valueOf(prefix);
+		int hash = 0;
+		for (int i = 0; i < nonNullPrefix.length(); i++) hash = 31 * hash + nonNullPrefix.charAt(i);
+		hash = 31 * hash + '.';
+		for (int i = 0; i < property.length(); i++) hash = 31 * hash + property.charAt(i);
+		return hash;
+	}
+
+	/**
+	 * Compare a key to the full key of a property, without building it
+	 *
+	 * @param key the key
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return true if the key is {@link #toKey(String, String)}
+	 */
+	public static boolean matches(String key, String prefix, String property)
+	{
+		String nonNullPrefix = String.valueOf(prefix);
+		return key.length() == nonNullPrefix.length() + 1 + property.length()
+			&& key.startsWith(nonNullPrefix)
+			&& key.charAt(nonNullPrefix.length()) == '.'
+			&& key.regionMatches(nonNullPrefix.length() + 1, property, 0, property.length());
+	}
+
+	/**
+	 * Compare a key encoded with one byte per char (ISO-8859-1, or ASCII) to the full key of a property, in place
+	 *
+	 * @param buffer the buffer containing the key
+	 * @param start the index of the first byte of the key
+	 * @param length the number of bytes of the key
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return true if the key is {@link #toKey(String, String)}
+	 */
+	public static boolean matches(ByteBuffer buffer, int start, int length, String prefix, String property)
+	{
+		String nonNullPrefix = String.valueOf(prefix);
+		if (length != nonNullPrefix.length() + 1 + property.length()) return false;
+		for (int i = 0; i < nonNullPrefix.length(); i++)
+		{
+			if ((buffer.get(start + i) & 0xFF) != nonNullPrefix.charAt(i)) return false;
+		}
+		if (buffer.get(start + nonNullPrefix.length()) != '.') return false;
+		int propertyStart = start + nonNullPrefix.length() + 1;
+		for (int i = 0; i < property.length(); i++)
+		{
+			if ((buffer.get(propertyStart + i) & 0xFF) != property.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the prefix of the property, possibly null
+	 */
+	public String getPrefix()
+	{
+		return prefix;
+	}
+
+	/**
+	 * @return the key of the property, without its prefix
+	 */
+	public String getProperty()
+	{
+		return property;
+	}
+
+	/**
+	 * @return the full key, <code>prefix.property</code>
+	 */
+	public String getKey()
+	{
+		return key;
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj) return true;
+		if (!(obj instanceof ConfigPropertyKey)) return false;
+		ConfigPropertyKey other = (ConfigPropertyKey) obj;
+		return key.equals(other.key) && property.equals(other.property);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return key.hashCode();
+	}
+
+	@Override
+	public String toString()
+	{
+		return key;
+	}
+}
@@ -0,0 +1,390 @@
+package info.toyonos.config;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.beanutils.ConversionException;
+
+import info.toyonos.config.ConfigPropertyBindingPlan.PropertyBinding;
+import info.toyonos.config.converter.ConverterRegistry;
+import info.toyonos.config.converter.ListConverter;
+
+/**
+ * <p>A factory of instances of a configuration interface, whose getters are annotated with <code>&#064;ConfigProperty</code></p>
+ * <p>Unlike a <code>ConfigPropertyBinder</code>, which binds static fields, each instance has its own <code>ConfigPropertyAdapter</code>.
+ * A value is retrieved and converted on the first call of its getter only, then cached in the instance.
+ * The interface is analyzed once : all the instances share the same proxy class and the same bindings</p>
+ *
+ * Example :
+ *
+ * <pre>
+ * &#064;ConfigProperties(prefix = "myapp.db")
+ * public interface DbConfig
+ * {
+ * 	&#064;ConfigProperty
+ * 	String getUsername();
+ *
+ * 	&#064;ConfigProperty(defaultValue = "180")
+ * 	int getConnectionTimeout();
+ * }
+ *
+ * DbConfig config = ConfigPropertyProxyFactory.of(DbConfig.class).create(tenantAdapter);
+ * </pre>
+ *
+ * <p>The key of a getter is its name without the <code>get</code> or <code>is</code> prefix, in lower case, with a dot between each word :
+ * <code>getConnectionTimeout</code> is mapped to <code>myapp.db.connection.timeout</code>. The prefix and default rules are the ones of the static fields</p>
+ *
+ * @param <T> the configuration interface
+ * @author ToYonos
+ */
+public final class ConfigPropertyProxyFactory<T>
+{
+	private static final ClassValue<ConfigPropertyProxyFactory<?>> FACTORIES = new ClassValue<ConfigPropertyProxyFactory<?>>()
+	{
+		@Override
+		protected ConfigPropertyProxyFactory<?> computeValue(Class<?> type)
+		{
+			return new ConfigPropertyProxyFactory<>(type);
+		}
+	};
+
+	private static final Object NULL = new Object();
+
+	private final Class<T> type;
+	private final Constructor<?> proxyConstructor;
+	private final Map<Method, Integer> indexes = new HashMap<>();
+	private final List<PropertyBinding> bindings = new ArrayList<>();
+
+	private ConfigPropertyProxyFactory(Class<T> type)
+	{
+		if (!type.isInterface())
+		{
+			throw new ConfigPropertyException(String.format("%s is not an interface", type.getName()));
+		}
+		this.type = type;
+
+		ConfigProperties configProperties = type.getAnnotation(ConfigProperties.class);
+		String defaultPrefix = configProperties != null && !configProperties.prefix().isEmpty() ? configProperties.prefix() : null;
+		for (Method method : type.getMethods())
+		{
+			if (Modifier.isStatic(method.getModifiers())) continue;
+
+			ConfigProperty configProperty = method.getAnnotation(ConfigProperty.class);
+			if (configProperty == null || method.isDefault() || method.getParameterCount() > 0 || method.getReturnType() == void.class)
+			{
+				throw new ConfigPropertyException(
+					String.format("The method %s of %s is not an abstract getter annotated with ConfigProperty", method.getName(), type.getName())
+				);
+			}
+
+			indexes.put(method, bindings.size());
+			bindings.add(
+				new PropertyBinding(
+					ConfigPropertyKey.of(configProperty.prefix().isEmpty() ? defaultPrefix : configProperty.prefix(), toProperty(method.getName())),
+					method.getReturnType(),
+					configProperty
+				)
+			);
+		}
+
+		try
+		{
+			this.proxyConstructor = Proxy.getProxyClass(type.getClassLoader(), type).getConstructor(InvocationHandler.class);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to create a proxy class for %s", type.getName()), e);
+		}
+	}
+
+	/**
+	 * Get the factory of a configuration interface, created once per interface
+	 *
+	 * @param <T> the configuration interface
+	 * @param type the configuration interface
+	 * @return the factory
+	 * @throws ConfigPropertyException if the type is not an interface, or if one of its methods is not an annotated getter
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ConfigPropertyProxyFactory<T> of(Class<T> type)
+	{
+		return (ConfigPropertyProxyFactory<T>) FACTORIES.get(type);
+	}
+
+	/**
+	 * Create an instance of the configuration interface
+	 *
+	 * @param configPropertyAdapter the <code>ConfigPropertyAdapter</code> of the instance
+	 * @return the new instance
+	 */
+	public T create(ConfigPropertyAdapter configPropertyAdapter)
+	{
+		return create(configPropertyAdapter, ConverterRegistry.defaults());
+	}
+
+	/**
+	 * Create an instance of the configuration interface
+	 *
+	 * @param configPropertyAdapter the <code>ConfigPropertyAdapter</code> of the instance
+	 * @param converters the <code>ConverterRegistry</code> of the instance
+	 * @return the new instance
+	 */
+	public T create(ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters)
+	{
+		return newInstance(new Handler(configPropertyAdapter, converters, new AtomicReferenceArray<>(bindings.size())));
+	}
+
+	/**
+	 * Resolve all the values of an instance at once
+	 *
+	 * @param configPropertyAdapter the <code>ConfigPropertyAdapter</code> of the instance
+	 * @param converters the <code>ConverterRegistry</code> of the instance
+	 * @return the values, in the order of {@link #getKeys()}
+	 * @throws MissingConfigPropertyException if a value is missing
+	 * @throws ConfigPropertyException if a value can't be converted
+	 */
+	Object[] resolveAll(ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters)
+	{
+		Object[] values = new Object[bindings.size()];
+		for (int i = 0; i < values.length; i++) values[i] = resolve(bindings.get(i), configPropertyAdapter, converters);
+		return values;
+	}
+
+	/**
+	 * Create an instance whose values are already resolved
+	 *
+	 * @param values the values, as returned by {@link #resolveAll(ConfigPropertyAdapter, ConverterRegistry)}
+	 * @return the new instance
+	 */
+	T create(Object[] values)
+	{
+		AtomicReferenceArray<Object> resolvedValues = new AtomicReferenceArray<>(values.length);
+		for (int i = 0; i < values.length; i++) resolvedValues.set(i, values[i] != null ? values[i] : NULL);
+		return newInstance(new Handler(null, null, resolvedValues));
+	}
+
+	/**
+	 * Create an instance with its own handler, for the instances whose values are stored elsewhere
+	 *
+	 * @param handler the handler of the instance, which may call {@link #indexOf(Method)} and {@link #invokeObjectMethod(Object, Method, Object[])}
+	 * @return the new instance
+	 */
+	T newInstance(InvocationHandler handler)
+	{
+		try
+		{
+			return type.cast(proxyConstructor.newInstance(handler));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to instantiate %s", type.getName()), e);
+		}
+	}
+
+	/**
+	 * @return the configuration interface
+	 */
+	public Class<T> getType()
+	{
+		return type;
+	}
+
+	/**
+	 * @return the keys of the getters, useful to prefetch them
+	 */
+	public List<ConfigPropertyKey> getKeys()
+	{
+		List<ConfigPropertyKey> keys = new ArrayList<>(bindings.size());
+		for (PropertyBinding binding : bindings) keys.add(binding.getKey());
+		return keys;
+	}
+
+	/**
+	 * @return the number of getters
+	 */
+	int size()
+	{
+		return bindings.size();
+	}
+
+	/**
+	 * @param method a method of the proxy
+	 * @return the index of the getter, or -1 for a method of <code>Object</code>
+	 */
+	int indexOf(Method method)
+	{
+		Integer index = indexes.get(method);
+		return index != null ? index : -1;
+	}
+
+	/**
+	 * @param index the index of a getter
+	 * @return the key of the getter
+	 */
+	ConfigPropertyKey getKey(int index)
+	{
+		return bindings.get(index).getKey();
+	}
+
+	/**
+	 * Resolve the value of a getter, or its default value
+	 *
+	 * @param index the index of the getter
+	 * @param configPropertyAdapter the <code>ConfigPropertyAdapter</code> to use
+	 * @param converters the <code>ConverterRegistry</code> to use
+	 * @return the value, possibly null
+	 * @throws MissingConfigPropertyException if the value is missing
+	 * @throws ConfigPropertyException if the value can't be converted
+	 */
+	Object resolve(int index, ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters)
+	{
+		return resolve(bindings.get(index), configPropertyAdapter, converters);
+	}
+
+	/**
+	 * Resolve the value of a getter if the adapter defines it, ignoring its default value
+	 *
+	 * @param index the index of the getter
+	 * @param configPropertyAdapter the <code>ConfigPropertyAdapter</code> to use
+	 * @param converters the <code>ConverterRegistry</code> to use
+	 * @return the value, null if the adapter does not define it
+	 * @throws MissingConfigPropertyException if the value is converted to null, when the getter is not nullable
+	 * @throws ConfigPropertyException if the value can't be converted
+	 */
+	Object resolveDefined(int index, ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters)
+	{
+		PropertyBinding binding = bindings.get(index);
+		Object value;
+		try
+		{
+			ListConverter<?> listConverter = binding.getListConverter(converters);
+			value = binding.lookup(configPropertyAdapter, type, listConverter);
+			if (value == null) return null;
+			value = binding.convert(value, listConverter, converters);
+		}
+		catch (ConversionException | IllegalArgumentException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to convert the property %s", binding.getKey()), e);
+		}
+		return checkResolved(binding, value);
+	}
+
+	/**
+	 * Answer the methods of <code>Object</code> on a proxy, by identity
+	 */
+	Object invokeObjectMethod(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return String.format("%s@%x", type.getName(), System.identityHashCode(proxy));
+			default:
+				throw new UnsupportedOperationException(method.toString());
+		}
+	}
+
+	private Object resolve(PropertyBinding binding, ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters)
+	{
+		Object value;
+		try
+		{
+			value = binding.resolve(configPropertyAdapter, type, converters);
+		}
+		catch (ConversionException | IllegalArgumentException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to convert the property %s", binding.getKey()), e);
+		}
+		return checkResolved(binding, value);
+	}
+
+	private static Object checkResolved(PropertyBinding binding, Object value)
+	{
+		if (value == null && (!binding.isNullable() || binding.getType().isPrimitive()))
+		{
+			throw new MissingConfigPropertyException(
+				String.format(
+					"The property %s could not be resolved, missing value in configuration (prefix : %s, key : %s)",
+					binding.getKey().getProperty(),
+					binding.getKey().getPrefix(),
+					binding.getKey().getProperty()
+				)
+			);
+		}
+		return value;
+	}
+
+	/**
+	 * <code>getConnectionTimeout</code> becomes <code>connection.timeout</code>, <code>isEnabled</code> becomes <code>enabled</code>
+	 */
+	static String toProperty(String methodName)
+	{
+		String name = methodName;
+		if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3))) name = name.substring(3);
+		else if (name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))) name = name.substring(2);
+
+		StringBuilder property = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++)
+		{
+			char c = name.charAt(i);
+			if (c == '_')
+			{
+				property.append('.');
+			}
+			else if (Character.isUpperCase(c))
+			{
+				if (i > 0 && (Character.isLowerCase(name.charAt(i - 1)) || Character.isDigit(name.charAt(i - 1)))) property.append('.');
+				property.append(Character.toLowerCase(c));
+			}
+			else
+			{
+				property.append(c);
+			}
+		}
+		return property.toString();
+	}
+
+	/**
+	 * The state of an instance : its adapter and its values, resolved on first use, or all at once at creation
+	 */
+	private final class Handler implements InvocationHandler
+	{
+		private final ConfigPropertyAdapter configPropertyAdapter;
+		private final ConverterRegistry converters;
+		private final AtomicReferenceArray<Object> values;
+
+		private Handler(ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters, AtomicReferenceArray<Object> values)
+		{
+			this.configPropertyAdapter = configPropertyAdapter;
+			this.converters = converters;
+			this.values = values;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+		{
+			Integer index = indexes.get(method);
+			if (index == null) return invokeObjectMethod(proxy, method, args);
+
+			Object value = values.get(index);
+			if (value == null)
+			{
+				Object resolvedValue = resolve(bindings.get(index), configPropertyAdapter, converters);
+				// The first resolved value wins, all the callers see the same one
+				value = values.compareAndSet(index, null, resolvedValue != null ? resolvedValue : NULL) ? resolvedValue : values.get(index);
+			}
+			return value != NULL ? value : null;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package info.toyonos.config;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>An immutable and complete version of the configuration, published by a <code>ConfigPropertySnapshotPublisher</code></p>
+ * <p>Each configuration interface of the snapshot is resolved when the snapshot is built : all the values read from a snapshot
+ * come from the same version of the configuration, even if it is reloaded in the meantime</p>
+ *
+ * @author ToYonos
+ */
+public final class ConfigPropertySnapshot
+{
+	private final long version;
+	private final Map<Class<?>, Object> instances;
+	private final Map<Class<?>, Object[]> values;
+
+	ConfigPropertySnapshot(long version, Map<Class<?>, Object> instances, Map<Class<?>, Object[]> values)
+	{
+		this.version = version;
+		this.instances = Collections.unmodifiableMap(instances);
+		this.values = values;
+	}
+
+	/**
+	 * @return the version of the snapshot, incremented by one at each reload
+	 */
+	public long getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * Get the instance of a configuration interface in this snapshot
+	 *
+	 * @param <T> the configuration interface
+	 * @param type the configuration interface
+	 * @return the instance, whose values never change
+	 * @throws ConfigPropertyException if the interface is not part of the snapshot
+	 */
+	public <T> T get(Class<T> type)
+	{
+		Object instance = instances.get(type);
+		if (instance == null)
+		{
+			throw new ConfigPropertyException(String.format("%s is not part of the snapshot", type.getName()));
+		}
+		return type.cast(instance);
+	}
+
+	/**
+	 * @return the configuration interfaces of the snapshot
+	 */
+	public Set<Class<?>> getTypes()
+	{
+		return instances.keySet();
+	}
+
+	Object[] getValues(Class<?> type)
+	{
+		return values.get(type);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("ConfigPropertySnapshot %d %s", version, instances.keySet());
+	}
+}
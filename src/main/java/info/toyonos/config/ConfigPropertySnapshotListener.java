@@ -0,0 +1,19 @@
+package info.toyonos.config;
+
+/**
+ * A listener notified when a <code>ConfigPropertySnapshotPublisher</code> publishes a new snapshot
+ *
+ * @author ToYonos
+ */
+@FunctionalInterface
+public interface ConfigPropertySnapshotListener
+{
+	/**
+	 * Called after a new snapshot has been published. When several snapshots are published in a burst, only the last one is notified,
+	 * <code>previous</code> being the last snapshot notified before the burst
+	 *
+	 * @param previous the snapshot notified before
+	 * @param current the new snapshot
+	 */
+	void onSnapshot(ConfigPropertySnapshot previous, ConfigPropertySnapshot current);
+}
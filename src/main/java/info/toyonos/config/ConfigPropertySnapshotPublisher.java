@@ -0,0 +1,276 @@
+package info.toyonos.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.converter.ConverterRegistry;
+
+/**
+ * <p>Publish consistent versions of the configuration, for configuration interfaces read while the configuration is reloaded</p>
+ * <p>Each reload resolves all the interfaces into a new immutable <code>ConfigPropertySnapshot</code>, then publishes it with a single atomic swap.
+ * A reader gets the current snapshot without lock, and all the values it reads from it belong to the same version :
+ * it never sees a new username with an old password. If a reload fails, the current snapshot stays in place</p>
+ * <p>The listeners are notified after each publication, on the given <code>Executor</code>, once per version at most :
+ * the snapshots published while the listeners are still being notified are coalesced, only the last one is notified.
+ * A listener can be restricted to the changes of an interface, or of a key</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertySnapshotPublisher publisher = new ConfigPropertySnapshotPublisher(adapter, DbConfig.class, CacheConfig.class);
+ * publisher.addListener(DbConfig.class, (previous, current) -&gt; pool.reconnect(current.get(DbConfig.class)));
+ *
+ * DbConfig config = publisher.current().get(DbConfig.class);
+ * connect(config.getUrl(), config.getUsername(), config.getPassword());
+ * </pre>
+ *
+ * <p>If the adapter is an <code>ObservableConfigPropertyAdapter</code>, the configuration is reloaded each time it changes</p>
+ *
+ * @author ToYonos
+ */
+public class ConfigPropertySnapshotPublisher
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConfigPropertySnapshotPublisher.class);
+
+	private final ConfigPropertyAdapter configPropertyAdapter;
+	private final ConverterRegistry converters;
+	private final Executor executor;
+	private final List<ConfigPropertyProxyFactory<?>> factories = new ArrayList<>();
+	private final List<ConfigPropertyKey> keys = new ArrayList<>();
+	private final AtomicReference<ConfigPropertySnapshot> current = new AtomicReference<>();
+	private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+	private final AtomicBoolean notifying = new AtomicBoolean();
+	// Only read and written by the thread notifying the listeners
+	private ConfigPropertySnapshot notified;
+
+	/**
+	 * Create a publisher, and publish the first snapshot. The listeners are notified by the thread publishing the snapshot
+	 *
+	 * @param configPropertyAdapter the adapter
+	 * @param types the configuration interfaces
+	 * @throws MissingConfigPropertyException if a value of the first snapshot is missing
+	 */
+	public ConfigPropertySnapshotPublisher(ConfigPropertyAdapter configPropertyAdapter, Class<?>... types)
+	{
+		this(configPropertyAdapter, ConverterRegistry.defaults(), Runnable::run, Arrays.asList(types));
+	}
+
+	/**
+	 * Create a publisher, and publish the first snapshot
+	 *
+	 * @param configPropertyAdapter the adapter
+	 * @param converters the converters
+	 * @param executor the executor notifying the listeners
+	 * @param types the configuration interfaces
+	 * @throws MissingConfigPropertyException if a value of the first snapshot is missing
+	 */
+	public ConfigPropertySnapshotPublisher(ConfigPropertyAdapter configPropertyAdapter, ConverterRegistry converters, Executor executor, Collection<Class<?>> types)
+	{
+		this.configPropertyAdapter = configPropertyAdapter;
+		this.converters = converters;
+		this.executor = executor;
+		for (Class<?> type : new LinkedHashSet<>(types))
+		{
+			ConfigPropertyProxyFactory<?> factory = ConfigPropertyProxyFactory.of(type);
+			factories.add(factory);
+			keys.addAll(factory.getKeys());
+		}
+
+		this.notified = build(1);
+		current.set(notified);
+		if (configPropertyAdapter instanceof ObservableConfigPropertyAdapter)
+		{
+			((ObservableConfigPropertyAdapter) configPropertyAdapter).addChangeListener(this::onChange);
+		}
+	}
+
+	/**
+	 * @return the current snapshot
+	 */
+	public ConfigPropertySnapshot current()
+	{
+		return current.get();
+	}
+
+	/**
+	 * Reload the configuration, then publish it as a new snapshot
+	 *
+	 * @return the new snapshot
+	 * @throws MissingConfigPropertyException if a value is missing, the current snapshot stays in place
+	 * @throws ConfigPropertyException if a value can't be converted, the current snapshot stays in place
+	 */
+	public synchronized ConfigPropertySnapshot reload()
+	{
+		ConfigPropertySnapshot snapshot = build(current.get().getVersion() + 1);
+		current.set(snapshot);
+		notifyListeners();
+		return snapshot;
+	}
+
+	/**
+	 * Register a listener, notified of each new snapshot
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(ConfigPropertySnapshotListener listener)
+	{
+		registrations.add(new Registration(null, null, listener));
+	}
+
+	/**
+	 * Register a listener, notified of the new snapshots in which a value of the given interface has changed
+	 *
+	 * @param type the configuration interface
+	 * @param listener the listener
+	 */
+	public void addListener(Class<?> type, ConfigPropertySnapshotListener listener)
+	{
+		registrations.add(new Registration(Objects.requireNonNull(type), null, listener));
+	}
+
+	/**
+	 * Register a listener, notified of the new snapshots in which the value of the given key has changed
+	 *
+	 * @param key the key
+	 * @param listener the listener
+	 */
+	public void addListener(ConfigPropertyKey key, ConfigPropertySnapshotListener listener)
+	{
+		registrations.add(new Registration(null, Objects.requireNonNull(key), listener));
+	}
+
+	/**
+	 * Unregister a listener, whatever it listens to
+	 *
+	 * @param listener the listener
+	 */
+	public void removeListener(ConfigPropertySnapshotListener listener)
+	{
+		registrations.removeIf(registration -> registration.listener == listener);
+	}
+
+	private ConfigPropertySnapshot build(long version)
+	{
+		ConfigPropertyAdapter prefetchedAdapter = configPropertyAdapter.prefetch(keys);
+		Map<Class<?>, Object> instances = new LinkedHashMap<>();
+		Map<Class<?>, Object[]> values = new LinkedHashMap<>();
+		for (ConfigPropertyProxyFactory<?> factory : factories)
+		{
+			Object[] resolvedValues = factory.resolveAll(prefetchedAdapter, converters);
+			instances.put(factory.getType(), factory.create(resolvedValues));
+			values.put(factory.getType(), resolvedValues);
+		}
+		return new ConfigPropertySnapshot(version, instances, values);
+	}
+
+	private void onChange(Set<String> changedKeys)
+	{
+		try
+		{
+			reload();
+		}
+		catch (RuntimeException e)
+		{
+			LOGGER.warn(String.format("Unable to reload the configuration, the snapshot %d stays in place", current.get().getVersion()), e);
+		}
+	}
+
+	/**
+	 * Notify the listeners of the current snapshot, unless another thread is already notifying them : it will notify the current snapshot when it's done
+	 */
+	private void notifyListeners()
+	{
+		if (notifying.compareAndSet(false, true)) executor.execute(this::drain);
+	}
+
+	private void drain()
+	{
+		while (true)
+		{
+			ConfigPropertySnapshot snapshot = current.get();
+			if (snapshot != notified)
+			{
+				notify(notified, snapshot);
+				notified = snapshot;
+				continue;
+			}
+
+			notifying.set(false);
+			// A snapshot published after the check above, whose publisher saw the flag still set
+			if (current.get() == notified || !notifying.compareAndSet(false, true)) return;
+		}
+	}
+
+	private void notify(ConfigPropertySnapshot previous, ConfigPropertySnapshot snapshot)
+	{
+		Set<Class<?>> changedTypes = new HashSet<>();
+		Set<ConfigPropertyKey> changedKeys = new HashSet<>();
+		for (ConfigPropertyProxyFactory<?> factory : factories)
+		{
+			Object[] previousValues = previous.getValues(factory.getType());
+			Object[] values = snapshot.getValues(factory.getType());
+			List<ConfigPropertyKey> factoryKeys = factory.getKeys();
+			for (int i = 0; i < values.length; i++)
+			{
+				if (!Objects.deepEquals(previousValues[i], values[i]))
+				{
+					changedTypes.add(factory.getType());
+					changedKeys.add(factoryKeys.get(i));
+				}
+			}
+		}
+
+		for (Registration registration : registrations)
+		{
+			if (registration.matches(changedTypes, changedKeys))
+			{
+				try
+				{
+					registration.listener.onSnapshot(previous, snapshot);
+				}
+				catch (RuntimeException e)
+				{
+					LOGGER.warn(String.format("The listener %s failed on the snapshot %d", registration.listener, snapshot.getVersion()), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A listener, with what it listens to : an interface, a key, or everything if both are null
+	 */
+	private static final class Registration
+	{
+		private final Class<?> type;
+		private final ConfigPropertyKey key;
+		private final ConfigPropertySnapshotListener listener;
+
+		private Registration(Class<?> type, ConfigPropertyKey key, ConfigPropertySnapshotListener listener)
+		{
+			this.type = type;
+			this.key = key;
+			this.listener = listener;
+		}
+
+		private boolean matches(Set<Class<?>> changedTypes, Set<ConfigPropertyKey> changedKeys)
+		{
+			if (type != null) return changedTypes.contains(type);
+			if (key != null) return changedKeys.contains(key);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package info.toyonos.config;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import info.toyonos.config.converter.ConverterRegistry;
+
+/**
+ * <p>The instances of a configuration interface for many tenants, which share a base configuration and only differ from it by a few keys</p>
+ * <p>The values of the base configuration are resolved once for all the tenants, on first use. A tenant only stores the values it overrides,
+ * converted at its creation : its overrides adapter is not kept. The converted values are interned in a pool shared by the tenants,
+ * so that an override common to many tenants is stored once. The heap used by the tenants grows with their differences, not with their keys</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyTenants&lt;DbConfig&gt; tenants = new ConfigPropertyTenants&lt;&gt;(DbConfig.class, baseAdapter);
+ * DbConfig config = tenants.create(new SimpleConfigPropertyAdapter(tenantOverrides));
+ * </pre>
+ *
+ * <p>When the base adapter is an <code>ObservableConfigPropertyAdapter</code>, its changed keys are resolved again, for all the tenants.
+ * The pool only holds the values still used by an instance or by the base configuration : the replaced base values and the overrides
+ * of the discarded tenants are collected. The values are shared between the instances, so the getters return a copy of the arrays</p>
+ *
+ * @param <T> the configuration interface
+ * @author ToYonos
+ */
+public final class ConfigPropertyTenants<T>
+{
+	private static final Object NULL = new Object();
+	private static final int[] NO_INDEXES = new int[0];
+	private static final Object[] NO_VALUES = new Object[0];
+
+	/**
+	 * Whether the instances of a class are equal by value, and can be interned
+	 */
+	private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<Boolean>()
+	{
+		@Override
+		protected Boolean computeValue(Class<?> type)
+		{
+			if (type.isArray()) return true;
+			try
+			{
+				return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+			}
+			catch (NoSuchMethodException e)
+			{
+				return false;
+			}
+		}
+	};
+
+	private final ConfigPropertyProxyFactory<T> factory;
+	private final ConfigPropertyAdapter baseAdapter;
+	private final ConverterRegistry converters;
+	private final AtomicReferenceArray<Object> baseValues;
+	private final Map<String, Integer> indexesByKey = new HashMap<>();
+	// Weak keys, and weak references to the same values : the pool does not keep the values alive
+	private final Map<Object, WeakReference<Object>> pool = new WeakHashMap<>();
+	private long generation;
+
+	/**
+	 * @param type the configuration interface
+	 * @param baseAdapter the <code>ConfigPropertyAdapter</code> of the base configuration
+	 * @throws ConfigPropertyException if the type is not an interface, or if one of its methods is not an annotated getter
+	 */
+	public ConfigPropertyTenants(Class<T> type, ConfigPropertyAdapter baseAdapter)
+	{
+		this(type, baseAdapter, ConverterRegistry.defaults());
+	}
+
+	/**
+	 * @param type the configuration interface
+	 * @param baseAdapter the <code>ConfigPropertyAdapter</code> of the base configuration
+	 * @param converters the <code>ConverterRegistry</code> of the base configuration and of the tenants
+	 * @throws ConfigPropertyException if the type is not an interface, or if one of its methods is not an annotated getter
+	 */
+	public ConfigPropertyTenants(Class<T> type, ConfigPropertyAdapter baseAdapter, ConverterRegistry converters)
+	{
+		this.factory = ConfigPropertyProxyFactory.of(type);
+		this.baseAdapter = baseAdapter;
+		this.converters = converters;
+		this.baseValues = new AtomicReferenceArray<>(factory.size());
+		for (int i = 0; i < factory.size(); i++) indexesByKey.put(factory.getKey(i).getKey(), i);
+		if (baseAdapter instanceof ObservableConfigPropertyAdapter)
+		{
+			((ObservableConfigPropertyAdapter) baseAdapter).addChangeListener(this::onBaseChange);
+		}
+	}
+
+	/**
+	 * Create the instance of a tenant
+	 *
+	 * @param overrides the <code>ConfigPropertyAdapter</code> of the keys the tenant overrides, only used during the creation
+	 * @return the new instance
+	 * @throws ConfigPropertyException if an overridden value can't be converted
+	 */
+	public T create(ConfigPropertyAdapter overrides)
+	{
+		int[] indexes = NO_INDEXES;
+		Object[] values = NO_VALUES;
+		int count = 0;
+		for (int i = 0; i < factory.size(); i++)
+		{
+			Object value = factory.resolveDefined(i, overrides, converters);
+			if (value == null) continue;
+
+			if (count == indexes.length)
+			{
+				indexes = Arrays.copyOf(indexes, Math.max(4, count * 2));
+				values = Arrays.copyOf(values, indexes.length);
+			}
+			indexes[count] = i;
+			values[count++] = intern(value);
+		}
+		return factory.newInstance(new TenantHandler(Arrays.copyOf(indexes, count), Arrays.copyOf(values, count)));
+	}
+
+	/**
+	 * @return the number of distinct values interned for the tenants and the base configuration, still in use
+	 */
+	public int getPoolSize()
+	{
+		synchronized (pool)
+		{
+			return pool.size();
+		}
+	}
+
+	/**
+	 * @return the configuration interface
+	 */
+	public Class<T> getType()
+	{
+		return factory.getType();
+	}
+
+	/**
+	 * Forget the changed base values. The counter lets {@link #baseValue(int)} drop a value whose resolution overlapped the change
+	 */
+	private synchronized void onBaseChange(Set<String> changedKeys)
+	{
+		generation++;
+		for (String key : changedKeys)
+		{
+			Integer index = indexesByKey.get(key);
+			if (index != null) baseValues.set(index, null);
+		}
+	}
+
+	private Object baseValue(int index)
+	{
+		Object value = baseValues.get(index);
+		if (value != null) return value;
+
+		long resolvedGeneration;
+		synchronized (this)
+		{
+			resolvedGeneration = generation;
+		}
+		Object resolvedValue = intern(factory.resolve(index, baseAdapter, converters));
+		synchronized (this)
+		{
+			// The first resolved value wins, all the tenants see the same one
+			if (resolvedGeneration != generation) return resolvedValue;
+			value = baseValues.get(index);
+			if (value == null) baseValues.set(index, value = resolvedValue);
+			return value;
+		}
+	}
+
+	/**
+	 * @return the value equal to the given one already in the pool, or the given one once added to the pool.
+	 * An array is returned wrapped in its <code>ArrayKey</code>
+	 */
+	private Object intern(Object value)
+	{
+		if (value == null) return NULL;
+		if (!VALUE_EQUALITY.get(value.getClass())) return value;
+
+		Object key = value.getClass().isArray() ? new ArrayKey(value) : value;
+		synchronized (pool)
+		{
+			WeakReference<Object> reference = pool.get(key);
+			Object interned = reference != null ? reference.get() : null;
+			if (interned != null) return interned;
+			pool.put(key, new WeakReference<>(key));
+			return key;
+		}
+	}
+
+	/**
+	 * @return the value of a getter, a copy for an array : the same array is shared by the instances
+	 */
+	private static Object unwrap(Object value)
+	{
+		if (value == NULL) return null;
+		if (!(value instanceof ArrayKey)) return value;
+
+		Object array = ((ArrayKey) value).array[0];
+		int length = Array.getLength(array);
+		Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+
+	/**
+	 * The arrays compared by content, as keys of the pool, and as values of the instances
+	 */
+	private static final class ArrayKey
+	{
+		private final Object[] array;
+		private final int hashCode;
+
+		private ArrayKey(Object array)
+		{
+			// Wrapped, so that the arrays of primitives are compared by content too
+			this.array = new Object[] { array };
+			this.hashCode = Arrays.deepHashCode(this.array);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof ArrayKey && Arrays.deepEquals(array, ((ArrayKey) obj).array);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+	}
+
+	/**
+	 * The state of a tenant : the indexes of its overridden getters, sorted, and their values
+	 */
+	private final class TenantHandler implements InvocationHandler
+	{
+		private final int[] indexes;
+		private final Object[] values;
+
+		private TenantHandler(int[] indexes, Object[] values)
+		{
+			this.indexes = indexes;
+			this.values = values;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+		{
+			int index = factory.indexOf(method);
+			if (index < 0) return factory.invokeObjectMethod(proxy, method, args);
+
+			int position = Arrays.binarySearch(indexes, index);
+			return unwrap(position >= 0 ? values[position] : baseValue(index));
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package info.toyonos.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>The default <code>FieldWriterFactory</code>, writing fields through cached <code>MethodHandle</code> setters</p>
+ * <p>Static final fields have their <code>final</code> modifier removed first. When the JVM refuses a setter for such a field,
+ * the writer falls back to <code>Field.set</code></p>
+ * <p>On Java 9 and later, the multi-release jar provides another version of this class, based on <code>VarHandle</code>.
+ * This version can't remove the <code>final</code> modifier from Java 12, where <code>Field.modifiers</code> is filtered from reflection,
+ * and the Java 9+ version refuses static final fields from Java 18</p>
+ *
+ * @author ToYonos
+ */
+public final class DefaultFieldWriterFactory implements FieldWriterFactory
+{
+	private static final DefaultFieldWriterFactory INSTANCE = new DefaultFieldWriterFactory();
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private DefaultFieldWriterFactory()
+	{
+	}
+
+	/**
+	 * @return the shared instance
+	 */
+	public static DefaultFieldWriterFactory getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	public FieldWriter create(Field field) throws ReflectiveOperationException
+	{
+		if (!field.isAccessible()) field.setAccessible(true);
+		boolean isFinal = Modifier.isFinal(field.getModifiers());
+		if (isFinal) removeFinalModifier(field);
+
+		MethodHandle setter;
+		try
+		{
+			setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+		}
+		catch (IllegalAccessException e)
+		{
+			if (!isFinal) throw e;
+			return value -> field.set(null, value);
+		}
+
+		return value ->
+		{
+			try
+			{
+				setter.invokeExact(value);
+			}
+			catch (ClassCastException | NullPointerException e)
+			{
+				throw new IllegalArgumentException(String.format("Can not set the field %s with %s", field.getName(), value), e);
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable e)
+			{
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
+	/**
+	 * Order the writes before this call before the writes after it, for the plain stores of the generated binders.
+	 * There is no fence before Java 9 : this version does nothing
+	 */
+	static void releaseFence()
+	{
+	}
+
+	private static void removeFinalModifier(Field field) throws NoSuchFieldException, IllegalAccessException
+	{
+		Field modifiersField = Field.class.getDeclaredField("modifiers");
+		if (!modifiersField.isAccessible()) modifiersField.setAccessible(true);
+		modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+	}
+}
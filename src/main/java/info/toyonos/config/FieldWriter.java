@@ -0,0 +1,19 @@
+package info.toyonos.config;
+
+/**
+ * Write the value of a static <code>&#064;ConfigProperty</code> field
+ * 
+ * @author ToYonos
+ */
+@FunctionalInterface
+public interface FieldWriter
+{
+	/**
+	 * Set the value of the field
+	 * 
+	 * @param value the new value, already converted to the type of the field
+	 * @throws ReflectiveOperationException if the field can't be written
+	 * @throws IllegalArgumentException if the value does not match the type of the field
+	 */
+	void set(Object value) throws ReflectiveOperationException;
+}
@@ -0,0 +1,22 @@
+package info.toyonos.config;
+
+import java.lang.reflect.Field;
+
+/**
+ * Create the <code>FieldWriter</code> of static <code>&#064;ConfigProperty</code> fields.
+ * A writer is created once per field and reused by every bind
+ * 
+ * @author ToYonos
+ */
+@FunctionalInterface
+public interface FieldWriterFactory
+{
+	/**
+	 * Create the writer of a field
+	 * 
+	 * @param field the static field to write
+	 * @return the writer
+	 * @throws ReflectiveOperationException if the field can't be made writable
+	 */
+	FieldWriter create(Field field) throws ReflectiveOperationException;
+}
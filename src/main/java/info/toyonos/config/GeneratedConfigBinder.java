@@ -0,0 +1,29 @@
+package info.toyonos.config;
+
+import java.util.List;
+
+/**
+ * <p>A binder generated at build time by the <code>ConfigPropertiesProcessor</code>, named after its target class : <code>Foo$ConfigBinder</code></p>
+ * <p>It writes the fields of the target class directly, without reflection. <code>ConfigPropertyBinder</code> uses it when it exists</p>
+ * 
+ * @author ToYonos
+ */
+public interface GeneratedConfigBinder
+{
+	/**
+	 * The suffix of the name of a generated binder
+	 */
+	String SUFFIX = "$ConfigBinder";
+
+	/**
+	 * @return the keys of all the properties of the target class
+	 */
+	List<ConfigPropertyKey> getKeys();
+
+	/**
+	 * Bind the fields of the target class
+	 * 
+	 * @param session the session of the bind, resolving the values
+	 */
+	void bind(ConfigPropertyBindSession session);
+}
@@ -0,0 +1,72 @@
+package info.toyonos.config;
+
+import info.toyonos.config.ConfigPropertyBindingPlan.PropertyBinding;
+
+/**
+ * <p>A <code>&#064;ConfigProperty</code> field, as read at build time by the <code>ConfigPropertiesProcessor</code></p>
+ * <p>Only meant to be used by the generated <code>GeneratedConfigBinder</code></p>
+ * 
+ * @author ToYonos
+ */
+public final class GeneratedConfigProperty
+{
+	private final String fieldName;
+	private final PropertyBinding binding;
+
+	private GeneratedConfigProperty(String fieldName, PropertyBinding binding)
+	{
+		this.fieldName = fieldName;
+		this.binding = binding;
+	}
+
+	/**
+	 * Describe a <code>&#064;ConfigProperty</code> field
+	 * 
+	 * @param fieldName the name of the field
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @param type the type of the field
+	 * @param defaultValue the <code>defaultValue</code> of the annotation
+	 * @param defaultListValue the <code>defaultListValue</code> of the annotation
+	 * @param nullable the <code>nullable</code> of the annotation
+	 * @param trim the <code>trim</code> of the annotation
+	 * @return the new <code>GeneratedConfigProperty</code>
+	 */
+	public static GeneratedConfigProperty of(
+		String fieldName,
+		String prefix,
+		String property,
+		Class<?> type,
+		String defaultValue,
+		String[] defaultListValue,
+		boolean nullable,
+		boolean trim
+	)
+	{
+		return new GeneratedConfigProperty(
+			fieldName,
+			new PropertyBinding(ConfigPropertyKey.of(prefix, property), type, defaultValue, defaultListValue, nullable, trim)
+		);
+	}
+
+	/**
+	 * @return the name of the field
+	 */
+	public String getFieldName()
+	{
+		return fieldName;
+	}
+
+	/**
+	 * @return the key of the property
+	 */
+	public ConfigPropertyKey getKey()
+	{
+		return binding.getKey();
+	}
+
+	PropertyBinding getBinding()
+	{
+		return binding;
+	}
+}
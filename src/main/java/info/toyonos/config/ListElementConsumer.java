@@ -0,0 +1,50 @@
+package info.toyonos.config;
+
+/**
+ * <p>A consumer of the elements of a list property, streamed by <code>ConfigPropertyAdapter.forEachListElement</code></p>
+ * <p>An element is given as a range of a <code>CharSequence</code>, usually the raw value of the property : the elements of a huge list
+ * are converted one by one, without a <code>String</code> for each of them</p>
+ *
+ * @author ToYonos
+ */
+@FunctionalInterface
+public interface ListElementConsumer
+{
+	/**
+	 * Consume an element
+	 *
+	 * @param value the sequence containing the element, only valid during the call
+	 * @param start the index of the first char of the element, inclusive
+	 * @param end the index of the last char of the element, exclusive
+	 */
+	void accept(CharSequence value, int start, int end);
+
+	/**
+	 * Stream the elements of a value separated by a char, as <code>String.split</code> would split it : the trailing empty elements are ignored
+	 *
+	 * @param value the value
+	 * @param separator the separator
+	 * @param consumer the consumer of the elements
+	 */
+	static void forEachSeparated(CharSequence value, char separator, ListElementConsumer consumer)
+	{
+		if (value.length() == 0)
+		{
+			consumer.accept(value, 0, 0);
+			return;
+		}
+
+		int limit = value.length();
+		while (limit > 0 && value.charAt(limit - 1) == separator) limit--;
+		int start = 0;
+		for (int i = 0; i < limit; i++)
+		{
+			if (value.charAt(i) == separator)
+			{
+				consumer.accept(value, start, i);
+				start = i + 1;
+			}
+		}
+		if (limit > 0) consumer.accept(value, start, limit);
+	}
+}
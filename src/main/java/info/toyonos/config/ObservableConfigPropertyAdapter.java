@@ -0,0 +1,30 @@
+package info.toyonos.config;
+
+/**
+ * A <code>ConfigPropertyAdapter</code> whose configuration can change, and which notifies its listeners when it does
+ * 
+ * Ex:
+ * <pre>
+ * ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, Foo.class);
+ * binder.bind();
+ * adapter.addChangeListener(binder::rebind);
+ * </pre>
+ * 
+ * @author ToYonos
+ */
+public interface ObservableConfigPropertyAdapter extends ConfigPropertyAdapter
+{
+	/**
+	 * Register a listener, notified after each change of the configuration
+	 * 
+	 * @param listener the listener
+	 */
+	void addChangeListener(ConfigPropertyChangeListener listener);
+
+	/**
+	 * Unregister a listener
+	 * 
+	 * @param listener the listener
+	 */
+	void removeChangeListener(ConfigPropertyChangeListener listener);
+}
@@ -0,0 +1,48 @@
+package info.toyonos.config;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> able to enumerate all the properties under a prefix</p>
+ * <p>It allows to pull a whole sub-tree of the configuration in one call, instead of one lookup per property : this is what {@link #prefetch(Collection)} does by default</p>
+ * 
+ * @author ToYonos
+ */
+public interface ScopedConfigPropertyAdapter extends ConfigPropertyAdapter
+{
+	/**
+	 * Stream the properties under a prefix, in the order of their keys
+	 * 
+	 * @param source the class requesting the properties
+	 * @param prefix the prefix of the properties, or null for all the properties
+	 * @param action the action to apply on each property, given the key of the property without its prefix, and its value
+	 */
+	void forEachProperty(Class<?> source, String prefix, BiConsumer<String, String> action);
+
+	/**
+	 * Retrieve the properties under a prefix
+	 * 
+	 * @param source the class requesting the properties
+	 * @param prefix the prefix of the properties, or null for all the properties
+	 * @return the properties, by key without the prefix, in the order of their keys
+	 */
+	default Map<String, String> getProperties(Class<?> source, String prefix)
+	{
+		Map<String, String> properties = new LinkedHashMap<>();
+		forEachProperty(source, prefix, properties::put);
+		return properties;
+	}
+
+	/**
+	 * The properties under each prefix are pulled in one call, the first time one of them is retrieved, and only the requested ones are kept.
+	 * An adapter which already answers lookups in memory should return itself instead
+	 */
+	@Override
+	default ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		return new SubTreeConfigPropertyAdapter(this, keys);
+	}
+}
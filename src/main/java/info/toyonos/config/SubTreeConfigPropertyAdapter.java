@@ -0,0 +1,65 @@
+package info.toyonos.config;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>The view of a <code>ScopedConfigPropertyAdapter</code> prefetched for a bind : the properties under a prefix are pulled in one call,
+ * the first time a property of this prefix is requested, then looked up locally</p>
+ * <p>Only the prefetched keys are kept from the pulled sub-tree, the other properties are requested from the underlying adapter.
+ * Lists are also requested from the underlying adapter, which owns their format</p>
+ * 
+ * @author ToYonos
+ */
+final class SubTreeConfigPropertyAdapter implements ConfigPropertyAdapter
+{
+	private final ScopedConfigPropertyAdapter adapter;
+	// The prefetched properties, by prefix
+	private final Map<String, Set<String>> keys = new HashMap<>();
+	private final ConcurrentMap<String, Map<String, String>> subTrees = new ConcurrentHashMap<>();
+
+	SubTreeConfigPropertyAdapter(ScopedConfigPropertyAdapter adapter, Collection<ConfigPropertyKey> keys)
+	{
+		this.adapter = adapter;
+		for (ConfigPropertyKey key : keys)
+		{
+			this.keys.computeIfAbsent(String.valueOf(key.getPrefix()), k -> new HashSet<>()).add(key.getProperty());
+		}
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		Set<String> properties = keys.get(String.valueOf(prefix));
+		if (properties == null || !properties.contains(property)) return adapter.getProperty(source, prefix, property);
+
+		Map<String, String> subTree = subTrees.computeIfAbsent(String.valueOf(prefix), k ->
+		{
+			Map<String, String> values = new HashMap<>();
+			adapter.forEachProperty(source, prefix, (key, value) ->
+			{
+				if (properties.contains(key)) values.put(key, value);
+			});
+			return values;
+		});
+		return subTree.get(property);
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return adapter.getPropertyAsList(source, prefix, property);
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return adapter.forEachListElement(source, prefix, property, consumer);
+	}
+}
@@ -0,0 +1,579 @@
+package info.toyonos.config.adapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> caching the properties of a slow or remote adapter, found or not</p>
+ * <ul>
+ * <li>Each property expires after its time to live, which can be set per prefix. The missing properties have their own time to live</li>
+ * <li>With an executor, a property read after a part of its time to live is refreshed in the background, while the cached value is still served.
+ * An expired property can also be served for a while after its expiration, while it is refreshed : stale-while-revalidate</li>
+ * <li>Concurrent lookups of a property which is not cached are de-duplicated : only one of them reaches the adapter, the others wait for its result</li>
+ * <li>The cache is bounded, the least recently used properties are evicted first. A cached lookup takes no lock</li>
+ * </ul>
+ * <p>If the adapter is an <code>ObservableConfigPropertyAdapter</code>, its changed keys are evicted, then the listeners are notified</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyAdapter adapter = CachingConfigPropertyAdapter.builder(remoteAdapter)
+ *     .withTtl(Duration.ofMinutes(5))
+ *     .withTtl("myapp.secrets", Duration.ofSeconds(30))
+ *     .withRefreshAhead(executor, 0.8)
+ *     .build();
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class CachingConfigPropertyAdapter implements ObservableConfigPropertyAdapter
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(CachingConfigPropertyAdapter.class);
+
+	/**
+	 * The default maximum number of properties kept in the cache
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	/**
+	 * The default time to live of the properties
+	 */
+	public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+	private final ConfigPropertyAdapter adapter;
+	private final long ttl;
+	private final Map<String, Long> ttlByPrefix;
+	private final long negativeTtl;
+	private final long maxStale;
+	private final Executor refreshExecutor;
+	private final double refreshAheadRatio;
+	private final LongSupplier clock;
+	private final Cache<String> values;
+	private final Cache<List<String>> lists;
+	private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder staleHitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder refreshCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+
+	private CachingConfigPropertyAdapter(Builder builder)
+	{
+		this.adapter = builder.adapter;
+		this.ttl = builder.ttl;
+		this.ttlByPrefix = new HashMap<>(builder.ttlByPrefix);
+		this.negativeTtl = builder.negativeTtl >= 0 ? builder.negativeTtl : builder.ttl;
+		this.maxStale = builder.maxStale;
+		this.refreshExecutor = builder.refreshExecutor;
+		this.refreshAheadRatio = builder.refreshAheadRatio;
+		this.clock = builder.clock;
+		this.values = new Cache<>(builder.maximumSize);
+		this.lists = new Cache<>(builder.maximumSize);
+		if (adapter instanceof ObservableConfigPropertyAdapter)
+		{
+			((ObservableConfigPropertyAdapter) adapter).addChangeListener(this::onChange);
+		}
+	}
+
+	/**
+	 * @param adapter the adapter to cache
+	 * @return a builder of a caching adapter, with a time to live of {@link #DEFAULT_TTL} and at most {@link #DEFAULT_MAXIMUM_SIZE} properties
+	 */
+	public static Builder builder(ConfigPropertyAdapter adapter)
+	{
+		return new Builder(adapter);
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		return get(values, source, prefix, property);
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return get(lists, source, prefix, property);
+	}
+
+	/**
+	 * The keys which are not cached are prefetched from the adapter in one call, then cached
+	 */
+	@Override
+	public ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		long now = clock.getAsLong();
+		List<ConfigPropertyKey> missingKeys = new ArrayList<>();
+		for (ConfigPropertyKey key : keys)
+		{
+			Cached<String> entry = values.get(key.getKey());
+			if (entry == null || now >= entry.expiresAt) missingKeys.add(key);
+		}
+		if (missingKeys.isEmpty()) return this;
+
+		long generation = values.generation();
+		ConfigPropertyAdapter prefetchedAdapter = adapter.prefetch(missingKeys);
+		if (prefetchedAdapter == adapter) return this;
+		for (ConfigPropertyKey key : missingKeys)
+		{
+			String value = prefetchedAdapter.getProperty(null, key.getPrefix(), key.getProperty());
+			loadCount.increment();
+			values.put(key.getKey(), newEntry(key.getKey(), value, null, key.getPrefix(), key.getProperty()), generation);
+		}
+		return this;
+	}
+
+	/**
+	 * Evict properties from the cache
+	 *
+	 * @param keys the full keys (<code>prefix.property</code>) to evict
+	 */
+	public void invalidate(Collection<String> keys)
+	{
+		values.invalidate(keys);
+		lists.invalidate(keys);
+	}
+
+	/**
+	 * Evict all the properties from the cache
+	 */
+	public void invalidateAll()
+	{
+		values.invalidateAll();
+		lists.invalidateAll();
+	}
+
+	/**
+	 * @return the number of properties in the cache, values and lists
+	 */
+	public int size()
+	{
+		return values.size() + lists.size();
+	}
+
+	/**
+	 * @return the number of lookups served from the cache, including the stale ones
+	 */
+	public long getHitCount()
+	{
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of lookups served from the cache after the expiration of the property, while it was refreshed
+	 */
+	public long getStaleHitCount()
+	{
+		return staleHitCount.sum();
+	}
+
+	/**
+	 * @return the number of lookups not served from the cache
+	 */
+	public long getMissCount()
+	{
+		return missCount.sum();
+	}
+
+	/**
+	 * @return the number of properties retrieved from the adapter, in the foreground or in the background
+	 */
+	public long getLoadCount()
+	{
+		return loadCount.sum();
+	}
+
+	/**
+	 * @return the number of properties refreshed in the background
+	 */
+	public long getRefreshCount()
+	{
+		return refreshCount.sum();
+	}
+
+	/**
+	 * @return the number of retrievals which failed
+	 */
+	public long getLoadFailureCount()
+	{
+		return loadFailureCount.sum();
+	}
+
+	/**
+	 * @return the number of properties evicted because the cache was full
+	 */
+	public long getEvictionCount()
+	{
+		return values.entries.getEvictionCount() + lists.entries.getEvictionCount();
+	}
+
+	@Override
+	public void addChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	private void onChange(Set<String> changedKeys)
+	{
+		invalidate(changedKeys);
+		ChangeListeners.fire(LOGGER, listeners, changedKeys);
+	}
+
+	private <T> T get(Cache<T> cache, Class<?> source, String prefix, String property)
+	{
+		String key = ConfigPropertyKey.toKey(prefix, property);
+		Cached<T> entry = cache.get(key);
+		if (entry != null)
+		{
+			long now = clock.getAsLong();
+			if (now < entry.expiresAt)
+			{
+				hitCount.increment();
+				if (now >= entry.refreshAt) refresh(cache, key, entry);
+				return entry.value;
+			}
+			if (now < entry.expiresAt + maxStale && refresh(cache, key, entry))
+			{
+				hitCount.increment();
+				staleHitCount.increment();
+				return entry.value;
+			}
+		}
+		missCount.increment();
+		return load(cache, key, source, prefix, property);
+	}
+
+	/**
+	 * Retrieve a property from the adapter and cache it, unless another thread is already retrieving it : then wait for its result
+	 */
+	private <T> T load(Cache<T> cache, String key, Class<?> source, String prefix, String property)
+	{
+		CompletableFuture<Cached<T>> loading = new CompletableFuture<>();
+		CompletableFuture<Cached<T>> inFlight = cache.loading.putIfAbsent(key, loading);
+		if (inFlight != null)
+		{
+			try
+			{
+				return inFlight.join().value;
+			}
+			catch (CompletionException e)
+			{
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw e;
+			}
+		}
+
+		try
+		{
+			// The retrieval which was in progress may have ended just before this one started
+			Cached<T> entry = cache.get(key);
+			if (entry == null || clock.getAsLong() >= entry.expiresAt) entry = fetch(cache, key, source, prefix, property);
+			loading.complete(entry);
+			return entry.value;
+		}
+		catch (RuntimeException | Error e)
+		{
+			loading.completeExceptionally(e);
+			throw e;
+		}
+		finally
+		{
+			cache.loading.remove(key, loading);
+		}
+	}
+
+	/**
+	 * Refresh a property in the background, unless it is already being retrieved
+	 *
+	 * @return true if the property is being refreshed, false if it can't be
+	 */
+	private <T> boolean refresh(Cache<T> cache, String key, Cached<T> entry)
+	{
+		if (refreshExecutor == null) return false;
+
+		CompletableFuture<Cached<T>> loading = new CompletableFuture<>();
+		if (cache.loading.putIfAbsent(key, loading) != null) return true;
+		try
+		{
+			refreshExecutor.execute(() ->
+			{
+				try
+				{
+					loading.complete(fetch(cache, key, entry.source, entry.prefix, entry.property));
+					refreshCount.increment();
+				}
+				catch (RuntimeException e)
+				{
+					LOGGER.warn(String.format("Unable to refresh the property %s, the cached value is kept", key), e);
+					loading.completeExceptionally(e);
+				}
+				finally
+				{
+					cache.loading.remove(key, loading);
+				}
+			});
+			return true;
+		}
+		catch (RejectedExecutionException e)
+		{
+			cache.loading.remove(key, loading);
+			return false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Cached<T> fetch(Cache<T> cache, String key, Class<?> source, String prefix, String property)
+	{
+		long generation = cache.generation();
+		try
+		{
+			T value = (T) (cache == lists ?
+				adapter.getPropertyAsList(source, prefix, property) :
+				adapter.getProperty(source, prefix, property));
+			loadCount.increment();
+			Cached<T> entry = newEntry(key, value, source, prefix, property);
+			cache.put(key, entry, generation);
+			return entry;
+		}
+		catch (RuntimeException e)
+		{
+			loadFailureCount.increment();
+			throw e;
+		}
+	}
+
+	private <T> Cached<T> newEntry(String key, T value, Class<?> source, String prefix, String property)
+	{
+		long now = clock.getAsLong();
+		long entryTtl = value != null ? ttl(key) : negativeTtl;
+		long refreshAt = refreshExecutor != null && value != null ? now + (long) (entryTtl * refreshAheadRatio) : Long.MAX_VALUE;
+		return new Cached<>(value, now + entryTtl, refreshAt, source, prefix, property);
+	}
+
+	/**
+	 * @return the time to live of the longest prefix of the key, or the default one
+	 */
+	private long ttl(String key)
+	{
+		if (ttlByPrefix.isEmpty()) return ttl;
+		for (String prefix = key; ; prefix = prefix.substring(0, prefix.lastIndexOf('.')))
+		{
+			Long prefixTtl = ttlByPrefix.get(prefix);
+			if (prefixTtl != null) return prefixTtl;
+			if (prefix.indexOf('.') < 0) return ttl;
+		}
+	}
+
+	/**
+	 * A cached property, found or not, with the time of its expiration and of its refresh, and what is needed to refresh it
+	 */
+	private static final class Cached<T>
+	{
+		private final T value;
+		private final long expiresAt;
+		private final long refreshAt;
+		private final Class<?> source;
+		private final String prefix;
+		private final String property;
+
+		private Cached(T value, long expiresAt, long refreshAt, Class<?> source, String prefix, String property)
+		{
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.refreshAt = refreshAt;
+			this.source = source;
+			this.prefix = prefix;
+			this.property = property;
+		}
+	}
+
+	/**
+	 * The cached properties, in a <code>ConcurrentLruCache</code> whose hits take no lock, with the retrievals in progress
+	 */
+	private final class Cache<T>
+	{
+		private final ConcurrentLruCache<Cached<T>> entries;
+		private final ConcurrentMap<String, CompletableFuture<Cached<T>>> loading = new ConcurrentHashMap<>();
+
+		private Cache(int maximumSize)
+		{
+			this.entries = new ConcurrentLruCache<>(maximumSize);
+		}
+
+		private Cached<T> get(String key)
+		{
+			return entries.get(key);
+		}
+
+		private int size()
+		{
+			return entries.size();
+		}
+
+		private long generation()
+		{
+			return entries.generation();
+		}
+
+		private void put(String key, Cached<T> entry, long resolvedGeneration)
+		{
+			if (entry.value != null || negativeTtl > 0) entries.put(key, entry, resolvedGeneration);
+		}
+
+		private void invalidate(Collection<String> keys)
+		{
+			entries.invalidate(keys);
+		}
+
+		private void invalidateAll()
+		{
+			entries.invalidateAll();
+		}
+	}
+
+	/**
+	 * A builder of <code>CachingConfigPropertyAdapter</code>
+	 */
+	public static final class Builder
+	{
+		private final ConfigPropertyAdapter adapter;
+		private long ttl = DEFAULT_TTL.toNanos();
+		private final Map<String, Long> ttlByPrefix = new HashMap<>();
+		private long negativeTtl = -1;
+		private long maxStale;
+		private Executor refreshExecutor;
+		private double refreshAheadRatio = 1;
+		private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+		private LongSupplier clock = System::nanoTime;
+
+		private Builder(ConfigPropertyAdapter adapter)
+		{
+			this.adapter = adapter;
+		}
+
+		/**
+		 * @param ttl the time to live of the properties
+		 * @return this builder
+		 */
+		public Builder withTtl(Duration ttl)
+		{
+			this.ttl = positive(ttl, "time to live").toNanos();
+			return this;
+		}
+
+		/**
+		 * @param prefix a prefix, or a full key
+		 * @param ttl the time to live of the properties under this prefix, the longest prefix of a key wins
+		 * @return this builder
+		 */
+		public Builder withTtl(String prefix, Duration ttl)
+		{
+			ttlByPrefix.put(prefix, positive(ttl, "time to live").toNanos());
+			return this;
+		}
+
+		/**
+		 * @param negativeTtl the time to live of the missing properties, zero to not cache them. The time to live of the properties by default
+		 * @return this builder
+		 */
+		public Builder withNegativeTtl(Duration negativeTtl)
+		{
+			if (negativeTtl.isNegative()) throw new IllegalArgumentException(String.format("Invalid negative time to live : %s", negativeTtl));
+			this.negativeTtl = negativeTtl.toNanos();
+			return this;
+		}
+
+		/**
+		 * Refresh the properties in the background, and serve the cached values meanwhile
+		 *
+		 * @param executor the executor of the refreshes
+		 * @param ratio the part of the time to live after which a property read is refreshed, between 0 and 1 : 1 to refresh only the expired properties
+		 * @return this builder
+		 */
+		public Builder withRefreshAhead(Executor executor, double ratio)
+		{
+			if (!(ratio > 0 && ratio <= 1)) throw new IllegalArgumentException(String.format("Invalid refresh ratio : %s", ratio));
+			this.refreshExecutor = executor;
+			this.refreshAheadRatio = ratio;
+			return this;
+		}
+
+		/**
+		 * Serve an expired property for a while, while it is refreshed in the background. Requires {@link #withRefreshAhead(Executor, double)}
+		 *
+		 * @param maxStale how long after its expiration a property can still be served
+		 * @return this builder
+		 */
+		public Builder withMaxStale(Duration maxStale)
+		{
+			if (maxStale.isNegative()) throw new IllegalArgumentException(String.format("Invalid max stale : %s", maxStale));
+			this.maxStale = maxStale.toNanos();
+			return this;
+		}
+
+		/**
+		 * @param maximumSize the maximum number of values, and of lists, kept in the cache
+		 * @return this builder
+		 */
+		public Builder withMaximumSize(int maximumSize)
+		{
+			if (maximumSize <= 0) throw new IllegalArgumentException(String.format("Invalid maximum size : %d", maximumSize));
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * @param clock the source of the current time, in nanoseconds
+		 * @return this builder
+		 */
+		Builder withClock(LongSupplier clock)
+		{
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * @return the caching adapter
+		 */
+		public CachingConfigPropertyAdapter build()
+		{
+			return new CachingConfigPropertyAdapter(this);
+		}
+
+		private static Duration positive(Duration duration, String name)
+		{
+			if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException(String.format("Invalid %s : %s", name, duration));
+			return duration;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package info.toyonos.config.adapter;
+
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+import info.toyonos.config.ConfigPropertyChangeListener;
+
+/**
+ * The notification of the listeners of the observable adapters
+ *
+ * @author ToYonos
+ */
+final class ChangeListeners
+{
+	private ChangeListeners()
+	{
+	}
+
+	/**
+	 * Notify each listener, a failing listener is logged and does not prevent the next ones from being notified
+	 *
+	 * @param logger the logger of the notifying adapter
+	 * @param listeners the listeners
+	 * @param changedKeys the keys which have changed
+	 */
+	static void fire(Logger logger, Iterable<ConfigPropertyChangeListener> listeners, Set<String> changedKeys)
+	{
+		for (ConfigPropertyChangeListener listener : listeners)
+		{
+			try
+			{
+				listener.onChange(changedKeys);
+			}
+			catch (RuntimeException e)
+			{
+				logger.warn(String.format("The listener %s failed on the changed keys %s", listener, changedKeys), e);
+			}
+		}
+	}
+}
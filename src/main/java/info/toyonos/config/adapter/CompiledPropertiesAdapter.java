@@ -0,0 +1,351 @@
+package info.toyonos.config.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyException;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> for properties files compiled into a binary snapshot : an open addressing hash table over the keys,
+ * followed by the UTF-8 encoded keys and values. The snapshot is memory-mapped, a lookup reads the table and compares the key in place,
+ * without parsing anything</p>
+ * <p>The snapshot records the SHA-256 of its sources. {@link #open(List, Path)} only hashes the sources : if the snapshot is up to date, it is reused as is,
+ * otherwise the sources are parsed once, like <code>Properties.load(InputStream)</code>, and the snapshot is compiled again for the next launches</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyAdapter adapter = CompiledPropertiesAdapter.open(
+ *     Arrays.asList(Paths.get("/path/to/config.properties"), Paths.get("/path/to/override.properties")), // The last definition of a key wins
+ *     Paths.get("/var/cache/myapp/config.bin")
+ * );
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class CompiledPropertiesAdapter implements ConfigPropertyAdapter
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompiledPropertiesAdapter.class);
+
+	private static final int MAGIC = 0x54594346;
+	private static final int VERSION = 1;
+	private static final int HASH_LENGTH = 32;
+	// magic, version, hash, number of entries, length of the table
+	private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 4 + 4;
+
+	private final ByteBuffer buffer;
+	private final int size;
+	private final int tableLength;
+	private final boolean reused;
+
+	/**
+	 * Open an already compiled snapshot, without checking its sources
+	 *
+	 * @param compiled the compiled snapshot
+	 * @throws IOException if the snapshot can't be read
+	 * @throws ConfigPropertyException if the file is not a snapshot, or a snapshot of another version
+	 */
+	public CompiledPropertiesAdapter(Path compiled) throws IOException
+	{
+		this(map(compiled), true);
+		if (!isValid(buffer))
+		{
+			throw new ConfigPropertyException(String.format("%s is not a compiled properties snapshot of version %d", compiled, VERSION));
+		}
+	}
+
+	private CompiledPropertiesAdapter(ByteBuffer buffer, boolean reused)
+	{
+		this.buffer = buffer;
+		this.size = isValid(buffer) ? buffer.getInt(4 + 4 + HASH_LENGTH) : 0;
+		this.tableLength = isValid(buffer) ? buffer.getInt(4 + 4 + HASH_LENGTH + 4) : 0;
+		this.reused = reused;
+	}
+
+	/**
+	 * Open the snapshot of a properties file, compiling it first if it is missing or outdated
+	 *
+	 * @param source the properties file
+	 * @param compiled the snapshot
+	 * @return the adapter
+	 * @throws IOException if the source can't be read
+	 */
+	public static CompiledPropertiesAdapter open(Path source, Path compiled) throws IOException
+	{
+		return open(Collections.singletonList(source), compiled);
+	}
+
+	/**
+	 * Open the snapshot of several properties files, compiling it first if it is missing or outdated.
+	 * If the snapshot can't be written, the compiled properties are kept in memory
+	 *
+	 * @param sources the properties files, a key defined in several files takes its last value
+	 * @param compiled the snapshot
+	 * @return the adapter
+	 * @throws IOException if one of the sources can't be read
+	 */
+	public static CompiledPropertiesAdapter open(List<Path> sources, Path compiled) throws IOException
+	{
+		List<byte[]> contents = read(sources);
+		byte[] hash = hash(contents);
+
+		try
+		{
+			ByteBuffer buffer = map(compiled);
+			if (isValid(buffer) && Arrays.equals(hash, getHash(buffer))) return new CompiledPropertiesAdapter(buffer, true);
+		}
+		catch (NoSuchFileException e)
+		{
+			// Never compiled
+		}
+
+		byte[] snapshot = compile(contents, hash);
+		try
+		{
+			write(snapshot, compiled);
+		}
+		catch (IOException e)
+		{
+			LOGGER.warn(String.format("Unable to write the compiled properties snapshot %s", compiled), e);
+		}
+		return new CompiledPropertiesAdapter(ByteBuffer.wrap(snapshot), false);
+	}
+
+	/**
+	 * Compile properties files into a snapshot, at build time for instance
+	 *
+	 * @param sources the properties files, a key defined in several files takes its last value
+	 * @param compiled the snapshot
+	 * @throws IOException if a source can't be read, or if the snapshot can't be written
+	 */
+	public static void compile(List<Path> sources, Path compiled) throws IOException
+	{
+		List<byte[]> contents = read(sources);
+		write(compile(contents, hash(contents)), compiled);
+	}
+
+	/**
+	 * @return true if the snapshot was up to date and has been reused, false if the sources have been parsed
+	 */
+	public boolean isReused()
+	{
+		return reused;
+	}
+
+	/**
+	 * @return the number of properties
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		int entry = find(String.valueOf(prefix), property);
+		if (entry < 0) return null;
+
+		int keyLength = buffer.getInt(entry + 4);
+		int valueOffset = entry + 8 + keyLength;
+		return decode(valueOffset + 4, buffer.getInt(valueOffset));
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
+	}
+
+	/**
+	 * @return the offset of the entry of <code>prefix.property</code> in the snapshot, or -1 if not found
+	 */
+	private int find(String prefix, String property)
+	{
+		if (tableLength == 0) return -1;
+
+		int hash = ConfigPropertyKey.hash(prefix, property);
+		int slot = slot(hash, tableLength);
+		int entry;
+		while ((entry = buffer.getInt(HEADER_LENGTH + slot * 4)) != 0)
+		{
+			if (buffer.getInt(entry) == hash && keyEquals(entry, prefix, property)) return entry;
+			slot = (slot + 1) & (tableLength - 1);
+		}
+		return -1;
+	}
+
+	private boolean keyEquals(int entry, String prefix, String property)
+	{
+		int keyLength = buffer.getInt(entry + 4);
+		int keyStart = entry + 8;
+		int length = prefix.length() + 1 + property.length();
+		if (keyLength != length)
+		{
+			// More bytes than chars : the key is not ASCII, it is decoded
+			return keyLength > length && ConfigPropertyKey.matches(decode(keyStart, keyLength), prefix, property);
+		}
+
+		// Same number of bytes and chars : the key is ASCII, compared in place
+		return ConfigPropertyKey.matches(buffer, keyStart, keyLength, prefix, property);
+	}
+
+	private String decode(int start, int length)
+	{
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) bytes[i] = buffer.get(start + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int slot(int hash, int tableLength)
+	{
+		return (hash ^ (hash >>> 16)) & (tableLength - 1);
+	}
+
+	private static boolean isValid(ByteBuffer buffer)
+	{
+		return buffer.limit() >= HEADER_LENGTH && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION;
+	}
+
+	private static byte[] getHash(ByteBuffer buffer)
+	{
+		byte[] hash = new byte[HASH_LENGTH];
+		for (int i = 0; i < HASH_LENGTH; i++) hash[i] = buffer.get(8 + i);
+		return hash;
+	}
+
+	private static ByteBuffer map(Path compiled) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(compiled, StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException(String.format("%s is too large to be mapped (%d bytes)", compiled, channel.size()));
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static List<byte[]> read(List<Path> sources) throws IOException
+	{
+		List<byte[]> contents = new ArrayList<>(sources.size());
+		for (Path source : sources) contents.add(Files.readAllBytes(source));
+		return contents;
+	}
+
+	private static byte[] hash(List<byte[]> contents)
+	{
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			ByteBuffer length = ByteBuffer.allocate(4);
+			for (byte[] content : contents)
+			{
+				// The length of each source is hashed too, so that moving a line from a source to the next one changes the hash
+				length.clear();
+				digest.update(length.putInt(content.length).array());
+				digest.update(content);
+			}
+			return digest.digest();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static byte[] compile(List<byte[]> contents, byte[] hash) throws IOException
+	{
+		Properties properties = new Properties();
+		for (byte[] content : contents) properties.load(new ByteArrayInputStream(content));
+
+		// Sorted, so that the same properties always give the same snapshot
+		TreeMap<String, String> sortedProperties = new TreeMap<>();
+		for (String key : properties.stringPropertyNames()) sortedProperties.put(key, properties.getProperty(key));
+
+		int tableLength = Integer.highestOneBit(Math.max(sortedProperties.size(), 1) * 2 - 1) << 1;
+		int[] table = new int[tableLength];
+		ByteArrayOutputStream entries = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(entries);
+		int entriesStart = HEADER_LENGTH + tableLength * 4;
+		for (Map.Entry<String, String> property : sortedProperties.entrySet())
+		{
+			int entry = entriesStart + out.size();
+			int hashCode = property.getKey().hashCode();
+			int slot = slot(hashCode, tableLength);
+			while (table[slot] != 0) slot = (slot + 1) & (tableLength - 1);
+			table[slot] = entry;
+
+			byte[] key = property.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] value = property.getValue().getBytes(StandardCharsets.UTF_8);
+			out.writeInt(hashCode);
+			out.writeInt(key.length);
+			out.write(key);
+			out.writeInt(value.length);
+			out.write(value);
+		}
+
+		ByteBuffer snapshot = ByteBuffer.allocate(entriesStart + out.size());
+		snapshot.putInt(MAGIC).putInt(VERSION).put(hash).putInt(sortedProperties.size()).putInt(tableLength);
+		for (int entry : table) snapshot.putInt(entry);
+		snapshot.put(entries.toByteArray());
+		return snapshot.array();
+	}
+
+	/**
+	 * Write the snapshot to a temporary file, then move it : a concurrent launch reads either the previous snapshot or the new one, never a partial one
+	 */
+	private static void write(byte[] snapshot, Path compiled) throws IOException
+	{
+		Path directory = compiled.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temporary = Files.createTempFile(directory, compiled.getFileName().toString(), ".tmp");
+		try
+		{
+			Files.write(temporary, snapshot);
+			try
+			{
+				Files.move(temporary, compiled, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(temporary, compiled, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package info.toyonos.config.adapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> over several layers of configuration : a property is retrieved from the first layer which defines it</p>
+ * <p>The resolved properties, found or not, are kept in a bounded LRU cache, so that a lookup does not walk the layers again. A cached lookup takes no lock.
+ * The layers which are <code>ObservableConfigPropertyAdapter</code> are listened to : their changed keys are evicted from the cache,
+ * then the listeners of the composite adapter are notified. When another layer changes, {@link #invalidate(int)} must be called</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyAdapter adapter = new CompositeConfigPropertyAdapter(Arrays.asList(
+ *     overlayAdapter, // First hit wins
+ *     baseAdapter
+ * ));
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class CompositeConfigPropertyAdapter implements ObservableConfigPropertyAdapter
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompositeConfigPropertyAdapter.class);
+
+	/**
+	 * The default maximum number of resolved properties kept in the cache
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private final List<ConfigPropertyAdapter> layers;
+	private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private final ConcurrentLruCache<Resolved<String>> values;
+	private final ConcurrentLruCache<Resolved<List<String>>> lists;
+
+	public CompositeConfigPropertyAdapter(List<? extends ConfigPropertyAdapter> layers)
+	{
+		this(layers, DEFAULT_CACHE_SIZE);
+	}
+
+	public CompositeConfigPropertyAdapter(List<? extends ConfigPropertyAdapter> layers, int cacheSize)
+	{
+		this(layers, cacheSize, true);
+	}
+
+	private CompositeConfigPropertyAdapter(List<? extends ConfigPropertyAdapter> layers, int cacheSize, boolean listenLayers)
+	{
+		this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+		this.values = new ConcurrentLruCache<>(cacheSize);
+		this.lists = new ConcurrentLruCache<>(cacheSize);
+		if (listenLayers)
+		{
+			for (ConfigPropertyAdapter layer : this.layers)
+			{
+				if (layer instanceof ObservableConfigPropertyAdapter)
+				{
+					((ObservableConfigPropertyAdapter) layer).addChangeListener(this::onLayerChange);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the layers, by order of precedence
+	 */
+	public List<ConfigPropertyAdapter> getLayers()
+	{
+		return layers;
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		String key = ConfigPropertyKey.toKey(prefix, property);
+		Resolved<String> resolved = values.get(key);
+		if (resolved != null) return resolved.value;
+
+		long generation = values.generation();
+		for (int i = 0; i < layers.size(); i++)
+		{
+			String value = layers.get(i).getProperty(source, prefix, property);
+			if (value != null) return put(values, key, new Resolved<>(value, i), generation);
+		}
+		return put(values, key, new Resolved<>(null, layers.size()), generation);
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		String key = ConfigPropertyKey.toKey(prefix, property);
+		Resolved<List<String>> resolved = lists.get(key);
+		if (resolved != null) return resolved.value;
+
+		long generation = lists.generation();
+		for (int i = 0; i < layers.size(); i++)
+		{
+			List<String> value = layers.get(i).getPropertyAsList(source, prefix, property);
+			if (value != null) return put(lists, key, new Resolved<>(Collections.unmodifiableList(value), i), generation);
+		}
+		return put(lists, key, new Resolved<>(null, layers.size()), generation);
+	}
+
+	/**
+	 * The elements are streamed from the first layer defining the property, they are not cached
+	 */
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		Resolved<List<String>> resolved = lists.get(ConfigPropertyKey.toKey(prefix, property));
+		if (resolved != null)
+		{
+			if (resolved.value == null) return false;
+			for (String value : resolved.value)
+			{
+				if (value == null) throw new IllegalArgumentException(String.format("Missing value in the list %s", ConfigPropertyKey.toKey(prefix, property)));
+				consumer.accept(value, 0, value.length());
+			}
+			return true;
+		}
+
+		for (ConfigPropertyAdapter layer : layers)
+		{
+			if (layer.forEachListElement(source, prefix, property, consumer)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The layers are prefetched one by one, the returned adapter does not cache anything
+	 */
+	@Override
+	public ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		List<ConfigPropertyAdapter> prefetchedLayers = new ArrayList<>(layers.size());
+		boolean prefetched = false;
+		for (ConfigPropertyAdapter layer : layers)
+		{
+			ConfigPropertyAdapter prefetchedLayer = layer.prefetch(keys);
+			prefetched |= prefetchedLayer != layer;
+			prefetchedLayers.add(prefetchedLayer);
+		}
+		return prefetched ? new CompositeConfigPropertyAdapter(prefetchedLayers, 0, false) : this;
+	}
+
+	/**
+	 * <p>Evict from the cache the properties which may be affected by a change of a layer</p>
+	 * <p>These are the properties resolved from this layer or from a layer of lower precedence, and the properties not found</p>
+	 *
+	 * @param layer the index of the changed layer
+	 */
+	public void invalidate(int layer)
+	{
+		values.invalidateIf(resolved -> resolved.layer >= layer);
+		lists.invalidateIf(resolved -> resolved.layer >= layer);
+	}
+
+	/**
+	 * Evict all the properties from the cache
+	 */
+	public void invalidateAll()
+	{
+		invalidate(0);
+	}
+
+	@Override
+	public void addChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	private void onLayerChange(Set<String> changedKeys)
+	{
+		values.invalidate(changedKeys);
+		lists.invalidate(changedKeys);
+		ChangeListeners.fire(LOGGER, listeners, changedKeys);
+	}
+
+	private static <T> T put(ConcurrentLruCache<Resolved<T>> cache, String key, Resolved<T> resolved, long generation)
+	{
+		cache.put(key, resolved, generation);
+		return resolved.value;
+	}
+
+	/**
+	 * A resolved property, with the index of the layer it comes from, or the number of layers if not found
+	 */
+	private static final class Resolved<T>
+	{
+		private final T value;
+		private final int layer;
+
+		private Resolved(T value, int layer)
+		{
+			this.value = value;
+			this.layer = layer;
+		}
+	}
+}
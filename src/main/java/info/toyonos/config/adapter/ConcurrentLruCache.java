@@ -0,0 +1,171 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * <p>A bounded cache of the adapters, whose hits never take a lock : they only read a <code>ConcurrentHashMap</code> and stamp the entry</p>
+ * <p>The inserts, the evictions and the invalidations are serialized by a lock. When the cache is full, the least recently used eighth of the entries,
+ * according to their stamps, is evicted at once : an approximate LRU, whose cost is amortized over the next inserts</p>
+ * <p>Each invalidation starts a new generation : a value retrieved during the previous one, read with {@link #generation()} before the retrieval,
+ * is not cached since it may be outdated</p>
+ *
+ * @param <V> the type of the cached values
+ * @author ToYonos
+ */
+final class ConcurrentLruCache<V>
+{
+	private final ConcurrentMap<String, Node<V>> nodes = new ConcurrentHashMap<>();
+	private final int maximumSize;
+	private final LongAdder evictionCount = new LongAdder();
+	private volatile long generation;
+	// Only advanced by the inserts, the hits never write a shared field
+	private volatile long clock;
+
+	/**
+	 * @param maximumSize the maximum number of entries, 0 to cache nothing
+	 */
+	ConcurrentLruCache(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the cached value, or null if not cached
+	 */
+	V get(String key)
+	{
+		Node<V> node = nodes.get(key);
+		if (node == null) return null;
+
+		long now = clock;
+		// A hot entry is only written once per insert
+		if (node.accessed != now) node.accessed = now;
+		return node.value;
+	}
+
+	/**
+	 * @return the current generation, to be given to {@link #put(String, Object, long)}
+	 */
+	long generation()
+	{
+		return generation;
+	}
+
+	/**
+	 * Cache a value, unless the cache has been invalidated since its retrieval started
+	 *
+	 * @param key the key
+	 * @param value the value
+	 * @param resolvedGeneration the generation read before the retrieval of the value
+	 * @return true if the value has been cached
+	 */
+	synchronized boolean put(String key, V value, long resolvedGeneration)
+	{
+		if (resolvedGeneration != generation || maximumSize == 0) return false;
+
+		// Stamped just below the clock : the hits which follow the insert are more recent than it
+		clock += 2;
+		nodes.put(key, new Node<>(value, clock - 1));
+		if (nodes.size() > maximumSize) evict();
+		return true;
+	}
+
+	/**
+	 * Evict some keys
+	 *
+	 * @param keys the keys to evict
+	 */
+	synchronized void invalidate(Collection<String> keys)
+	{
+		generation++;
+		for (String key : keys)
+		{
+			nodes.remove(key);
+		}
+	}
+
+	/**
+	 * Evict the values matching a predicate
+	 *
+	 * @param predicate the predicate
+	 */
+	synchronized void invalidateIf(Predicate<? super V> predicate)
+	{
+		generation++;
+		nodes.values().removeIf(node -> predicate.test(node.value));
+	}
+
+	/**
+	 * Evict everything
+	 */
+	synchronized void invalidateAll()
+	{
+		generation++;
+		nodes.clear();
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	int size()
+	{
+		return nodes.size();
+	}
+
+	/**
+	 * @return the number of entries evicted because the cache was full
+	 */
+	long getEvictionCount()
+	{
+		return evictionCount.sum();
+	}
+
+	private void evict()
+	{
+		// The nodes only change under the lock
+		long[] stamps = new long[nodes.size()];
+		int size = 0;
+		for (Node<V> node : nodes.values())
+		{
+			stamps[size++] = node.accessed;
+		}
+		Arrays.sort(stamps);
+		int count = size - (maximumSize - maximumSize / 8);
+		long threshold = stamps[count - 1];
+
+		// The entries older than the threshold first, then as many as needed among the ones stamped with it
+		for (int pass = 0; pass < 2 && count > 0; pass++)
+		{
+			for (Iterator<Node<V>> it = nodes.values().iterator(); it.hasNext() && count > 0;)
+			{
+				long accessed = it.next().accessed;
+				if (accessed < threshold || (pass == 1 && accessed == threshold))
+				{
+					it.remove();
+					count--;
+					evictionCount.increment();
+				}
+			}
+		}
+	}
+
+	private static final class Node<V>
+	{
+		private final V value;
+		// Plain, the stamps are approximate : a racy or stale one only makes the eviction less accurate
+		private long accessed;
+
+		private Node(V value, long accessed)
+		{
+			this.value = value;
+			this.accessed = accessed;
+		}
+	}
+}
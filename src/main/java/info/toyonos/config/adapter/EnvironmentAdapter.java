@@ -0,0 +1,37 @@
+package info.toyonos.config.adapter;
+
+import java.util.Map;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> over the environment variables, with a relaxed binding of the keys</p>
+ * <p>The case of the keys is ignored and <code>_</code> stands for <code>.</code> : the key <code>myapp.db.username</code>
+ * is read from the variable <code>MYAPP_DB_USERNAME</code>. The variables are translated once into an immutable table,
+ * so that a lookup is a single probe which does not allocate, like with a <code>FrozenPropertiesAdapter</code></p>
+ * <p>The variables are read at construction : the environment of a process does not change. Combined with other adapters,
+ * the environment usually overrides the files :</p>
+ *
+ * <pre>
+ * ConfigPropertyAdapter adapter = new CompositeConfigPropertyAdapter(Arrays.asList(
+ *     new SystemPropertiesAdapter(),
+ *     new EnvironmentAdapter(),
+ *     new FrozenPropertiesAdapter(new FileReader(new File("/path/to/config.properties")))
+ * ));
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class EnvironmentAdapter extends FrozenPropertiesAdapter
+{
+	public EnvironmentAdapter()
+	{
+		this(System.getenv());
+	}
+
+	/**
+	 * @param environment the environment variables
+	 */
+	public EnvironmentAdapter(Map<String, String> environment)
+	{
+		super(relax(environment), true);
+	}
+}
@@ -0,0 +1,233 @@
+package info.toyonos.config.adapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+
+/**
+ * <p>An immutable <code>ConfigPropertyAdapter</code>, for properties read by many threads</p>
+ * <p>The properties are copied once into an open addressing hash table, kept half empty. A lookup is lock-free and does not allocate :
+ * the hash of <code>prefix.property</code> is computed without building the key, and the key is compared in place.
+ * Unlike <code>PropertiesAdapter</code>, the threads don't contend on the monitor of a <code>Hashtable</code></p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyAdapter adapter = new FrozenPropertiesAdapter(new FileReader(new File("/path/to/config.properties")));
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class FrozenPropertiesAdapter implements ConfigPropertyAdapter
+{
+	private final int size;
+	private final boolean relaxed;
+	private final int[] hashes;
+	private final String[] keys;
+	private final String[] values;
+	// The lists are split on first use, racing threads split the same value into equal lists
+	private final Object[] lists;
+
+	public FrozenPropertiesAdapter(Map<String, String> properties)
+	{
+		this(properties, false);
+	}
+
+	/**
+	 * @param properties the properties
+	 * @param relaxed true to match the keys whatever their case, and with <code>_</code> in place of <code>.</code> :
+	 * the keys must already be in their relaxed form, see {@link #relax(String)}
+	 */
+	FrozenPropertiesAdapter(Map<String, String> properties, boolean relaxed)
+	{
+		this.size = properties.size();
+		this.relaxed = relaxed;
+		int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+		this.hashes = new int[capacity];
+		this.keys = new String[capacity];
+		this.values = new String[capacity];
+		this.lists = new Object[capacity];
+		for (Map.Entry<String, String> property : properties.entrySet())
+		{
+			int hash = property.getKey().hashCode();
+			int slot = slot(hash);
+			while (keys[slot] != null) slot = (slot + 1) & (keys.length - 1);
+			hashes[slot] = hash;
+			keys[slot] = property.getKey();
+			values[slot] = property.getValue();
+		}
+	}
+
+	public FrozenPropertiesAdapter(Properties properties)
+	{
+		this(toMap(properties));
+	}
+
+	public FrozenPropertiesAdapter(InputStream is) throws IOException
+	{
+		this(load(is));
+	}
+
+	public FrozenPropertiesAdapter(Reader reader) throws IOException
+	{
+		this(load(reader));
+	}
+
+	/**
+	 * @return the number of properties
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		int slot = find(String.valueOf(prefix), property);
+		return slot >= 0 ? values[slot] : null;
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		int slot = find(String.valueOf(prefix), property);
+		if (slot < 0 || values[slot] == null) return null;
+
+		@SuppressWarnings("unchecked")
+		List<String> list = (List<String>) lists[slot];
+		if (list == null)
+		{
+			lists[slot] = list = Collections.unmodifiableList(Arrays.asList(values[slot].split(";")));
+		}
+		return list;
+	}
+
+	/**
+	 * The raw value is streamed, without caching its list
+	 */
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		int slot = find(String.valueOf(prefix), property);
+		if (slot < 0 || values[slot] == null) return false;
+		ListElementConsumer.forEachSeparated(values[slot], ';', consumer);
+		return true;
+	}
+
+	/**
+	 * @return the slot of <code>prefix.property</code>, or -1 if not found
+	 */
+	private int find(String prefix, String property)
+	{
+		int hash = relaxed ? relaxedHash(prefix, property) : ConfigPropertyKey.hash(prefix, property);
+		int slot = slot(hash);
+		String key;
+		while ((key = keys[slot]) != null)
+		{
+			if (hashes[slot] == hash && (relaxed ? relaxedKeyEquals(key, prefix, property) : ConfigPropertyKey.matches(key, prefix, property))) return slot;
+			slot = (slot + 1) & (keys.length - 1);
+		}
+		return -1;
+	}
+
+	private int slot(int hash)
+	{
+		return (hash ^ (hash >>> 16)) & (keys.length - 1);
+	}
+
+	/**
+	 * The hash code of the relaxed form of <code>prefix.property</code>, like <code>ConfigPropertyKey.hash</code>
+	 */
+	private static int relaxedHash(String prefix, String property)
+	{
+		int hash = 0;
+		for (int i = 0; i < prefix.length(); i++) hash = 31 * hash + relax(prefix.charAt(i));
+		hash = 31 * hash + '.';
+		for (int i = 0; i < property.length(); i++) hash = 31 * hash + relax(property.charAt(i));
+		return hash;
+	}
+
+	private static boolean relaxedKeyEquals(String key, String prefix, String property)
+	{
+		if (key.length() != prefix.length() + 1 + property.length() || key.charAt(prefix.length()) != '.') return false;
+		for (int i = 0; i < prefix.length(); i++)
+		{
+			if (key.charAt(i) != relax(prefix.charAt(i))) return false;
+		}
+		for (int i = 0, offset = prefix.length() + 1; i < property.length(); i++)
+		{
+			if (key.charAt(offset + i) != relax(property.charAt(i))) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The relaxed form of a key : in lower case, with <code>.</code> in place of <code>_</code>.
+	 * <code>MYAPP_DB_USERNAME</code>, <code>myapp_db_username</code> and <code>myapp.db.username</code> have the same relaxed form
+	 *
+	 * @param key a key
+	 * @return the relaxed form of the key
+	 */
+	static String relax(String key)
+	{
+		char[] chars = new char[key.length()];
+		for (int i = 0; i < chars.length; i++) chars[i] = relax(key.charAt(i));
+		return new String(chars);
+	}
+
+	private static char relax(char c)
+	{
+		return c == '_' ? '.' : Character.toLowerCase(c);
+	}
+
+	/**
+	 * Relax the keys of some properties : when several keys have the same relaxed form, the one already relaxed wins,
+	 * otherwise the first one in their natural order
+	 *
+	 * @param properties the properties
+	 * @return the properties by relaxed key
+	 */
+	static Map<String, String> relax(Map<String, String> properties)
+	{
+		Map<String, String> relaxedProperties = new HashMap<>();
+		for (Map.Entry<String, String> property : new TreeMap<>(properties).entrySet())
+		{
+			String relaxedKey = relax(property.getKey());
+			if (relaxedKey.equals(property.getKey())) relaxedProperties.put(relaxedKey, property.getValue());
+			else relaxedProperties.putIfAbsent(relaxedKey, property.getValue());
+		}
+		return relaxedProperties;
+	}
+
+	static Map<String, String> toMap(Properties properties)
+	{
+		Map<String, String> map = new HashMap<>();
+		for (String key : properties.stringPropertyNames()) map.put(key, properties.getProperty(key));
+		return map;
+	}
+
+	private static Properties load(InputStream is) throws IOException
+	{
+		Properties properties = new Properties();
+		properties.load(is);
+		return properties;
+	}
+
+	private static Properties load(Reader reader) throws IOException
+	{
+		Properties properties = new Properties();
+		properties.load(reader);
+		return properties;
+	}
+}
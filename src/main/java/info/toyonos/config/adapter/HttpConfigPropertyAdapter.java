@@ -0,0 +1,359 @@
+package info.toyonos.config.adapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyException;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> for a namespace of a configuration server, fetched over HTTP in one request, in the properties file format</p>
+ * <p>Once {@link #start()} is called, the namespace is polled with conditional requests : the server answers an unchanged namespace
+ * with a <code>304 Not Modified</code> to the <code>If-None-Match</code> header carrying the last <code>ETag</code>.
+ * When the namespace has changed, the listeners are notified with the keys which have actually changed</p>
+ * <p>When the server is unavailable, the last good snapshot is kept and served, and the polls are spaced out with a jittered exponential backoff</p>
+ *
+ * Ex:
+ * <pre>
+ * HttpConfigPropertyAdapter adapter = new HttpConfigPropertyAdapter(URI.create("https://config.local/namespaces/myapp"));
+ * ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, Foo.class);
+ * binder.bind();
+ * adapter.addChangeListener(binder::rebind);
+ * adapter.start();
+ * </pre>
+ *
+ * <p>Only the fields of <code>Foo</code> declared without <code>final</code> are rebound, see {@link info.toyonos.config.ConfigPropertyBinder#rebind(java.util.Set)}</p>
+ *
+ * <p>With <code>&#064;ConfigProperties(configPropertyAdapterClass = HttpConfigPropertyAdapter.class)</code>, the URI is read from the system property
+ * {@value #URI_PROPERTY}, and the namespace is fetched once : the binder creates an adapter which is never exposed, nothing could close it
+ * nor rebind its changes, so it does not poll. To follow the changes, create the adapter, register the rebind and start it as above</p>
+ *
+ * @author ToYonos
+ */
+public class HttpConfigPropertyAdapter implements ObservableConfigPropertyAdapter, Closeable
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(HttpConfigPropertyAdapter.class);
+
+	/**
+	 * The system property holding the URI of the namespace, for the no-arg constructor
+	 */
+	public static final String URI_PROPERTY = "info.toyonos.config.http.uri";
+
+	/**
+	 * The default interval between two polls
+	 */
+	public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(30);
+
+	/**
+	 * The default maximum interval between two polls, when the server is unavailable
+	 */
+	public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+
+	private static final int TIMEOUT_MILLIS = 10_000;
+
+	private final URI uri;
+	private final Duration pollInterval;
+	private final Duration maxBackoff;
+	private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private volatile Map<String, String> properties;
+	private volatile String eTag;
+	private volatile int consecutiveFailures;
+	private long fetchCount;
+	private long swappedFetch;
+	private ScheduledExecutorService poller;
+
+	/**
+	 * Fetch the namespace whose URI is the system property {@value #URI_PROPERTY}, for a <code>configPropertyAdapterClass</code>.
+	 * The namespace is not polled until {@link #start()} is called
+	 *
+	 * @throws ConfigPropertyException if the system property is missing, or if the namespace can't be fetched
+	 */
+	public HttpConfigPropertyAdapter()
+	{
+		this(uriFromSystemProperty(), DEFAULT_POLL_INTERVAL, DEFAULT_MAX_BACKOFF, null);
+		try
+		{
+			reload();
+		}
+		catch (IOException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to fetch the configuration from %s", uri), e);
+		}
+	}
+
+	/**
+	 * Fetch a namespace
+	 *
+	 * @param uri the URI of the namespace
+	 * @throws IOException if the namespace can't be fetched
+	 */
+	public HttpConfigPropertyAdapter(URI uri) throws IOException
+	{
+		this(uri, DEFAULT_POLL_INTERVAL, DEFAULT_MAX_BACKOFF);
+	}
+
+	/**
+	 * Fetch a namespace
+	 *
+	 * @param uri the URI of the namespace
+	 * @param pollInterval the interval between two polls
+	 * @param maxBackoff the maximum interval between two polls, when the server is unavailable
+	 * @throws IOException if the namespace can't be fetched
+	 */
+	public HttpConfigPropertyAdapter(URI uri, Duration pollInterval, Duration maxBackoff) throws IOException
+	{
+		this(uri, pollInterval, maxBackoff, null);
+		reload();
+	}
+
+	private HttpConfigPropertyAdapter(URI uri, Duration pollInterval, Duration maxBackoff, Void unused)
+	{
+		this.uri = uri;
+		this.pollInterval = pollInterval;
+		this.maxBackoff = maxBackoff;
+		this.properties = Collections.emptyMap();
+	}
+
+	/**
+	 * Start polling the namespace, in a daemon thread
+	 */
+	public synchronized void start()
+	{
+		if (poller != null) return;
+
+		poller = Executors.newSingleThreadScheduledExecutor(runnable ->
+		{
+			Thread thread = new Thread(runnable, "config-poller-" + uri.getHost());
+			thread.setDaemon(true);
+			return thread;
+		});
+		poller.schedule(this::poll, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop polling the namespace
+	 */
+	@Override
+	public synchronized void close()
+	{
+		if (poller == null) return;
+
+		poller.shutdownNow();
+		poller = null;
+	}
+
+	/**
+	 * Fetch the namespace, unless it has not changed since the last fetch, and notify the listeners if some keys have changed
+	 * <p>A failing listener is logged, the next ones are still notified</p>
+	 *
+	 * @return the keys which have changed
+	 * @throws IOException if the namespace can't be fetched, the last good snapshot is kept
+	 */
+	public Set<String> reload() throws IOException
+	{
+		Set<String> changedKeys = fetch();
+		if (!changedKeys.isEmpty())
+		{
+			LOGGER.debug(String.format("%s reloaded, changed keys : %s", uri, changedKeys));
+			ChangeListeners.fire(LOGGER, listeners, changedKeys);
+		}
+		return changedKeys;
+	}
+
+	/**
+	 * Fetch the namespace outside of the monitor, then swap the snapshot under it : a slow server never blocks {@link #start()} or {@link #close()}
+	 *
+	 * @return the keys which have changed
+	 */
+	private Set<String> fetch() throws IOException
+	{
+		long fetch;
+		String lastETag;
+		synchronized (this)
+		{
+			fetch = ++fetchCount;
+			lastETag = eTag;
+		}
+
+		Map<String, String> newProperties = null;
+		String newETag = null;
+		HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+		try
+		{
+			connection.setConnectTimeout(TIMEOUT_MILLIS);
+			connection.setReadTimeout(TIMEOUT_MILLIS);
+			connection.setRequestProperty("Accept", "text/plain");
+			connection.setRequestProperty("Accept-Encoding", "gzip");
+			if (lastETag != null) connection.setRequestProperty("If-None-Match", lastETag);
+
+			int status = connection.getResponseCode();
+			if (status != HttpURLConnection.HTTP_NOT_MODIFIED)
+			{
+				if (status != HttpURLConnection.HTTP_OK)
+				{
+					throw new IOException(String.format("Unexpected status %d from %s", status, uri));
+				}
+				newProperties = load(connection);
+				newETag = connection.getHeaderField("ETag");
+			}
+		}
+		finally
+		{
+			// The connection is kept alive for the next poll, once its streams are consumed
+			InputStream errorStream = connection.getErrorStream();
+			if (errorStream != null) errorStream.close();
+		}
+
+		synchronized (this)
+		{
+			consecutiveFailures = 0;
+			// A slower fetch, started before the last swapped one, must not bring back an older snapshot
+			if (newProperties == null || fetch < swappedFetch) return Collections.emptySet();
+
+			Set<String> changedKeys = WatchingPropertiesAdapter.diff(properties, newProperties);
+			properties = newProperties;
+			eTag = newETag;
+			swappedFetch = fetch;
+			return changedKeys;
+		}
+	}
+
+	/**
+	 * @return the <code>ETag</code> of the last snapshot, null if the server does not send one
+	 */
+	public String getETag()
+	{
+		return eTag;
+	}
+
+	/**
+	 * @return the number of polls which have failed since the last successful fetch
+	 */
+	public int getConsecutiveFailures()
+	{
+		return consecutiveFailures;
+	}
+
+	@Override
+	public void addChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		return properties.get(ConfigPropertyKey.toKey(prefix, property));
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
+	}
+
+	private void poll()
+	{
+		long delay;
+		try
+		{
+			reload();
+			delay = pollInterval.toMillis();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			int failures;
+			synchronized (this)
+			{
+				failures = ++consecutiveFailures;
+			}
+			delay = backoff(failures, pollInterval.toMillis(), maxBackoff.toMillis(), ThreadLocalRandom.current().nextDouble());
+			LOGGER.warn(String.format("Unable to poll %s, the last good configuration is kept, next attempt in %d ms", uri, delay), e);
+		}
+
+		synchronized (this)
+		{
+			if (poller != null) poller.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * The delay before the next poll after consecutive failures : the poll interval doubled at each failure up to the maximum,
+	 * of which a random half is taken off, so that the clients of a server which comes back do not all retry at once
+	 *
+	 * @param failures the number of consecutive failures
+	 * @param interval the poll interval, in milliseconds
+	 * @param max the maximum delay, in milliseconds
+	 * @param random a random number between 0 and 1
+	 * @return the delay, in milliseconds
+	 */
+	static long backoff(int failures, long interval, long max, double random)
+	{
+		long delay = interval;
+		for (int i = 0; i < failures && delay < max; i++) delay *= 2;
+		delay = Math.min(delay, max);
+		return delay / 2 + (long) (delay / 2 * random);
+	}
+
+	private static Map<String, String> load(HttpURLConnection connection) throws IOException
+	{
+		Properties properties = new Properties();
+		InputStream is = connection.getInputStream();
+		if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) is = new GZIPInputStream(is);
+		try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8))
+		{
+			properties.load(reader);
+		}
+
+		Map<String, String> result = new HashMap<>();
+		for (String key : properties.stringPropertyNames())
+		{
+			result.put(key, properties.getProperty(key));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static URI uriFromSystemProperty()
+	{
+		String uri = System.getProperty(URI_PROPERTY);
+		if (uri == null) throw new ConfigPropertyException(String.format("The system property %s is missing", URI_PROPERTY));
+		return URI.create(uri);
+	}
+}
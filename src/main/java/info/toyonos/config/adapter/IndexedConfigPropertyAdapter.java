@@ -0,0 +1,72 @@
+package info.toyonos.config.adapter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+import info.toyonos.config.ScopedConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ScopedConfigPropertyAdapter</code> over an immutable <code>PrefixIndex</code></p>
+ * <p>The properties are copied when the adapter is constructed : later changes of the source <code>Map</code> or <code>Properties</code> are not seen</p>
+ * 
+ * @author ToYonos
+ */
+public class IndexedConfigPropertyAdapter implements ScopedConfigPropertyAdapter
+{
+	private final PrefixIndex index;
+
+	public IndexedConfigPropertyAdapter(Map<String, String> properties)
+	{
+		this.index = new PrefixIndex(properties);
+	}
+
+	public IndexedConfigPropertyAdapter(Properties properties)
+	{
+		Map<String, String> map = new HashMap<>();
+		for (String key : properties.stringPropertyNames())
+		{
+			map.put(key, properties.getProperty(key));
+		}
+		this.index = new PrefixIndex(map);
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		return index.get(prefix, property);
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(index.get(prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(index.get(prefix, property), consumer);
+	}
+
+	/**
+	 * The index already answers the lookups in place : nothing to prefetch
+	 */
+	@Override
+	public ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		return this;
+	}
+
+	@Override
+	public void forEachProperty(Class<?> source, String prefix, BiConsumer<String, String> action)
+	{
+		index.forEach(prefix, action);
+	}
+}
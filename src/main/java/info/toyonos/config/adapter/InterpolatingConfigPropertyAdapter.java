@@ -0,0 +1,241 @@
+package info.toyonos.config.adapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyException;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> which replaces the <code>${key}</code> placeholders of the values of another adapter
+ * by the values of the referenced keys, themselves interpolated. <code>${key:default}</code> gives a default value to a missing key</p>
+ * <p>Each value is interpolated once, then memoized. Along the way, the dependencies between the keys are recorded :
+ * when keys change, only them and the keys depending on them, directly or not, are evicted and interpolated again on their next lookup.
+ * A circular reference is detected and reported with its path</p>
+ * <p>If the adapter is an <code>ObservableConfigPropertyAdapter</code>, its changes are followed, and the listeners are notified of the changed keys
+ * along with their dependents. Otherwise, {@link #invalidate(Collection)} must be called when keys change</p>
+ *
+ * Ex:
+ * <pre>
+ * # myapp.db.url is jdbc:x://db.local:5432
+ * myapp.db.host=db.local
+ * myapp.db.port=5432
+ * myapp.db.url=jdbc:x://${myapp.db.host}:${myapp.db.port}
+ *
+ * ConfigPropertyAdapter adapter = new InterpolatingConfigPropertyAdapter(new PropertiesAdapter(properties));
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class InterpolatingConfigPropertyAdapter implements ObservableConfigPropertyAdapter
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(InterpolatingConfigPropertyAdapter.class);
+
+	private static final String MISSING = new String();
+	private static final List<String> MISSING_LIST = Collections.unmodifiableList(new ArrayList<>());
+
+	private final ConfigPropertyAdapter adapter;
+	private final Map<String, String> values = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> lists = new ConcurrentHashMap<>();
+	// For each key, the keys whose value references it
+	private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+	private final ThreadLocal<Set<String>> resolving = ThreadLocal.withInitial(LinkedHashSet::new);
+	private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private long generation;
+
+	public InterpolatingConfigPropertyAdapter(ConfigPropertyAdapter adapter)
+	{
+		this(adapter, true);
+	}
+
+	private InterpolatingConfigPropertyAdapter(ConfigPropertyAdapter adapter, boolean listenAdapter)
+	{
+		this.adapter = adapter;
+		if (listenAdapter && adapter instanceof ObservableConfigPropertyAdapter)
+		{
+			((ObservableConfigPropertyAdapter) adapter).addChangeListener(this::onChange);
+		}
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		String value = resolve(source, ConfigPropertyKey.toKey(prefix, property), prefix, property);
+		return value != MISSING ? value : null;
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		String key = ConfigPropertyKey.toKey(prefix, property);
+		List<String> list = lists.get(key);
+		if (list == null)
+		{
+			long resolvedGeneration = generation();
+			List<String> rawList = adapter.getPropertyAsList(source, prefix, property);
+			if (rawList == null)
+			{
+				list = MISSING_LIST;
+			}
+			else
+			{
+				List<String> interpolatedList = new ArrayList<>(rawList.size());
+				for (String rawValue : rawList) interpolatedList.add(interpolate(source, key, rawValue));
+				list = Collections.unmodifiableList(interpolatedList);
+			}
+			store(lists, key, list, resolvedGeneration);
+		}
+		return list != MISSING_LIST ? list : null;
+	}
+
+	/**
+	 * The adapter is prefetched, the returned adapter interpolates the prefetched values without memoizing them beyond its own use
+	 */
+	@Override
+	public ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		ConfigPropertyAdapter prefetchedAdapter = adapter.prefetch(keys);
+		return prefetchedAdapter != adapter ? new InterpolatingConfigPropertyAdapter(prefetchedAdapter, false) : this;
+	}
+
+	/**
+	 * Evict changed keys, and the keys depending on them
+	 *
+	 * @param changedKeys the full keys (<code>prefix.property</code>) which have changed
+	 * @return the evicted keys
+	 */
+	public Set<String> invalidate(Collection<String> changedKeys)
+	{
+		Set<String> invalidatedKeys = new HashSet<>(changedKeys);
+		Deque<String> queue = new ArrayDeque<>(changedKeys);
+		while (!queue.isEmpty())
+		{
+			Set<String> keyDependents = dependents.get(queue.poll());
+			if (keyDependents == null) continue;
+			for (String dependent : keyDependents)
+			{
+				if (invalidatedKeys.add(dependent)) queue.add(dependent);
+			}
+		}
+
+		synchronized (this)
+		{
+			generation++;
+			values.keySet().removeAll(invalidatedKeys);
+			lists.keySet().removeAll(invalidatedKeys);
+		}
+		return invalidatedKeys;
+	}
+
+	@Override
+	public void addChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	private void onChange(Set<String> changedKeys)
+	{
+		Set<String> invalidatedKeys = Collections.unmodifiableSet(invalidate(changedKeys));
+		ChangeListeners.fire(LOGGER, listeners, invalidatedKeys);
+	}
+
+	private String resolve(Class<?> source, String key, String prefix, String property)
+	{
+		String value = values.get(key);
+		if (value != null) return value;
+
+		Set<String> resolvingKeys = resolving.get();
+		if (!resolvingKeys.add(key))
+		{
+			List<String> path = new ArrayList<>(resolvingKeys);
+			path = path.subList(path.indexOf(key), path.size());
+			throw new ConfigPropertyException(String.format("Circular reference between the properties %s -> %s", String.join(" -> ", path), key));
+		}
+		try
+		{
+			long resolvedGeneration = generation();
+			String rawValue = adapter.getProperty(source, prefix, property);
+			value = rawValue != null ? interpolate(source, key, rawValue) : MISSING;
+			store(values, key, value, resolvedGeneration);
+			return value;
+		}
+		finally
+		{
+			resolvingKeys.remove(key);
+		}
+	}
+
+	/**
+	 * Replace the placeholders of a value, and record the dependencies of its key
+	 */
+	private String interpolate(Class<?> source, String key, String rawValue)
+	{
+		int start = rawValue.indexOf("${");
+		if (start < 0) return rawValue;
+
+		StringBuilder value = new StringBuilder(rawValue.length() + 16);
+		int position = 0;
+		while (start >= 0)
+		{
+			int end = rawValue.indexOf('}', start + 2);
+			// An unterminated placeholder is kept as is
+			if (end < 0) break;
+
+			String placeholder = rawValue.substring(start + 2, end);
+			int separator = placeholder.indexOf(':');
+			String reference = separator >= 0 ? placeholder.substring(0, separator) : placeholder;
+			dependents.computeIfAbsent(reference, k -> ConcurrentHashMap.newKeySet()).add(key);
+
+			int dot = reference.lastIndexOf('.');
+			String referenceValue = resolve(source, reference, dot >= 0 ? reference.substring(0, dot) : null, reference.substring(dot + 1));
+			if (referenceValue == MISSING)
+			{
+				if (separator < 0)
+				{
+					throw new ConfigPropertyException(String.format("The property %s references the missing property %s", key, reference));
+				}
+				referenceValue = placeholder.substring(separator + 1);
+			}
+
+			value.append(rawValue, position, start).append(referenceValue);
+			position = end + 1;
+			start = rawValue.indexOf("${", position);
+		}
+		return value.append(rawValue, position, rawValue.length()).toString();
+	}
+
+	private synchronized long generation()
+	{
+		return generation;
+	}
+
+	/**
+	 * Memoize a value, unless keys have been evicted since its resolution started : it may be outdated
+	 */
+	private synchronized <T> void store(Map<String, T> memo, String key, T value, long resolvedGeneration)
+	{
+		if (resolvedGeneration == generation) memo.put(key, value);
+	}
+}
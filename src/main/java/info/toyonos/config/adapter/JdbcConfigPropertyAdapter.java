@@ -0,0 +1,173 @@
+package info.toyonos.config.adapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyException;
+import info.toyonos.config.ConfigPropertyKey;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> for a configuration stored in a database table, with one row per property</p>
+ * <p>A property retrieved on its own costs one query. When binding, all the keys of a class (or of a whole <code>bindAll</code> run)
+ * are prefetched with <code>SELECT ... WHERE key IN (...)</code> queries of up to {@value #MAX_KEYS_PER_QUERY} keys</p>
+ *
+ * Ex:
+ * <pre>
+ * ConfigPropertyAdapter adapter = new JdbcConfigPropertyAdapter(dataSource, "app_config", "config_key", "config_value");
+ * ConfigPropertyBinder.create(adapter, Foo.class).bind();
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public class JdbcConfigPropertyAdapter implements ConfigPropertyAdapter
+{
+	/**
+	 * The maximum number of keys of a prefetch query, some databases limit the size of an <code>IN</code> list
+	 */
+	public static final int MAX_KEYS_PER_QUERY = 1000;
+
+	private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+
+	private final DataSource dataSource;
+	private final String selectQuery;
+	private final String selectInQuery;
+
+	/**
+	 * Constructs a <code>JdbcConfigPropertyAdapter</code>
+	 *
+	 * @param dataSource the data source of the database
+	 * @param table the table of the configuration, possibly qualified by its schema
+	 * @param keyColumn the column of the full keys (<code>prefix.property</code>)
+	 * @param valueColumn the column of the values
+	 * @throws IllegalArgumentException if a name is not a plain SQL identifier
+	 */
+	public JdbcConfigPropertyAdapter(DataSource dataSource, String table, String keyColumn, String valueColumn)
+	{
+		String select = String.format("SELECT %s, %s FROM %s WHERE %s", identifier(keyColumn), identifier(valueColumn), identifier(table), keyColumn);
+		this.dataSource = dataSource;
+		this.selectQuery = select + " = ?";
+		this.selectInQuery = select + " IN (";
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		String key = ConfigPropertyKey.toKey(prefix, property);
+		try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(selectQuery))
+		{
+			statement.setString(1, key);
+			try (ResultSet resultSet = statement.executeQuery())
+			{
+				return resultSet.next() ? resultSet.getString(2) : null;
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to retrieve the property %s", key), e);
+		}
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public ConfigPropertyAdapter prefetch(Collection<ConfigPropertyKey> keys)
+	{
+		Map<String, String> values = new HashMap<>();
+		List<String> fullKeys = new ArrayList<>(keys.size());
+		for (ConfigPropertyKey key : keys)
+		{
+			fullKeys.add(key.getKey());
+			// Known to be missing, until found
+			values.put(key.getKey(), null);
+		}
+		if (fullKeys.isEmpty()) return this;
+
+		try (Connection connection = dataSource.getConnection())
+		{
+			for (int start = 0; start < fullKeys.size(); start += MAX_KEYS_PER_QUERY)
+			{
+				List<String> chunk = fullKeys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, fullKeys.size()));
+				try (PreparedStatement statement = connection.prepareStatement(selectInQuery(chunk.size())))
+				{
+					for (int i = 0; i < chunk.size(); i++)
+					{
+						statement.setString(i + 1, chunk.get(i));
+					}
+					try (ResultSet resultSet = statement.executeQuery())
+					{
+						while (resultSet.next())
+						{
+							values.put(resultSet.getString(1), resultSet.getString(2));
+						}
+					}
+				}
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new ConfigPropertyException(String.format("Unable to prefetch %d properties", fullKeys.size()), e);
+		}
+		return new Prefetched(values);
+	}
+
+	private String selectInQuery(int size)
+	{
+		StringBuilder query = new StringBuilder(selectInQuery.length() + size * 2);
+		query.append(selectInQuery);
+		for (int i = 0; i < size; i++)
+		{
+			query.append(i == 0 ? "?" : ",?");
+		}
+		return query.append(')').toString();
+	}
+
+	private static String identifier(String name)
+	{
+		if (name == null || !IDENTIFIER.matcher(name).matches())
+		{
+			throw new IllegalArgumentException(String.format("Invalid SQL identifier : %s", name));
+		}
+		return name;
+	}
+
+	/**
+	 * The prefetched values, the other keys are retrieved one by one
+	 */
+	private final class Prefetched implements ConfigPropertyAdapter
+	{
+		private final Map<String, String> values;
+
+		private Prefetched(Map<String, String> values)
+		{
+			this.values = values;
+		}
+
+		@Override
+		public String getProperty(Class<?> source, String prefix, String property)
+		{
+			String key = ConfigPropertyKey.toKey(prefix, property);
+			return values.containsKey(key) ? values.get(key) : JdbcConfigPropertyAdapter.this.getProperty(source, prefix, property);
+		}
+
+		@Override
+		public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+		{
+			return ListValues.toList(getProperty(source, prefix, property));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import info.toyonos.config.ListElementConsumer;
+
+/**
+ * The lists of the adapters storing them as raw values, whose elements are separated by <code>;</code>
+ *
+ * @author ToYonos
+ */
+final class ListValues
+{
+	private ListValues()
+	{
+	}
+
+	/**
+	 * Split a raw value
+	 *
+	 * @param value the raw value, possibly null
+	 * @return the elements, or null if the value is null
+	 */
+	static List<String> toList(String value)
+	{
+		return value != null ? Arrays.asList(value.split(";")) : null;
+	}
+
+	/**
+	 * Stream the elements of a raw value, without splitting it
+	 *
+	 * @param value the raw value, possibly null
+	 * @param consumer the consumer of the elements
+	 * @return true if the value exists, false otherwise
+	 */
+	static boolean forEach(String value, ListElementConsumer consumer)
+	{
+		if (value == null) return false;
+		ListElementConsumer.forEachSeparated(value, ';', consumer);
+		return true;
+	}
+}
@@ -0,0 +1,338 @@
+package info.toyonos.config.adapter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> for very large properties files, which are memory-mapped instead of being loaded in a <code>Properties</code></p>
+ * <p>On first use, the file is scanned once to build a compact index of the offsets of each key and value. A value is only decoded from the mapped file
+ * when it is requested : the heap only holds the index, and the values which are actually read</p>
+ * <p>The syntax is the one of <code>Properties.load</code>. The file is read as ISO-8859-1 by default, like <code>Properties.load(InputStream)</code>,
+ * any ASCII compatible charset (UTF-8 for instance) can be given instead. Files are limited to 2 GB</p>
+ *
+ * @author ToYonos
+ */
+public class MappedPropertiesAdapter implements ConfigPropertyAdapter
+{
+	private final ByteBuffer buffer;
+	private final Charset charset;
+	private final boolean latin1;
+	private volatile Index index;
+
+	public MappedPropertiesAdapter(Path file) throws IOException
+	{
+		this(file, StandardCharsets.ISO_8859_1);
+	}
+
+	public MappedPropertiesAdapter(Path file, Charset charset) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException(String.format("%s is too large to be mapped (%d bytes)", file, channel.size()));
+			}
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		this.charset = charset;
+		this.latin1 = StandardCharsets.ISO_8859_1.equals(charset);
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		Index index = getIndex();
+		int entry = index.find(String.valueOf(prefix), property);
+		return entry >= 0 ? unescape(decode(index.valueStarts[entry], index.valueEnds[entry])) : null;
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
+	}
+
+	private Index getIndex()
+	{
+		Index result = index;
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				result = index;
+				if (result == null) index = result = new Index();
+			}
+		}
+		return result;
+	}
+
+	private String decode(int start, int end)
+	{
+		ByteBuffer slice = buffer.duplicate();
+		slice.position(start);
+		slice.limit(end);
+		return charset.decode(slice).toString();
+	}
+
+	/**
+	 * Process the escape sequences and the line continuations of a key or a value, as <code>Properties.load</code> does
+	 */
+	private static String unescape(String raw)
+	{
+		if (raw.indexOf('\\') < 0) return raw;
+
+		StringBuilder result = new StringBuilder(raw.length());
+		int i = 0;
+		while (i < raw.length())
+		{
+			char c = raw.charAt(i++);
+			if (c != '\\')
+			{
+				result.append(c);
+				continue;
+			}
+			// A trailing backslash is dropped
+			if (i == raw.length()) break;
+
+			c = raw.charAt(i++);
+			switch (c)
+			{
+				case 'u':
+					if (i + 4 > raw.length()) throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					result.append((char) Integer.parseInt(raw.substring(i, i + 4), 16));
+					i += 4;
+					break;
+				case 't':
+					result.append('\t');
+					break;
+				case 'n':
+					result.append('\n');
+					break;
+				case 'r':
+					result.append('\r');
+					break;
+				case 'f':
+					result.append('\f');
+					break;
+				case '\r':
+				case '\n':
+					// Line continuation : the line terminator and the leading whitespaces of the next line are skipped
+					if (c == '\r' && i < raw.length() && raw.charAt(i) == '\n') i++;
+					while (i < raw.length() && isWhitespace(raw.charAt(i))) i++;
+					break;
+				default:
+					result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	private static boolean isWhitespace(int c)
+	{
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static boolean isLineTerminator(int c)
+	{
+		return c == '\r' || c == '\n';
+	}
+
+	/**
+	 * The offsets of the keys and values of the file, with an open addressing hash table over the keys
+	 */
+	private final class Index
+	{
+		private int size;
+		private int[] hashes = new int[1024];
+		private int[] keyStarts = new int[1024];
+		private int[] keyEnds = new int[1024];
+		private int[] valueStarts = new int[1024];
+		private int[] valueEnds = new int[1024];
+		// The few keys containing escape sequences, or non Latin-1 characters, are decoded once
+		private final BitSet decodedEntries = new BitSet();
+		private final Map<Integer, String> decodedKeys = new HashMap<>();
+		private final int[] table;
+
+		private Index()
+		{
+			scan();
+			int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+			table = new int[capacity];
+			for (int entry = 0; entry < size; entry++)
+			{
+				int slot = slot(hashes[entry]);
+				while (table[slot] != 0)
+				{
+					int other = table[slot] - 1;
+					if (hashes[other] == hashes[entry] && key(other).equals(key(entry)))
+					{
+						break;
+					}
+					slot = (slot + 1) & (table.length - 1);
+				}
+				// Like Properties, the last occurrence of a key wins
+				table[slot] = entry + 1;
+			}
+		}
+
+		private void scan()
+		{
+			int limit = buffer.limit();
+			int pos = 0;
+			while (pos < limit)
+			{
+				int c = buffer.get(pos) & 0xFF;
+				if (isWhitespace(c) || isLineTerminator(c))
+				{
+					pos++;
+					continue;
+				}
+				if (c == '#' || c == '!')
+				{
+					while (pos < limit && !isLineTerminator(buffer.get(pos))) pos++;
+					continue;
+				}
+
+				// The key
+				int keyStart = pos;
+				int hash = 0;
+				boolean decodeKey = false;
+				while (pos < limit)
+				{
+					c = buffer.get(pos) & 0xFF;
+					if (c == '\\')
+					{
+						decodeKey = true;
+						pos++;
+						if (pos < limit && isLineTerminator(buffer.get(pos))) pos = skipLineContinuation(pos, limit);
+						else pos++;
+						continue;
+					}
+					if (c == '=' || c == ':' || isWhitespace(c) || isLineTerminator(c)) break;
+					if (c >= 0x80 && !latin1) decodeKey = true;
+					hash = 31 * hash + c;
+					pos++;
+				}
+				int keyEnd = Math.min(pos, limit);
+
+				// The separator
+				boolean separator = false;
+				while (pos < limit)
+				{
+					c = buffer.get(pos) & 0xFF;
+					if (!isWhitespace(c))
+					{
+						if (!separator && (c == '=' || c == ':')) separator = true;
+						else break;
+					}
+					pos++;
+				}
+
+				// The value, up to the end of the logical line
+				int valueStart = pos;
+				int backslashes = 0;
+				while (pos < limit)
+				{
+					c = buffer.get(pos) & 0xFF;
+					if (isLineTerminator(c))
+					{
+						if (backslashes % 2 == 0) break;
+						pos = skipLineContinuation(pos, limit);
+						backslashes = 0;
+						continue;
+					}
+					backslashes = c == '\\' ? backslashes + 1 : 0;
+					pos++;
+				}
+
+				if (decodeKey)
+				{
+					String key = unescape(decode(keyStart, keyEnd));
+					decodedEntries.set(size);
+					decodedKeys.put(size, key);
+					hash = key.hashCode();
+				}
+				add(hash, keyStart, keyEnd, valueStart, pos);
+			}
+		}
+
+		private int skipLineContinuation(int pos, int limit)
+		{
+			if (buffer.get(pos) == '\r' && pos + 1 < limit && buffer.get(pos + 1) == '\n') pos++;
+			pos++;
+			while (pos < limit && isWhitespace(buffer.get(pos))) pos++;
+			return pos;
+		}
+
+		private void add(int hash, int keyStart, int keyEnd, int valueStart, int valueEnd)
+		{
+			if (size == hashes.length)
+			{
+				int newLength = size * 2;
+				hashes = Arrays.copyOf(hashes, newLength);
+				keyStarts = Arrays.copyOf(keyStarts, newLength);
+				keyEnds = Arrays.copyOf(keyEnds, newLength);
+				valueStarts = Arrays.copyOf(valueStarts, newLength);
+				valueEnds = Arrays.copyOf(valueEnds, newLength);
+			}
+			hashes[size] = hash;
+			keyStarts[size] = keyStart;
+			keyEnds[size] = keyEnd;
+			valueStarts[size] = valueStart;
+			valueEnds[size] = valueEnd;
+			size++;
+		}
+
+		private String key(int entry)
+		{
+			return decodedEntries.get(entry) ? decodedKeys.get(entry) : decode(keyStarts[entry], keyEnds[entry]);
+		}
+
+		private int slot(int hash)
+		{
+			return (hash ^ (hash >>> 16)) & (table.length - 1);
+		}
+
+		/**
+		 * @return the entry of <code>prefix.property</code>, or -1 if not found
+		 */
+		private int find(String prefix, String property)
+		{
+			int hash = ConfigPropertyKey.hash(prefix, property);
+			int slot = slot(hash);
+			while (table[slot] != 0)
+			{
+				int entry = table[slot] - 1;
+				if (hashes[entry] == hash && keyEquals(entry, prefix, property)) return entry;
+				slot = (slot + 1) & (table.length - 1);
+			}
+			return -1;
+		}
+
+		private boolean keyEquals(int entry, String prefix, String property)
+		{
+			if (decodedEntries.get(entry)) return ConfigPropertyKey.matches(decodedKeys.get(entry), prefix, property);
+			return ConfigPropertyKey.matches(buffer, keyStarts[entry], keyEnds[entry] - keyStarts[entry], prefix, property);
+		}
+	}
+}
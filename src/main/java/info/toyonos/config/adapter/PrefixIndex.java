@@ -0,0 +1,116 @@
+package info.toyonos.config.adapter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>An immutable index of properties, sorted by key</p>
+ * <p>A property is looked up from its prefix and its key separately, without building the <code>prefix.property</code> key,
+ * and all the properties under a prefix are found in one binary search since they are contiguous</p>
+ *
+ * @author ToYonos
+ */
+public final class PrefixIndex
+{
+	private final String[] keys;
+	private final String[] values;
+
+	/**
+	 * Constructs a <code>PrefixIndex</code>
+	 *
+	 * @param properties the properties to index, by full key
+	 */
+	public PrefixIndex(Map<String, String> properties)
+	{
+		Map<String, String> sortedProperties = new TreeMap<>(properties);
+		this.keys = new String[sortedProperties.size()];
+		this.values = new String[sortedProperties.size()];
+		int i = 0;
+		for (Map.Entry<String, String> entry : sortedProperties.entrySet())
+		{
+			keys[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+	}
+
+	/**
+	 * @return the number of properties
+	 */
+	public int size()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Retrieve the value of <code>prefix.property</code>
+	 *
+	 * @param prefix the prefix of the property, possibly null
+	 * @param property the key of the property
+	 * @return the value, or null if not found
+	 */
+	public String get(String prefix, String property)
+	{
+		String safePrefix = String.valueOf(prefix);
+		int low = 0;
+		int high = keys.length - 1;
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			int comparison = compare(keys[middle], safePrefix, property);
+			if (comparison < 0) low = middle + 1;
+			else if (comparison > 0) high = middle - 1;
+			else return values[middle];
+		}
+		return null;
+	}
+
+	/**
+	 * Stream the properties under a prefix, in the order of their keys
+	 *
+	 * @param prefix the prefix, or null for all the properties
+	 * @param action the action to apply on each property, given the key of the property without its prefix, and its value
+	 */
+	public void forEach(String prefix, BiConsumer<String, String> action)
+	{
+		if (prefix == null)
+		{
+			for (int i = 0; i < keys.length; i++) action.accept(keys[i], values[i]);
+			return;
+		}
+
+		// First key greater than or equal to "prefix."
+		int low = 0;
+		int high = keys.length;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (compare(keys[middle], prefix, "") < 0) low = middle + 1;
+			else high = middle;
+		}
+
+		int offset = prefix.length() + 1;
+		for (int i = low; i < keys.length && keys[i].startsWith(prefix) && keys[i].length() >= offset && keys[i].charAt(prefix.length()) == '.'; i++)
+		{
+			action.accept(keys[i].substring(offset), values[i]);
+		}
+	}
+
+	/**
+	 * Compare a key with <code>prefix.property</code>, as <code>String.compareTo</code> would
+	 */
+	private static int compare(String key, String prefix, String property)
+	{
+		int prefixLength = prefix.length();
+		int length = prefixLength + 1 + property.length();
+		int limit = Math.min(key.length(), length);
+		for (int i = 0; i < limit; i++)
+		{
+			char c = i < prefixLength ? prefix.charAt(i) : (i == prefixLength ? '.' : property.charAt(i - prefixLength - 1));
+			int difference = key.charAt(i) - c;
+			if (difference != 0) return difference;
+		}
+		return key.length() - length;
+	}
+}
@@ -3,11 +3,12 @@ package info.toyonos.config.adapter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
 import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
 
 /**
  * A <code>ConfigPropertyAdapter</code> for <code>Properties</code> object
@@ -38,12 +39,18 @@ public class PropertiesAdapter implements ConfigPropertyAdapter
 	@Override
 	public String getProperty(Class<?> source, String prefix, String property)
 	{
-		return properties.getProperty(String.format("%s.%s", prefix, property));
+		return properties.getProperty(ConfigPropertyKey.toKey(prefix, property));
 	}
 
 	@Override
 	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
 	{
-		return Arrays.asList(properties.getProperty(String.format("%s.%s", prefix, property)).split(";"));
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
 	}
 }
@@ -1,10 +1,11 @@
 package info.toyonos.config.adapter;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
 
 /**
  * A simple <code>ConfigPropertyAdapter</code> using a <code>Map</code>
@@ -23,12 +24,18 @@ public class SimpleConfigPropertyAdapter implements ConfigPropertyAdapter
 	@Override
 	public String getProperty(Class<?> source, String prefix, String property)
 	{
-		return properties.get(String.format("%s.%s", prefix, property));
+		return properties.get(ConfigPropertyKey.toKey(prefix, property));
 	}
 
 	@Override
 	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
 	{
-		return Arrays.asList(properties.get(String.format("%s.%s", prefix, property)).split(";"));
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
 	}
 }
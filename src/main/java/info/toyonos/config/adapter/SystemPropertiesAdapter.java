@@ -0,0 +1,28 @@
+package info.toyonos.config.adapter;
+
+import java.util.Properties;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> over the system properties, with a relaxed binding of the keys</p>
+ * <p>The case of the keys is ignored and <code>_</code> stands for <code>.</code> : the key <code>myapp.db.username</code>
+ * is read from <code>-Dmyapp.db.username</code> as well as from <code>-DMYAPP_DB_USERNAME</code>. The properties are translated once
+ * into an immutable table, so that a lookup is a single probe which does not allocate, like with a <code>FrozenPropertiesAdapter</code></p>
+ * <p>The system properties are read at construction : a property set afterwards is not seen by the adapter</p>
+ *
+ * @author ToYonos
+ */
+public class SystemPropertiesAdapter extends FrozenPropertiesAdapter
+{
+	public SystemPropertiesAdapter()
+	{
+		this(System.getProperties());
+	}
+
+	/**
+	 * @param properties the system properties
+	 */
+	public SystemPropertiesAdapter(Properties properties)
+	{
+		super(relax(toMap(properties)), true);
+	}
+}
@@ -0,0 +1,251 @@
+package info.toyonos.config.adapter;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+/**
+ * <p>A <code>ConfigPropertyAdapter</code> for a properties file, reloaded each time the file changes</p>
+ * <p>The file is watched with a <code>WatchService</code> once {@link #start()} is called. Bursts of events are debounced, then the file is parsed again
+ * and the listeners are notified with the keys which have actually changed</p>
+ *
+ * Ex:
+ * <pre>
+ * WatchingPropertiesAdapter adapter = new WatchingPropertiesAdapter(Paths.get("/path/to/config.properties"));
+ * ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, Foo.class);
+ * binder.bind();
+ * adapter.addChangeListener(binder::rebind);
+ * adapter.start();
+ * </pre>
+ *
+ * <p>Only the fields of <code>Foo</code> declared without <code>final</code> are rebound, see {@link info.toyonos.config.ConfigPropertyBinder#rebind(java.util.Set)}</p>
+ *
+ * @author ToYonos
+ */
+public class WatchingPropertiesAdapter implements ObservableConfigPropertyAdapter, Closeable
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(WatchingPropertiesAdapter.class);
+
+	private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+
+	private final Path file;
+	private final Duration debounce;
+	private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private volatile Map<String, String> properties;
+	private WatchService watchService;
+	private Thread watcher;
+
+	/**
+	 * Load a properties file, watched once {@link #start()} is called
+	 *
+	 * @param file the path of the properties file
+	 * @throws IOException if the file can't be read
+	 */
+	public WatchingPropertiesAdapter(Path file) throws IOException
+	{
+		this(file, DEFAULT_DEBOUNCE);
+	}
+
+	/**
+	 * Load a properties file, watched once {@link #start()} is called
+	 *
+	 * @param file the path of the properties file
+	 * @param debounce the delay without any new event on the file before it is parsed again
+	 * @throws IOException if the file can't be read
+	 */
+	public WatchingPropertiesAdapter(Path file, Duration debounce) throws IOException
+	{
+		this.file = file.toAbsolutePath();
+		this.debounce = debounce;
+		this.properties = load(this.file);
+	}
+
+	/**
+	 * Start watching the file, in a daemon thread
+	 *
+	 * @throws IOException if the file can't be watched
+	 */
+	public synchronized void start() throws IOException
+	{
+		if (watcher != null) return;
+
+		watchService = file.getFileSystem().newWatchService();
+		file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		watcher = new Thread(this::watch, "config-watcher-" + file.getFileName());
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Stop watching the file
+	 *
+	 * @throws IOException if the underlying <code>WatchService</code> can't be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (watcher == null) return;
+
+		watchService.close();
+		watcher = null;
+	}
+
+	/**
+	 * Parse the file again and notify the listeners if some keys have changed
+	 * <p>A failing listener is logged, the next ones are still notified</p>
+	 *
+	 * @return the keys which have changed
+	 * @throws IOException if the file can't be read, the previous configuration is kept
+	 */
+	public Set<String> reload() throws IOException
+	{
+		Set<String> changedKeys;
+		synchronized (this)
+		{
+			Map<String, String> newProperties = load(file);
+			changedKeys = diff(properties, newProperties);
+			properties = newProperties;
+		}
+
+		if (!changedKeys.isEmpty())
+		{
+			LOGGER.debug(String.format("%s reloaded, changed keys : %s", file, changedKeys));
+			ChangeListeners.fire(LOGGER, listeners, changedKeys);
+		}
+		return changedKeys;
+	}
+
+	@Override
+	public void addChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeChangeListener(ConfigPropertyChangeListener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		return properties.get(ConfigPropertyKey.toKey(prefix, property));
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return ListValues.toList(getProperty(source, prefix, property));
+	}
+
+	@Override
+	public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+	{
+		return ListValues.forEach(getProperty(source, prefix, property), consumer);
+	}
+
+	private void watch()
+	{
+		try
+		{
+			while (true)
+			{
+				if (!awaitChange(watchService.take())) continue;
+
+				// Debounce : wait for the burst of events to be over
+				WatchKey key;
+				while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null)
+				{
+					awaitChange(key);
+				}
+
+				try
+				{
+					reload();
+				}
+				catch (IOException | RuntimeException e)
+				{
+					// Thrown by the parsing, before the swap : the listeners' failures are logged by reload
+					LOGGER.warn(String.format("Unable to parse %s, the previous configuration is kept", file), e);
+				}
+			}
+		}
+		catch (ClosedWatchServiceException | InterruptedException e)
+		{
+			LOGGER.debug(String.format("Stop watching %s", file));
+		}
+	}
+
+	private boolean awaitChange(WatchKey key)
+	{
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents())
+		{
+			changed |= file.getFileName().equals(event.context());
+		}
+		key.reset();
+		return changed;
+	}
+
+	private static Map<String, String> load(Path file) throws IOException
+	{
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file))
+		{
+			properties.load(is);
+		}
+
+		Map<String, String> result = new HashMap<>();
+		for (String key : properties.stringPropertyNames())
+		{
+			result.put(key, properties.getProperty(key));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * @return the keys added, removed or changed between two versions of the properties
+	 */
+	static Set<String> diff(Map<String, String> oldProperties, Map<String, String> newProperties)
+	{
+		Set<String> changedKeys = new HashSet<>();
+		for (Map.Entry<String, String> entry : newProperties.entrySet())
+		{
+			if (!Objects.equals(entry.getValue(), oldProperties.get(entry.getKey()))) changedKeys.add(entry.getKey());
+		}
+		for (String key : oldProperties.keySet())
+		{
+			if (!newProperties.containsKey(key)) changedKeys.add(key);
+		}
+		return Collections.unmodifiableSet(changedKeys);
+	}
+}
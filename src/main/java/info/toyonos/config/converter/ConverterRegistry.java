@@ -0,0 +1,144 @@
+package info.toyonos.config.converter;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * <p>An immutable registry of the converters used by a <code>ConfigPropertyBinder</code></p>
+ * <p>The default registry converts Strings, numbers, booleans, characters and <code>Duration</code>, and parses
+ * <code>int[]</code>, <code>long[]</code>, <code>double[]</code> and <code>boolean[]</code> without boxing.
+ * Any other type is converted by a private <code>ConvertUtilsBean</code>, the global one of commons-beanutils is never used</p>
+ * <p>Custom converters are added with {@link #with(Class, ValueConverter)} and {@link #withList(Class, ListConverter)}, which return a new registry :</p>
+ *
+ * <pre>
+ * ConverterRegistry converters = ConverterRegistry.defaults().with(URI.class, URI::create);
+ * ConfigPropertyBinder.create(adapter, Foo.class).withConverters(converters).bind();
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public final class ConverterRegistry
+{
+	private static final ConverterRegistry DEFAULTS = new ConverterRegistry(
+		DefaultConverters.valueConverters(),
+		DefaultConverters.listConverters(),
+		newFallback()
+	);
+
+	private final Map<Class<?>, ValueConverter<?>> valueConverters;
+	private final Map<Class<?>, ListConverter<?>> listConverters;
+	private final ConvertUtilsBean fallback;
+	private final ConcurrentMap<Class<?>, ValueConverter<?>> resolvedValueConverters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<?>, ListConverter<?>> resolvedListConverters = new ConcurrentHashMap<>();
+
+	private ConverterRegistry(Map<Class<?>, ValueConverter<?>> valueConverters, Map<Class<?>, ListConverter<?>> listConverters, ConvertUtilsBean fallback)
+	{
+		this.valueConverters = Collections.unmodifiableMap(valueConverters);
+		this.listConverters = Collections.unmodifiableMap(listConverters);
+		this.fallback = fallback;
+	}
+
+	/**
+	 * @return the default registry
+	 */
+	public static ConverterRegistry defaults()
+	{
+		return DEFAULTS;
+	}
+
+	/**
+	 * Register a converter for a type
+	 *
+	 * @param <T> the type
+	 * @param type the type, primitive types and their wrappers share the same converter
+	 * @param converter the converter, also used for the elements of the arrays of this type
+	 * @return a new registry, with the converter
+	 */
+	public <T> ConverterRegistry with(Class<T> type, ValueConverter<? extends T> converter)
+	{
+		Class<?> wrapperType = ClassUtils.primitiveToWrapper(type);
+		Map<Class<?>, ValueConverter<?>> newValueConverters = new HashMap<>(valueConverters);
+		newValueConverters.put(wrapperType, converter);
+
+		// The specialized parser of the primitive arrays of this type would ignore the new converter
+		Map<Class<?>, ListConverter<?>> newListConverters = new HashMap<>(listConverters);
+		Class<?> primitiveType = ClassUtils.wrapperToPrimitive(wrapperType);
+		if (primitiveType != null) newListConverters.remove(Array.newInstance(primitiveType, 0).getClass());
+
+		return new ConverterRegistry(newValueConverters, newListConverters, fallback);
+	}
+
+	/**
+	 * Register a converter for a list type, bound from <code>ConfigPropertyAdapter.getPropertyAsList</code>
+	 *
+	 * @param <T> the type
+	 * @param type the type, usually an array
+	 * @param converter the converter
+	 * @return a new registry, with the converter
+	 */
+	public <T> ConverterRegistry withList(Class<T> type, ListConverter<? extends T> converter)
+	{
+		Map<Class<?>, ListConverter<?>> newListConverters = new HashMap<>(listConverters);
+		newListConverters.put(type, converter);
+		return new ConverterRegistry(new HashMap<>(valueConverters), newListConverters, fallback);
+	}
+
+	/**
+	 * Get the converter of a type, resolved once and cached
+	 *
+	 * @param type the type
+	 * @return the converter
+	 */
+	public ValueConverter<?> getConverter(Class<?> type)
+	{
+		ValueConverter<?> converter = resolvedValueConverters.get(type);
+		if (converter == null)
+		{
+			converter = resolvedValueConverters.computeIfAbsent(type, this::resolveConverter);
+		}
+		return converter;
+	}
+
+	/**
+	 * Get the converter of a list type, resolved once and cached
+	 *
+	 * @param type the type
+	 * @return the converter, or null if the type is not a list type : neither an array nor a type registered with {@link #withList(Class, ListConverter)}
+	 */
+	public ListConverter<?> getListConverter(Class<?> type)
+	{
+		ListConverter<?> converter = resolvedListConverters.get(type);
+		if (converter == null && (type.isArray() || listConverters.containsKey(type)))
+		{
+			converter = resolvedListConverters.computeIfAbsent(type, this::resolveListConverter);
+		}
+		return converter;
+	}
+
+	private ValueConverter<?> resolveConverter(Class<?> type)
+	{
+		Class<?> wrapperType = ClassUtils.primitiveToWrapper(type);
+		ValueConverter<?> converter = valueConverters.get(wrapperType);
+		return converter != null ? converter : value -> fallback.convert(value, wrapperType);
+	}
+
+	private ListConverter<?> resolveListConverter(Class<?> type)
+	{
+		ListConverter<?> converter = listConverters.get(type);
+		return converter != null ? converter : DefaultConverters.arrayConverter(type.getComponentType(), getConverter(type.getComponentType()));
+	}
+
+	private static ConvertUtilsBean newFallback()
+	{
+		ConvertUtilsBean convertUtilsBean = new ConvertUtilsBean();
+		convertUtilsBean.register(false, true, 0);
+		return convertUtilsBean;
+	}
+}
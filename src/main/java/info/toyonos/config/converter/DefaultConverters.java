@@ -0,0 +1,304 @@
+package info.toyonos.config.converter;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import info.toyonos.config.value.BloomFilter;
+import info.toyonos.config.value.DataSize;
+import info.toyonos.config.value.IntIdSet;
+import info.toyonos.config.value.LongIdSet;
+import info.toyonos.config.value.Percentage;
+import info.toyonos.config.value.Rate;
+import info.toyonos.config.value.ValueParsers;
+
+/**
+ * <p>The converters registered by default in a <code>ConverterRegistry</code></p>
+ * <p>Scalar converters keep the behavior of the commons-beanutils converters they replace : an invalid value is converted to null</p>
+ *
+ * @author ToYonos
+ */
+final class DefaultConverters
+{
+	private DefaultConverters()
+	{
+	}
+
+	static Map<Class<?>, ValueConverter<?>> valueConverters()
+	{
+		Map<Class<?>, ValueConverter<?>> converters = new HashMap<>();
+		converters.put(String.class, value -> value);
+		converters.put(Integer.class, value ->
+		{
+			try
+			{
+				return Integer.valueOf(value.trim());
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Long.class, value ->
+		{
+			try
+			{
+				return Long.valueOf(value.trim());
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Short.class, value ->
+		{
+			try
+			{
+				return Short.valueOf(value.trim());
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Byte.class, value ->
+		{
+			try
+			{
+				return Byte.valueOf(value.trim());
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Double.class, value ->
+		{
+			try
+			{
+				return Double.valueOf(value);
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Float.class, value ->
+		{
+			try
+			{
+				return Float.valueOf(value);
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		});
+		converters.put(Boolean.class, DefaultConverters::toBoolean);
+		converters.put(Character.class, value -> !value.isEmpty() ? value.charAt(0) : null);
+		// The typed values are parsed in one pass, an invalid value is reported instead of being converted to null
+		converters.put(Duration.class, ValueParsers::parseDuration);
+		converters.put(DataSize.class, ValueParsers::parseDataSize);
+		converters.put(Percentage.class, ValueParsers::parsePercentage);
+		converters.put(Rate.class, ValueParsers::parseRate);
+		converters.put(Instant.class, ValueParsers::parseInstant);
+		converters.put(LocalTime.class, ValueParsers::parseLocalTime);
+		return converters;
+	}
+
+	static Map<Class<?>, ListConverter<?>> listConverters()
+	{
+		Map<Class<?>, ListConverter<?>> converters = new HashMap<>();
+		converters.put(int[].class, (StreamingListConverter<int[]>) IntArrayAccumulator::new);
+		converters.put(long[].class, (StreamingListConverter<long[]>) LongArrayAccumulator::new);
+		converters.put(IntIdSet.class, (StreamingListConverter<IntIdSet>) () -> new IntArrayAccumulator().andThen(IntIdSet::of));
+		converters.put(LongIdSet.class, (StreamingListConverter<LongIdSet>) () -> new LongArrayAccumulator().andThen(LongIdSet::of));
+		converters.put(BitSet.class, (StreamingListConverter<BitSet>) BitSetAccumulator::new);
+		converters.put(BloomFilter.class, BloomFilter.converter(BloomFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY));
+		converters.put(double[].class, (ListConverter<double[]>) values ->
+		{
+			double[] array = new double[values.size()];
+			for (int i = 0; i < array.length; i++)
+			{
+				array[i] = Double.parseDouble(element(values, i));
+			}
+			return array;
+		});
+		converters.put(boolean[].class, (ListConverter<boolean[]>) values ->
+		{
+			boolean[] array = new boolean[values.size()];
+			for (int i = 0; i < array.length; i++)
+			{
+				Boolean value = toBoolean(element(values, i));
+				if (value == null) throw new IllegalArgumentException(String.format("Invalid boolean value : %s", values.get(i)));
+				array[i] = value;
+			}
+			return array;
+		});
+		return converters;
+	}
+
+	/**
+	 * A converter for the arrays without a specialized one : each element is converted by the converter of the component type
+	 *
+	 * @param componentType the type of the elements of the array
+	 * @param elementConverter the converter of the elements
+	 * @return the converter
+	 */
+	static ListConverter<Object> arrayConverter(Class<?> componentType, ValueConverter<?> elementConverter)
+	{
+		return values ->
+		{
+			Object array = Array.newInstance(componentType, values.size());
+			for (int i = 0; i < values.size(); i++)
+			{
+				String value = values.get(i);
+				Array.set(array, i, value != null ? elementConverter.convert(value) : null);
+			}
+			return array;
+		};
+	}
+
+	/**
+	 * Accumulate the elements of a list of integers in a growing array
+	 */
+	private static final class IntArrayAccumulator implements StreamingListConverter.Accumulator<int[]>
+	{
+		private int[] array = new int[16];
+		private int size;
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			long element = ValueParsers.parseLong(value, start, end);
+			if (element != (int) element)
+			{
+				throw new IllegalArgumentException(String.format("Invalid int value : %s", value.subSequence(start, end)));
+			}
+			if (size == array.length) array = Arrays.copyOf(array, size * 2);
+			array[size++] = (int) element;
+		}
+
+		@Override
+		public int[] finish()
+		{
+			return Arrays.copyOf(array, size);
+		}
+
+		<T> StreamingListConverter.Accumulator<T> andThen(Function<int[], T> finisher)
+		{
+			return new ForwardingAccumulator<>(this, finisher);
+		}
+	}
+
+	/**
+	 * Accumulate the elements of a list of long integers in a growing array
+	 */
+	private static final class LongArrayAccumulator implements StreamingListConverter.Accumulator<long[]>
+	{
+		private long[] array = new long[16];
+		private int size;
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			if (size == array.length) array = Arrays.copyOf(array, size * 2);
+			array[size++] = ValueParsers.parseLong(value, start, end);
+		}
+
+		@Override
+		public long[] finish()
+		{
+			return Arrays.copyOf(array, size);
+		}
+
+		<T> StreamingListConverter.Accumulator<T> andThen(Function<long[], T> finisher)
+		{
+			return new ForwardingAccumulator<>(this, finisher);
+		}
+	}
+
+	/**
+	 * Set the bit of each element of a list of non-negative integers
+	 */
+	private static final class BitSetAccumulator implements StreamingListConverter.Accumulator<BitSet>
+	{
+		private final BitSet bitSet = new BitSet();
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			long element = ValueParsers.parseLong(value, start, end);
+			if (element < 0 || element > Integer.MAX_VALUE - 1)
+			{
+				throw new IllegalArgumentException(String.format("Invalid bit index : %s", value.subSequence(start, end)));
+			}
+			bitSet.set((int) element);
+		}
+
+		@Override
+		public BitSet finish()
+		{
+			return bitSet;
+		}
+	}
+
+	private static final class ForwardingAccumulator<A, T> implements StreamingListConverter.Accumulator<T>
+	{
+		private final StreamingListConverter.Accumulator<A> accumulator;
+		private final Function<A, T> finisher;
+
+		private ForwardingAccumulator(StreamingListConverter.Accumulator<A> accumulator, Function<A, T> finisher)
+		{
+			this.accumulator = accumulator;
+			this.finisher = finisher;
+		}
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			accumulator.accept(value, start, end);
+		}
+
+		@Override
+		public T finish()
+		{
+			return finisher.apply(accumulator.finish());
+		}
+	}
+
+	private static String element(List<String> values, int i)
+	{
+		String value = values.get(i);
+		if (value == null) throw new IllegalArgumentException(String.format("Missing value at index %d", i));
+		return value;
+	}
+
+	private static Boolean toBoolean(String value)
+	{
+		switch (value.trim().toLowerCase())
+		{
+			case "true":
+			case "yes":
+			case "y":
+			case "on":
+			case "1":
+				return Boolean.TRUE;
+			case "false":
+			case "no":
+			case "n":
+			case "off":
+			case "0":
+				return Boolean.FALSE;
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package info.toyonos.config.converter;
+
+import java.util.List;
+
+/**
+ * Convert the values of a list property, as returned by <code>ConfigPropertyAdapter.getPropertyAsList</code>, to the type of its field
+ * 
+ * @author ToYonos
+ *
+ * @param <T> the type of the converted value, usually an array
+ */
+@FunctionalInterface
+public interface ListConverter<T>
+{
+	/**
+	 * Convert a list of values
+	 * 
+	 * @param values the values of the property, never null
+	 * @return the converted value
+	 * @throws IllegalArgumentException if a value can't be converted
+	 */
+	T convert(List<String> values);
+}
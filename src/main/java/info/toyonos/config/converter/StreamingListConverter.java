@@ -0,0 +1,49 @@
+package info.toyonos.config.converter;
+
+import java.util.List;
+
+import info.toyonos.config.ListElementConsumer;
+
+/**
+ * <p>A <code>ListConverter</code> which converts the elements of a list property one by one, as they are streamed by the adapter</p>
+ * <p>Neither the list nor a <code>String</code> per element are created : a huge list property is converted in a single pass over its raw value,
+ * into a compact type such as a primitive array or a bitset</p>
+ *
+ * @author ToYonos
+ *
+ * @param <T> the type of the converted value
+ */
+public interface StreamingListConverter<T> extends ListConverter<T>
+{
+	/**
+	 * @return a new accumulator, for a single conversion
+	 */
+	Accumulator<T> newAccumulator();
+
+	@Override
+	default T convert(List<String> values)
+	{
+		Accumulator<T> accumulator = newAccumulator();
+		for (int i = 0; i < values.size(); i++)
+		{
+			String value = values.get(i);
+			if (value == null) throw new IllegalArgumentException(String.format("Missing value at index %d", i));
+			accumulator.accept(value, 0, value.length());
+		}
+		return accumulator.finish();
+	}
+
+	/**
+	 * Accumulate the elements of a list, then build the converted value
+	 *
+	 * @param <T> the type of the converted value
+	 */
+	interface Accumulator<T> extends ListElementConsumer
+	{
+		/**
+		 * @return the converted value of the accumulated elements
+		 * @throws IllegalArgumentException if the elements can't be converted
+		 */
+		T finish();
+	}
+}
@@ -0,0 +1,21 @@
+package info.toyonos.config.converter;
+
+/**
+ * Convert the value of a property to the type of its field
+ * 
+ * @author ToYonos
+ *
+ * @param <T> the type of the converted value
+ */
+@FunctionalInterface
+public interface ValueConverter<T>
+{
+	/**
+	 * Convert a value
+	 * 
+	 * @param value the value of the property, never null
+	 * @return the converted value, possibly null
+	 * @throws IllegalArgumentException if the value can't be converted
+	 */
+	T convert(String value);
+}
@@ -0,0 +1,335 @@
+package info.toyonos.config.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import info.toyonos.config.ConfigProperties;
+import info.toyonos.config.ConfigPropertiesIndex;
+import info.toyonos.config.ConfigProperty;
+import info.toyonos.config.GeneratedConfigBinder;
+
+/**
+ * <p>An annotation processor which generates, at build time :</p>
+ * <ul>
+ * <li>the index of the classes annotated with <code>&#064;ConfigProperties</code>, used by <code>ConfigPropertyBinder.bindAll</code> instead of scanning the classpath at runtime</li>
+ * <li>a <code>GeneratedConfigBinder</code> for each class with <code>&#064;ConfigProperty</code> fields, named <code>Foo$ConfigBinder</code>,
+ * which looks up, converts and assigns each field without reflection. Final and private fields, and the fields whose type is not accessible from the package,
+ * can't be assigned from another class, they are still bound with reflection</li>
+ * </ul>
+ *
+ * @author ToYonos
+ */
+public class ConfigPropertiesProcessor extends AbstractProcessor
+{
+	private final Set<String> classNames = new TreeSet<>();
+	private final Set<String> generatedBinders = new HashSet<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes()
+	{
+		return new HashSet<>(Arrays.asList(ConfigProperties.class.getName(), ConfigProperty.class.getName()));
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if (roundEnv.processingOver())
+		{
+			writeIndex();
+		}
+		else
+		{
+			Map<String, TypeElement> targets = new LinkedHashMap<>();
+			for (Element element : roundEnv.getElementsAnnotatedWith(ConfigProperties.class))
+			{
+				// Interfaces are bound through proxies, there is nothing to bind statically
+				if (element instanceof TypeElement && element.getKind() != ElementKind.INTERFACE)
+				{
+					String className = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+					classNames.add(className);
+					targets.put(className, (TypeElement) element);
+				}
+			}
+			for (Element element : roundEnv.getElementsAnnotatedWith(ConfigProperty.class))
+			{
+				if (element.getKind() == ElementKind.FIELD && element.getModifiers().contains(Modifier.STATIC))
+				{
+					TypeElement type = (TypeElement) element.getEnclosingElement();
+					targets.put(processingEnv.getElementUtils().getBinaryName(type).toString(), type);
+				}
+			}
+			for (Map.Entry<String, TypeElement> target : targets.entrySet())
+			{
+				if (generatedBinders.add(target.getKey()) && isReachable(target.getValue()))
+				{
+					writeBinder(target.getKey(), target.getValue());
+				}
+			}
+		}
+		return false;
+	}
+
+	private void writeIndex()
+	{
+		if (classNames.isEmpty()) return;
+
+		try
+		{
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ConfigPropertiesIndex.RESOURCE);
+			try (Writer writer = index.openWriter())
+			{
+				for (String className : classNames)
+				{
+					writer.write(className);
+					writer.write('\n');
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(
+				Diagnostic.Kind.ERROR,
+				String.format("Unable to write the ConfigProperties index %s : %s", ConfigPropertiesIndex.RESOURCE, e.getMessage())
+			);
+		}
+	}
+
+	/**
+	 * @return true if the generated binder, in the same package, can refer to the type
+	 */
+	private static boolean isReachable(TypeElement type)
+	{
+		Element element = type;
+		while (element instanceof TypeElement)
+		{
+			TypeElement enclosingType = (TypeElement) element;
+			if (enclosingType.getModifiers().contains(Modifier.PRIVATE)) return false;
+			if (enclosingType.getNestingKind() == NestingKind.LOCAL || enclosingType.getNestingKind() == NestingKind.ANONYMOUS) return false;
+			element = enclosingType.getEnclosingElement();
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the generated binder, in the given package, can refer to the erased type
+	 */
+	private boolean isAccessible(TypeMirror type, PackageElement packageElement)
+	{
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY) return isAccessible(((ArrayType) erasure).getComponentType(), packageElement);
+		if (erasure.getKind() != TypeKind.DECLARED) return erasure.getKind().isPrimitive();
+
+		Element element = ((DeclaredType) erasure).asElement();
+		while (element instanceof TypeElement)
+		{
+			TypeElement enclosingType = (TypeElement) element;
+			Set<Modifier> modifiers = enclosingType.getModifiers();
+			if (enclosingType.getNestingKind() == NestingKind.LOCAL || enclosingType.getNestingKind() == NestingKind.ANONYMOUS) return false;
+			if (!modifiers.contains(Modifier.PUBLIC))
+			{
+				// Private, or protected and package-private from another package
+				if (modifiers.contains(Modifier.PRIVATE) || !processingEnv.getElementUtils().getPackageOf(enclosingType).equals(packageElement)) return false;
+			}
+			element = enclosingType.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private void writeBinder(String className, TypeElement type)
+	{
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = packageElement.getQualifiedName().toString();
+		String binderName = (packageName.isEmpty() ? className : className.substring(packageName.length() + 1)) + GeneratedConfigBinder.SUFFIX;
+
+		ConfigProperties configProperties = type.getAnnotation(ConfigProperties.class);
+		String defaultPrefix = configProperties != null && !configProperties.prefix().isEmpty() ? configProperties.prefix() : null;
+		List<VariableElement> fields = new ArrayList<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+		{
+			if (field.getModifiers().contains(Modifier.STATIC) && field.getAnnotation(ConfigProperty.class) != null) fields.add(field);
+		}
+
+		try
+		{
+			JavaFileObject source = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? binderName : packageName + '.' + binderName, type);
+			try (PrintWriter out = new PrintWriter(source.openWriter()))
+			{
+				if (!packageName.isEmpty())
+				{
+					out.printf("package %s;%n%n", packageName);
+				}
+				out.printf("/**%n * Generated by %s from %s, do not edit%n */%n", getClass().getName(), type.getQualifiedName());
+				out.printf("public final class %s implements info.toyonos.config.GeneratedConfigBinder%n{%n", binderName);
+
+				for (int i = 0; i < fields.size(); i++)
+				{
+					VariableElement field = fields.get(i);
+					ConfigProperty configProperty = field.getAnnotation(ConfigProperty.class);
+					String fieldName = field.getSimpleName().toString();
+					// A type which is not accessible can't be named : the field is bound with reflection, which does not use this type
+					boolean accessible = isAccessible(field.asType(), packageElement);
+					out.printf(
+						"\tprivate static final info.toyonos.config.GeneratedConfigProperty P%d = info.toyonos.config.GeneratedConfigProperty.of(%s, %s, %s, %s.class, %s, %s, %b, %b);%n",
+						i,
+						literal(fieldName),
+						literal(configProperty.prefix().isEmpty() ? defaultPrefix : configProperty.prefix()),
+						// The same key as the one computed at runtime for the field
+						literal(fieldName.replace('_', '.').toLowerCase(Locale.ROOT)),
+						accessible ? erasure(field.asType()) : "java.lang.Object",
+						literal(configProperty.defaultValue()),
+						arrayLiteral(configProperty.defaultListValue()),
+						configProperty.nullable(),
+						configProperty.trim()
+					);
+				}
+
+				out.printf("%n\tprivate static final java.util.List<info.toyonos.config.ConfigPropertyKey> KEYS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+				for (int i = 0; i < fields.size(); i++)
+				{
+					out.printf("%sP%d.getKey()", i > 0 ? ", " : "", i);
+				}
+				out.printf("));%n%n");
+
+				out.printf("\t@Override%n\tpublic java.util.List<info.toyonos.config.ConfigPropertyKey> getKeys()%n\t{%n\t\treturn KEYS;%n\t}%n%n");
+
+				out.printf("\t@Override%n\t@SuppressWarnings({ \"rawtypes\", \"unchecked\" })%n\tpublic void bind(info.toyonos.config.ConfigPropertyBindSession session)%n\t{%n");
+				for (int i = 0; i < fields.size(); i++)
+				{
+					VariableElement field = fields.get(i);
+					if (isReflective(field, packageElement))
+					{
+						out.printf("\t\tsession.bindReflectively(P%d);%n", i);
+					}
+					else
+					{
+						out.printf(
+							"\t\tif (session.resolve(P%d)) %s.%s = (%s) session.value();%n",
+							i,
+							type.getQualifiedName(),
+							field.getSimpleName(),
+							boxedErasure(field.asType())
+						);
+					}
+				}
+				out.printf("\t}%n}%n");
+			}
+		}
+		catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(
+				Diagnostic.Kind.ERROR,
+				String.format("Unable to write the generated binder %s : %s", binderName, e.getMessage()),
+				type
+			);
+		}
+	}
+
+	/**
+	 * @return true if the field can't be assigned by the generated binder : final or private, a holder, or of a type the binder can't name
+	 */
+	private boolean isReflective(VariableElement field, PackageElement packageElement)
+	{
+		Set<Modifier> modifiers = field.getModifiers();
+		return modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE) || isHolder(field.asType()) || !isAccessible(field.asType(), packageElement);
+	}
+
+	/**
+	 * A <code>ConfigFlag</code> or a <code>ConfigConstant</code> is updated in place, by the runtime binder
+	 */
+	private boolean isHolder(TypeMirror type)
+	{
+		String erasure = erasure(type);
+		return erasure.equals("info.toyonos.config.ConfigFlag") || erasure.equals("info.toyonos.config.ConfigConstant");
+	}
+
+	private String erasure(TypeMirror type)
+	{
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private String boxedErasure(TypeMirror type)
+	{
+		return type.getKind().isPrimitive() ?
+			processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString() :
+			type.getKind() == TypeKind.ARRAY ? type.toString() : erasure(type);
+	}
+
+	private static String arrayLiteral(String[] values)
+	{
+		StringBuilder literal = new StringBuilder("new String[] {");
+		for (int i = 0; i < values.length; i++)
+		{
+			literal.append(i > 0 ? ", " : " ").append(literal(values[i]));
+		}
+		return literal.append(values.length > 0 ? " }" : "}").toString();
+	}
+
+	private static String literal(String value)
+	{
+		if (value == null) return "null";
+
+		StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch (c)
+			{
+				case '"':
+					literal.append("\\\"");
+					break;
+				case '\\':
+					literal.append("\\\\");
+					break;
+				case '\n':
+					literal.append("\\n");
+					break;
+				case '\r':
+					literal.append("\\r");
+					break;
+				case '\t':
+					literal.append("\\t");
+					break;
+				default:
+					if (c < 0x20 || c > 0x7E) literal.append(String.format("\\u%04x", (int) c));
+					else literal.append(c);
+			}
+		}
+		return literal.append('"').toString();
+	}
+}
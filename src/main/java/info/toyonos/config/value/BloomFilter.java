@@ -0,0 +1,171 @@
+package info.toyonos.config.value;
+
+import java.util.Arrays;
+
+import info.toyonos.config.converter.StreamingListConverter;
+
+/**
+ * <p>An immutable Bloom filter of string values : a membership test which may give false positives, but never false negatives</p>
+ * <p>It is sized for its values and a false positive probability, about 1.2 bytes per value at 1%, whatever the length of the values.
+ * As a list property, it is built in a single pass over the raw value, without a <code>String</code> per element</p>
+ *
+ * Ex:
+ * <pre>
+ * &#064;ConfigProperty("blocked.tokens")
+ * private static BloomFilter blockedTokens;
+ *
+ * if (blockedTokens.mightContain(token)) ...
+ * </pre>
+ *
+ * @author ToYonos
+ */
+public final class BloomFilter
+{
+	/**
+	 * The false positive probability of the filters converted from a list property, unless another converter is registered
+	 */
+	public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+	private final long[] bits;
+	private final int bitCount;
+	private final int hashCount;
+
+	private BloomFilter(long[] hashes, int size, double falsePositiveProbability)
+	{
+		// m = -n ln(p) / ln(2)^2 and k = m / n ln(2)
+		long optimalBitCount = (long) Math.ceil(-Math.max(size, 1) * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+		this.bitCount = (int) Math.min(Math.max(optimalBitCount, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(size, 1) * Math.log(2)));
+		this.bits = new long[(bitCount + Long.SIZE - 1) / Long.SIZE];
+		for (int i = 0; i < size; i++)
+		{
+			long hash = hashes[i];
+			for (int j = 0; j < hashCount; j++)
+			{
+				int bit = index(hash, j);
+				bits[bit >>> 6] |= 1L << bit;
+			}
+		}
+	}
+
+	/**
+	 * @param falsePositiveProbability the false positive probability, between 0 and 1 exclusive
+	 * @param values the values
+	 * @return a filter of the values
+	 */
+	public static BloomFilter of(double falsePositiveProbability, CharSequence... values)
+	{
+		Accumulator accumulator = new Accumulator(falsePositiveProbability);
+		for (CharSequence value : values) accumulator.accept(value, 0, value.length());
+		return accumulator.finish();
+	}
+
+	/**
+	 * @param falsePositiveProbability the false positive probability, between 0 and 1 exclusive
+	 * @return a converter of list properties to filters with this false positive probability,
+	 * to register with <code>ConverterRegistry.withList(BloomFilter.class, ...)</code>
+	 */
+	public static StreamingListConverter<BloomFilter> converter(double falsePositiveProbability)
+	{
+		checkProbability(falsePositiveProbability);
+		return () -> new Accumulator(falsePositiveProbability);
+	}
+
+	/**
+	 * @param value a value
+	 * @return false if the value is definitely not in the filter, true if it might be
+	 */
+	public boolean mightContain(CharSequence value)
+	{
+		long hash = hash(value, 0, value.length());
+		for (int j = 0; j < hashCount; j++)
+		{
+			int bit = index(hash, j);
+			if ((bits[bit >>> 6] & 1L << bit) == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of bits of the filter
+	 */
+	public int getBitCount()
+	{
+		return bitCount;
+	}
+
+	/**
+	 * @return the number of bits tested per value
+	 */
+	public int getHashCount()
+	{
+		return hashCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("BloomFilter[%d bits, %d hashes]", bitCount, hashCount);
+	}
+
+	/**
+	 * The j-th bit of a value, by double hashing the two halves of its hash
+	 */
+	private int index(long hash, int j)
+	{
+		int combined = (int) hash + j * (int) (hash >>> 32);
+		return (combined & Integer.MAX_VALUE) % bitCount;
+	}
+
+	/**
+	 * FNV-1a over the chars, then the finalizer of MurmurHash3 to spread the bits on both halves
+	 */
+	private static long hash(CharSequence value, int start, int end)
+	{
+		long hash = 0xcbf29ce484222325L;
+		for (int i = start; i < end; i++)
+		{
+			hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+		}
+		hash = (hash ^ hash >>> 33) * 0xff51afd7ed558ccdL;
+		hash = (hash ^ hash >>> 33) * 0xc4ceb9fe1a85ec53L;
+		return hash ^ hash >>> 33;
+	}
+
+	private static void checkProbability(double falsePositiveProbability)
+	{
+		if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1))
+		{
+			throw new IllegalArgumentException(String.format("Invalid false positive probability : %s", falsePositiveProbability));
+		}
+	}
+
+	/**
+	 * Keep the hash of each value until the filter can be sized for their number
+	 */
+	private static final class Accumulator implements StreamingListConverter.Accumulator<BloomFilter>
+	{
+		private final double falsePositiveProbability;
+		private long[] hashes = new long[16];
+		private int size;
+
+		private Accumulator(double falsePositiveProbability)
+		{
+			checkProbability(falsePositiveProbability);
+			this.falsePositiveProbability = falsePositiveProbability;
+		}
+
+		@Override
+		public void accept(CharSequence value, int start, int end)
+		{
+			if (size == hashes.length) hashes = Arrays.copyOf(hashes, size * 2);
+			hashes[size++] = hash(value, start, end);
+		}
+
+		@Override
+		public BloomFilter finish()
+		{
+			return new BloomFilter(hashes, size, falsePositiveProbability);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package info.toyonos.config.value;
+
+/**
+ * <p>An amount of data, in bytes</p>
+ * <p>Parsed from <code>512</code>, <code>64MB</code> or <code>1GiB</code> : the units <code>KB</code>, <code>MB</code>, <code>GB</code>, <code>TB</code> and <code>PB</code>
+ * are powers of 1000, the units <code>KiB</code>, <code>MiB</code>, <code>GiB</code>, <code>TiB</code> and <code>PiB</code> are powers of 1024</p>
+ *
+ * @author ToYonos
+ */
+public final class DataSize implements Comparable<DataSize>
+{
+	private final long bytes;
+
+	private DataSize(long bytes)
+	{
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @param bytes the number of bytes
+	 * @return the data size
+	 */
+	public static DataSize ofBytes(long bytes)
+	{
+		return new DataSize(bytes);
+	}
+
+	/**
+	 * @param value the data size, ex : <code>64MB</code>
+	 * @return the data size
+	 * @throws IllegalArgumentException if the value is not a data size
+	 */
+	public static DataSize parse(CharSequence value)
+	{
+		return ValueParsers.parseDataSize(value);
+	}
+
+	/**
+	 * @return the number of bytes
+	 */
+	public long toBytes()
+	{
+		return bytes;
+	}
+
+	/**
+	 * @return the number of KiB, rounded down
+	 */
+	public long toKibibytes()
+	{
+		return bytes / 1024;
+	}
+
+	/**
+	 * @return the number of MiB, rounded down
+	 */
+	public long toMebibytes()
+	{
+		return bytes / (1024 * 1024);
+	}
+
+	@Override
+	public int compareTo(DataSize other)
+	{
+		return Long.compare(bytes, other.bytes);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		return obj instanceof DataSize && ((DataSize) obj).bytes == bytes;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Long.hashCode(bytes);
+	}
+
+	@Override
+	public String toString()
+	{
+		return bytes + "B";
+	}
+}
@@ -0,0 +1,81 @@
+package info.toyonos.config.value;
+
+import java.util.Arrays;
+
+/**
+ * <p>An immutable set of int identifiers, stored as a sorted array : 4 bytes per identifier, instead of a boxed <code>Integer</code> in a <code>HashSet</code></p>
+ * <p>The membership is a binary search. As a list property, it is converted in a single pass over the raw value, ex : <code>1042;17;99871</code></p>
+ *
+ * @author ToYonos
+ */
+public final class IntIdSet
+{
+	private static final IntIdSet EMPTY = new IntIdSet(new int[0]);
+
+	private final int[] ids;
+
+	private IntIdSet(int[] ids)
+	{
+		this.ids = ids;
+	}
+
+	/**
+	 * @param ids the identifiers, in any order, possibly duplicated
+	 * @return the set of the identifiers
+	 */
+	public static IntIdSet of(int... ids)
+	{
+		if (ids.length == 0) return EMPTY;
+		int[] sortedIds = ids.clone();
+		Arrays.sort(sortedIds);
+		int size = 1;
+		for (int i = 1; i < sortedIds.length; i++)
+		{
+			if (sortedIds[i] != sortedIds[size - 1]) sortedIds[size++] = sortedIds[i];
+		}
+		return new IntIdSet(size == sortedIds.length ? sortedIds : Arrays.copyOf(sortedIds, size));
+	}
+
+	/**
+	 * @param id an identifier
+	 * @return true if the set contains the identifier, false otherwise
+	 */
+	public boolean contains(int id)
+	{
+		return Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	/**
+	 * @return the number of identifiers
+	 */
+	public int size()
+	{
+		return ids.length;
+	}
+
+	/**
+	 * @return the identifiers, sorted
+	 */
+	public int[] toArray()
+	{
+		return ids.clone();
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		return obj instanceof IntIdSet && Arrays.equals(((IntIdSet) obj).ids, ids);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(ids);
+	}
+}
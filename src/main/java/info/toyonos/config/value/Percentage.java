@@ -0,0 +1,75 @@
+package info.toyonos.config.value;
+
+/**
+ * <p>A percentage, parsed from <code>75%</code>, <code>12.5 %</code> or <code>75</code></p>
+ *
+ * @author ToYonos
+ */
+public final class Percentage implements Comparable<Percentage>
+{
+	private final double value;
+
+	private Percentage(double value)
+	{
+		this.value = value;
+	}
+
+	/**
+	 * @param value the percentage, 75 for 75%
+	 * @return the percentage
+	 */
+	public static Percentage of(double value)
+	{
+		return new Percentage(value);
+	}
+
+	/**
+	 * @param value the percentage, ex : <code>75%</code>
+	 * @return the percentage
+	 * @throws IllegalArgumentException if the value is not a percentage
+	 */
+	public static Percentage parse(CharSequence value)
+	{
+		return ValueParsers.parsePercentage(value);
+	}
+
+	/**
+	 * @return the percentage, 75 for 75%
+	 */
+	public double getValue()
+	{
+		return value;
+	}
+
+	/**
+	 * @return the ratio, 0.75 for 75%
+	 */
+	public double toRatio()
+	{
+		return value / 100;
+	}
+
+	@Override
+	public int compareTo(Percentage other)
+	{
+		return Double.compare(value, other.value);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		return obj instanceof Percentage && Double.compare(((Percentage) obj).value, value) == 0;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Double.hashCode(value);
+	}
+
+	@Override
+	public String toString()
+	{
+		return value + "%";
+	}
+}
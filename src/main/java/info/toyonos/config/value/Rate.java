@@ -0,0 +1,80 @@
+package info.toyonos.config.value;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A number of events per unit of time, parsed from <code>100/s</code>, <code>5000/min</code> or <code>2.5/h</code></p>
+ * <p>The units are <code>ns</code>, <code>us</code>, <code>ms</code>, <code>s</code>, <code>m</code> or <code>min</code>, <code>h</code> and <code>d</code></p>
+ *
+ * @author ToYonos
+ */
+public final class Rate implements Comparable<Rate>
+{
+	private final double perSecond;
+
+	private Rate(double perSecond)
+	{
+		this.perSecond = perSecond;
+	}
+
+	/**
+	 * @param count the number of events
+	 * @param unit the unit of time
+	 * @return the rate of <code>count</code> events per <code>unit</code>
+	 */
+	public static Rate of(double count, TimeUnit unit)
+	{
+		return new Rate(count * TimeUnit.SECONDS.toNanos(1) / unit.toNanos(1));
+	}
+
+	/**
+	 * @param value the rate, ex : <code>100/s</code>
+	 * @return the rate
+	 * @throws IllegalArgumentException if the value is not a rate
+	 */
+	public static Rate parse(CharSequence value)
+	{
+		return ValueParsers.parseRate(value);
+	}
+
+	/**
+	 * @return the number of events per second
+	 */
+	public double perSecond()
+	{
+		return perSecond;
+	}
+
+	/**
+	 * @param unit the unit of time
+	 * @return the number of events per <code>unit</code>
+	 */
+	public double per(TimeUnit unit)
+	{
+		return perSecond * unit.toNanos(1) / TimeUnit.SECONDS.toNanos(1);
+	}
+
+	@Override
+	public int compareTo(Rate other)
+	{
+		return Double.compare(perSecond, other.perSecond);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		return obj instanceof Rate && Double.compare(((Rate) obj).perSecond, perSecond) == 0;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Double.hashCode(perSecond);
+	}
+
+	@Override
+	public String toString()
+	{
+		return perSecond + "/s";
+	}
+}
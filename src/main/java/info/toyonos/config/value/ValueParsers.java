@@ -0,0 +1,472 @@
+package info.toyonos.config.value;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Parsers of typed values, reading a <code>CharSequence</code> in a single pass, without intermediate strings</p>
+ * <p>Leading and trailing whitespaces are ignored. An invalid value throws an <code>IllegalArgumentException</code></p>
+ *
+ * @author ToYonos
+ */
+public final class ValueParsers
+{
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+	private static final String[] DURATION_UNITS = { "d", "h", "m", "min", "s", "ms", "us", "ns" };
+	private static final String[] DATA_SIZE_UNITS = { "", "B", "KB", "MB", "GB", "TB", "PB", "KiB", "MiB", "GiB", "TiB", "PiB" };
+	private static final String[] RATE_UNITS = { "ns", "us", "ms", "s", "m", "min", "h", "d" };
+
+	private ValueParsers()
+	{
+	}
+
+	/**
+	 * Parse a duration, made of numbers followed by their unit (<code>d</code>, <code>h</code>, <code>m</code>, <code>s</code>, <code>ms</code>, <code>us</code>, <code>ns</code>),
+	 * ex : <code>1d2h30m</code>, <code>1h 30m</code> or <code>500ms</code>. A value starting with <code>P</code> is parsed as an ISO-8601 duration, ex : <code>PT5M</code>
+	 *
+	 * @param value the value
+	 * @return the duration
+	 * @throws IllegalArgumentException if the value is not a duration
+	 */
+	public static Duration parseDuration(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		if (cursor.end > cursor.pos && (Character.toUpperCase(value.charAt(cursor.pos)) == 'P' || value.charAt(cursor.pos) == '-'))
+		{
+			try
+			{
+				return Duration.parse(value.subSequence(cursor.pos, cursor.end));
+			}
+			catch (DateTimeException e)
+			{
+				throw cursor.invalid("duration");
+			}
+		}
+
+		long seconds = 0;
+		long nanos = 0;
+		do
+		{
+			long amount = cursor.readLong("duration");
+			cursor.skipWhitespaces();
+			int unitStart = cursor.pos;
+			cursor.skipLetters();
+			try
+			{
+				switch (cursor.unit(unitStart, DURATION_UNITS))
+				{
+					case 0:
+						seconds = Math.addExact(seconds, Math.multiplyExact(amount, 86_400L));
+						break;
+					case 1:
+						seconds = Math.addExact(seconds, Math.multiplyExact(amount, 3_600L));
+						break;
+					case 2:
+					case 3:
+						seconds = Math.addExact(seconds, Math.multiplyExact(amount, 60L));
+						break;
+					case 4:
+						seconds = Math.addExact(seconds, amount);
+						break;
+					case 5:
+						seconds = Math.addExact(seconds, amount / 1_000);
+						nanos += amount % 1_000 * 1_000_000;
+						break;
+					case 6:
+						seconds = Math.addExact(seconds, amount / 1_000_000);
+						nanos += amount % 1_000_000 * 1_000;
+						break;
+					case 7:
+						seconds = Math.addExact(seconds, amount / NANOS_PER_SECOND);
+						nanos += amount % NANOS_PER_SECOND;
+						break;
+					default:
+						throw cursor.invalid("duration");
+				}
+			}
+			catch (ArithmeticException e)
+			{
+				throw cursor.invalid("duration");
+			}
+			cursor.skipWhitespaces();
+		}
+		while (cursor.pos < cursor.end);
+
+		try
+		{
+			// The nanos may still carry over the seconds
+			return Duration.ofSeconds(seconds, nanos);
+		}
+		catch (ArithmeticException e)
+		{
+			throw cursor.invalid("duration");
+		}
+	}
+
+	/**
+	 * Parse a data size, ex : <code>512</code>, <code>512B</code>, <code>64MB</code>, <code>1.5GiB</code>
+	 *
+	 * @param value the value
+	 * @return the data size
+	 * @throws IllegalArgumentException if the value is not a data size
+	 * @see DataSize
+	 */
+	public static DataSize parseDataSize(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		cursor.readLong("data size");
+		int scale = cursor.readFraction("data size");
+		long mantissa = cursor.mantissa;
+		cursor.skipWhitespaces();
+		int unitStart = cursor.pos;
+		cursor.skipLetters();
+		cursor.expectEnd("data size");
+
+		long multiplier;
+		int unit = cursor.unit(unitStart, DATA_SIZE_UNITS);
+		if (unit < 0) throw cursor.invalid("data size");
+		if (unit <= 1) multiplier = 1;
+		else if (unit <= 6) multiplier = pow(1000, unit - 1);
+		else multiplier = 1L << 10 * (unit - 6);
+
+		try
+		{
+			return DataSize.ofBytes(Math.multiplyExact(mantissa, multiplier) / pow(10, scale));
+		}
+		catch (ArithmeticException e)
+		{
+			throw cursor.invalid("data size");
+		}
+	}
+
+	/**
+	 * Parse a percentage, ex : <code>75%</code>, <code>12.5 %</code>, or <code>75</code> without the percent sign
+	 *
+	 * @param value the value
+	 * @return the percentage
+	 * @throws IllegalArgumentException if the value is not a percentage
+	 */
+	public static Percentage parsePercentage(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		double percentage = cursor.readDecimal("percentage");
+		cursor.skipWhitespaces();
+		if (cursor.pos < cursor.end && value.charAt(cursor.pos) == '%') cursor.pos++;
+		cursor.expectEnd("percentage");
+		return Percentage.of(percentage);
+	}
+
+	/**
+	 * Parse a rate, ex : <code>100/s</code>, <code>5000 / min</code>, <code>2.5/h</code>
+	 *
+	 * @param value the value
+	 * @return the rate
+	 * @throws IllegalArgumentException if the value is not a rate
+	 * @see Rate
+	 */
+	public static Rate parseRate(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		double count = cursor.readDecimal("rate");
+		cursor.skipWhitespaces();
+		if (cursor.pos == cursor.end || value.charAt(cursor.pos) != '/') throw cursor.invalid("rate");
+		cursor.pos++;
+		cursor.skipWhitespaces();
+		int unitStart = cursor.pos;
+		cursor.skipLetters();
+		cursor.expectEnd("rate");
+
+		double seconds;
+		switch (cursor.unit(unitStart, RATE_UNITS))
+		{
+			case 0:
+				seconds = 1e-9;
+				break;
+			case 1:
+				seconds = 1e-6;
+				break;
+			case 2:
+				seconds = 1e-3;
+				break;
+			case 3:
+				seconds = 1;
+				break;
+			case 4:
+			case 5:
+				seconds = 60;
+				break;
+			case 6:
+				seconds = 3_600;
+				break;
+			case 7:
+				seconds = 86_400;
+				break;
+			default:
+				throw cursor.invalid("rate");
+		}
+		return Rate.of(count / seconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Parse an instant, either in the ISO-8601 format, ex : <code>2020-06-01T10:15:30Z</code>, or as a number of milliseconds since the epoch
+	 *
+	 * @param value the value
+	 * @return the instant
+	 * @throws IllegalArgumentException if the value is not an instant
+	 */
+	public static Instant parseInstant(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		int start = cursor.pos;
+		boolean negative = start < cursor.end && value.charAt(start) == '-';
+		int digitsStart = negative ? start + 1 : start;
+		int digitsEnd = digitsStart;
+		while (digitsEnd < cursor.end && isDigit(value.charAt(digitsEnd))) digitsEnd++;
+		if (digitsEnd == cursor.end && digitsEnd > digitsStart)
+		{
+			cursor.pos = digitsStart;
+			long millis = cursor.readLong("instant");
+			return Instant.ofEpochMilli(negative ? -millis : millis);
+		}
+
+		try
+		{
+			return Instant.parse(value.subSequence(start, cursor.end));
+		}
+		catch (DateTimeException e)
+		{
+			throw cursor.invalid("instant");
+		}
+	}
+
+	/**
+	 * Parse a time of day, ex : <code>08:30</code>, <code>23:59:59</code> or <code>10:15:30.250</code>
+	 *
+	 * @param value the value
+	 * @return the time
+	 * @throws IllegalArgumentException if the value is not a time
+	 */
+	public static LocalTime parseLocalTime(CharSequence value)
+	{
+		Cursor cursor = new Cursor(value);
+		int hour = cursor.readTwoDigits("time");
+		cursor.expect(':', "time");
+		int minute = cursor.readTwoDigits("time");
+		int second = 0;
+		int nano = 0;
+		if (cursor.pos < cursor.end)
+		{
+			cursor.expect(':', "time");
+			second = cursor.readTwoDigits("time");
+			if (cursor.pos < cursor.end)
+			{
+				cursor.expect('.', "time");
+				int digits = 0;
+				while (cursor.pos < cursor.end && isDigit(value.charAt(cursor.pos)) && digits < 9)
+				{
+					nano = nano * 10 + value.charAt(cursor.pos++) - '0';
+					digits++;
+				}
+				if (digits == 0) throw cursor.invalid("time");
+				for (int i = digits; i < 9; i++) nano *= 10;
+			}
+		}
+		cursor.expectEnd("time");
+
+		try
+		{
+			return LocalTime.of(hour, minute, second, nano);
+		}
+		catch (DateTimeException e)
+		{
+			throw cursor.invalid("time");
+		}
+	}
+
+	/**
+	 * Parse a signed integer from a range of chars, without creating a <code>String</code>, ex : <code>42</code> or <code> -7 </code>
+	 *
+	 * @param value the sequence containing the integer
+	 * @param start the index of its first char, inclusive
+	 * @param end the index of its last char, exclusive
+	 * @return the integer
+	 * @throws IllegalArgumentException if the range is not an integer, or if it overflows a long
+	 */
+	public static long parseLong(CharSequence value, int start, int end)
+	{
+		int pos = start;
+		while (pos < end && Character.isWhitespace(value.charAt(pos))) pos++;
+		while (end > pos && Character.isWhitespace(value.charAt(end - 1))) end--;
+		boolean negative = pos < end && value.charAt(pos) == '-';
+		if (negative || pos < end && value.charAt(pos) == '+') pos++;
+		if (pos == end) throw invalidInteger(value, start, end);
+
+		// Accumulated negatively, as Long.parseLong does, to reach Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long result = 0;
+		for (; pos < end; pos++)
+		{
+			char c = value.charAt(pos);
+			if (!isDigit(c) || result < limit / 10) throw invalidInteger(value, start, end);
+			result *= 10;
+			if (result < limit + (c - '0')) throw invalidInteger(value, start, end);
+			result -= c - '0';
+		}
+		return negative ? result : -result;
+	}
+
+	private static IllegalArgumentException invalidInteger(CharSequence value, int start, int end)
+	{
+		return new IllegalArgumentException(String.format("Invalid integer : %s", value.subSequence(start, Math.max(start, end))));
+	}
+
+	private static boolean isDigit(char c)
+	{
+		return c >= '0' && c <= '9';
+	}
+
+	private static long pow(long base, int exponent)
+	{
+		long result = 1;
+		for (int i = 0; i < exponent; i++) result = Math.multiplyExact(result, base);
+		return result;
+	}
+
+	/**
+	 * The position of the parser in the value, between its leading and trailing whitespaces
+	 */
+	private static final class Cursor
+	{
+		private final CharSequence value;
+		private final int end;
+		private int pos;
+		// The digits before and after the decimal point of the last number read, as an integer
+		private long mantissa;
+
+		private Cursor(CharSequence value)
+		{
+			this.value = value;
+			int start = 0;
+			int end = value.length();
+			while (start < end && Character.isWhitespace(value.charAt(start))) start++;
+			while (end > start && Character.isWhitespace(value.charAt(end - 1))) end--;
+			this.pos = start;
+			this.end = end;
+		}
+
+		private long readLong(String type)
+		{
+			int start = pos;
+			long result = 0;
+			try
+			{
+				while (pos < end && isDigit(value.charAt(pos)))
+				{
+					result = Math.addExact(Math.multiplyExact(result, 10), value.charAt(pos++) - '0');
+				}
+			}
+			catch (ArithmeticException e)
+			{
+				throw invalid(type);
+			}
+			if (pos == start) throw invalid(type);
+			mantissa = result;
+			return result;
+		}
+
+		/**
+		 * Read the optional decimal part of the last number read, and append its digits to the mantissa
+		 *
+		 * @return the number of digits after the decimal point
+		 */
+		private int readFraction(String type)
+		{
+			if (pos == end || value.charAt(pos) != '.') return 0;
+			pos++;
+			int scale = 0;
+			try
+			{
+				while (pos < end && isDigit(value.charAt(pos)))
+				{
+					mantissa = Math.addExact(Math.multiplyExact(mantissa, 10), value.charAt(pos++) - '0');
+					scale++;
+				}
+			}
+			catch (ArithmeticException e)
+			{
+				throw invalid(type);
+			}
+			if (scale == 0) throw invalid(type);
+			return scale;
+		}
+
+		private double readDecimal(String type)
+		{
+			boolean negative = pos < end && value.charAt(pos) == '-';
+			if (negative || pos < end && value.charAt(pos) == '+') pos++;
+			readLong(type);
+			int scale = readFraction(type);
+			double result = mantissa;
+			for (int i = 0; i < scale; i++) result /= 10;
+			return negative ? -result : result;
+		}
+
+		private int readTwoDigits(String type)
+		{
+			if (pos + 2 > end || !isDigit(value.charAt(pos)) || !isDigit(value.charAt(pos + 1))) throw invalid(type);
+			int result = (value.charAt(pos) - '0') * 10 + value.charAt(pos + 1) - '0';
+			pos += 2;
+			return result;
+		}
+
+		private void skipWhitespaces()
+		{
+			while (pos < end && Character.isWhitespace(value.charAt(pos))) pos++;
+		}
+
+		private void skipLetters()
+		{
+			while (pos < end && Character.isLetter(value.charAt(pos))) pos++;
+		}
+
+		private void expect(char c, String type)
+		{
+			if (pos == end || value.charAt(pos) != c) throw invalid(type);
+			pos++;
+		}
+
+		private void expectEnd(String type)
+		{
+			if (pos != end) throw invalid(type);
+		}
+
+		/**
+		 * @return the index of the unit between <code>start</code> and the current position, ignoring the case, or -1 if unknown
+		 */
+		private int unit(int start, String[] units)
+		{
+			int length = pos - start;
+			for (int i = 0; i < units.length; i++)
+			{
+				String unit = units[i];
+				if (unit.length() != length) continue;
+
+				boolean matches = true;
+				for (int j = 0; j < length && matches; j++)
+				{
+					matches = Character.toLowerCase(value.charAt(start + j)) == Character.toLowerCase(unit.charAt(j));
+				}
+				if (matches) return i;
+			}
+			return -1;
+		}
+
+		private IllegalArgumentException invalid(String type)
+		{
+			return new IllegalArgumentException(String.format("Invalid %s : %s", type, value));
+		}
+	}
+}
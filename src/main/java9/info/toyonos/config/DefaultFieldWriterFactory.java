@@ -0,0 +1,144 @@
+package info.toyonos.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>The default <code>FieldWriterFactory</code>, Java 9 and later version : fields are written through cached <code>VarHandle</code>, with release semantics</p>
+ * <p>Neither <code>VarHandle</code> nor <code>MethodHandle</code> can write a static final field. For such a field, the <code>final</code> modifier
+ * is removed without <code>Unsafe</code> and the field is written by <code>Field.set</code>.
+ * Since Java 12, <code>Field.modifiers</code> is only reachable if <code>java.base/java.lang.reflect</code> is opened to this library
+ * (<code>--add-opens java.base/java.lang.reflect=ALL-UNNAMED</code>), and since Java 18, <code>Field.set</code> refuses static final fields whatever their modifiers :
+ * {@link #create(Field)} then throws an <code>IllegalAccessException</code> for a static final field, reported as a failure of its bind.
+ * Declare the <code>&#064;ConfigProperty</code> fields without <code>final</code> to bind them on every JVM</p>
+ *
+ * @author ToYonos
+ */
+public final class DefaultFieldWriterFactory implements FieldWriterFactory
+{
+	private static final DefaultFieldWriterFactory INSTANCE = new DefaultFieldWriterFactory();
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private DefaultFieldWriterFactory()
+	{
+	}
+
+	/**
+	 * @return the shared instance
+	 */
+	public static DefaultFieldWriterFactory getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	public FieldWriter create(Field field) throws ReflectiveOperationException
+	{
+		if (Modifier.isFinal(field.getModifiers()))
+		{
+			if (Runtime.version().major() >= 18)
+			{
+				throw new IllegalAccessException(
+					String.format("The static final field %s can't be written on Java %d, declare it without final", field.getName(), Runtime.version().major())
+				);
+			}
+			// Even for an accessible field : Field.set only writes a final field whose accessibility check is suppressed
+			field.setAccessible(true);
+			removeFinalModifier(field);
+			return value -> field.set(null, value);
+		}
+
+		VarHandle handle;
+		try
+		{
+			handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+		}
+		catch (IllegalAccessException e)
+		{
+			// The package of the field is not opened to this library, the field has to be public
+			return createSetter(field, MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE));
+		}
+
+		return value ->
+		{
+			try
+			{
+				// Release : the writes before this one are visible to a thread which sees this one
+				handle.setRelease(value);
+			}
+			catch (ClassCastException | NullPointerException e)
+			{
+				throw new IllegalArgumentException(String.format("Can not set the field %s with %s", field.getName(), value), e);
+			}
+		};
+	}
+
+	/**
+	 * Order the writes before this call before the writes after it : the plain store which follows is published like a release write
+	 */
+	static void releaseFence()
+	{
+		VarHandle.releaseFence();
+	}
+
+	private static FieldWriter createSetter(Field field, MethodHandle setter)
+	{
+		return value ->
+		{
+			try
+			{
+				VarHandle.releaseFence();
+				setter.invokeExact(value);
+			}
+			catch (ClassCastException | NullPointerException e)
+			{
+				throw new IllegalArgumentException(String.format("Can not set the field %s with %s", field.getName(), value), e);
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable e)
+			{
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
+	private static void removeFinalModifier(Field field) throws NoSuchFieldException, IllegalAccessException
+	{
+		int modifiers = field.getModifiers() & ~Modifier.FINAL;
+		try
+		{
+			// Up to Java 11
+			Field modifiersField = Field.class.getDeclaredField("modifiers");
+			modifiersField.setAccessible(true);
+			modifiersField.setInt(field, modifiers);
+		}
+		catch (NoSuchFieldException | InaccessibleObjectException e)
+		{
+			// Since Java 12, Field.modifiers is filtered from reflection but not from method handles lookups
+			try
+			{
+				MethodHandles.privateLookupIn(Field.class, MethodHandles.lookup()).findVarHandle(Field.class, "modifiers", int.class).set(field, modifiers);
+			}
+			catch (IllegalAccessException iae)
+			{
+				IllegalAccessException exception = new IllegalAccessException(
+					String.format(
+						"The static final field %s can't be written, open java.base/java.lang.reflect to this library or declare the field without final",
+						field.getName()
+					)
+				);
+				exception.initCause(iae);
+				throw exception;
+			}
+		}
+	}
+}
@@ -1,10 +1,37 @@
 package info.toyonos.config;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -13,6 +40,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+import info.toyonos.config.converter.ConverterRegistry;
 
 @TestMethodOrder(OrderAnnotation.class)
 public class ConfigPropertyBinderTest
@@ -48,6 +76,7 @@ public class ConfigPropertyBinderTest
 	@Order(2)
 	public void extractPropertiesTest(Class<?> target) throws Exception
 	{		
+		if (Modifier.isFinal(target.getField("A_B_S1").getModifiers())) assumeStaticFinalWritable();
 		Map<String, String> config = new HashMap<>();
 		config.put("prefix.a.b.s1", "test1");
 		config.put("prefix.a.b.s2", "test2");
@@ -143,8 +172,508 @@ public class ConfigPropertyBinderTest
 		);
 	}
 	
+	@Test
+	public void rebindTest() throws Exception
+	{
+		assumeStaticFinalWritable();
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "first");
+		config.put("prefix.a.b.a1", "1;2");
+		config.put("prefix.a.b.f1", "final");
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectRebind.class).bind();
+		
+		Assertions.assertEquals("first", getFieldValue(TestObjectRebind.class, "A_B_S1"));
+		Assertions.assertArrayEquals(new Integer[]{1, 2}, (Integer[]) getFieldValue(TestObjectRebind.class, "A_B_A1"));
+		Assertions.assertEquals("final", getFieldValue(TestObjectRebind.class, "A_B_F1"));
+		
+		config.put("prefix.a.b.s1", "second");
+		config.put("prefix.a.b.a1", "3;4;5");
+		config.put("prefix.a.b.f1", "changed");
+		// A final field which has a value is never overwritten, by a bind or a rebind
+		Assertions.assertThrows(IllegalStateException.class, () -> ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectRebind.class).bind());
+		ConfigPropertyBindReport report = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectRebind.class).rebind(config.keySet());
+		
+		Assertions.assertEquals("second", getFieldValue(TestObjectRebind.class, "A_B_S1"));
+		Assertions.assertArrayEquals(new Integer[]{3, 4, 5}, (Integer[]) getFieldValue(TestObjectRebind.class, "A_B_A1"));
+		Assertions.assertEquals("final", getFieldValue(TestObjectRebind.class, "A_B_F1"));
+		Assertions.assertEquals(Collections.singleton("A_B_F1"), report.getFailures().keySet());
+	}
+
+	@Test
+	public void rebindMissingKeyTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "x");
+		config.put("prefix.a.b.s2", "y");
+		ConfigPropertyBinder binder = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectRebindMissing.class);
+		binder.bind();
+
+		// A required key removed from the configuration : its field keeps its value, the other changed keys are still bound
+		config.remove("prefix.a.b.s1");
+		config.put("prefix.a.b.s2", "z");
+		ConfigPropertyBindReport report = binder.rebind(new HashSet<>(Arrays.asList("prefix.a.b.s1", "prefix.a.b.s2")));
+
+		Assertions.assertEquals("x", TestObjectRebindMissing.A_B_S1);
+		Assertions.assertEquals("z", TestObjectRebindMissing.A_B_S2);
+		Assertions.assertEquals(2, report.getFields().size());
+		Assertions.assertEquals(Collections.singleton("A_B_S1"), report.getFailures().keySet());
+		Assertions.assertTrue(report.getFailures().get("A_B_S1") instanceof MissingConfigPropertyException);
+
+		// A bind still throws, once all the fields are bound
+		config.put("prefix.a.b.s2", "w");
+		Assertions.assertThrows(MissingConfigPropertyException.class, binder::bind);
+		Assertions.assertEquals("x", TestObjectRebindMissing.A_B_S1);
+		Assertions.assertEquals("w", TestObjectRebindMissing.A_B_S2);
+	}
+	
+	@Test
+	public void flagsTest() throws Throwable
+	{
+		MethodHandle invoker = TestObjectFlags.A_B_F1.getInvoker();
+		Assertions.assertFalse((boolean) invoker.invokeExact());
+
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.f1", "true");
+		config.put("prefix.a.b.c1", "42");
+		config.put("prefix.a.b.c3", "5s");
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectFlags.class).bind();
+
+		Assertions.assertTrue(TestObjectFlags.A_B_F1.isEnabled());
+		Assertions.assertTrue((boolean) invoker.invokeExact());
+		Assertions.assertEquals(42, TestObjectFlags.A_B_C1.get());
+		Assertions.assertArrayEquals(new String[]{"a", "b"}, TestObjectFlags.A_B_C2.get());
+		Assertions.assertEquals(Duration.ofSeconds(5), TestObjectFlags.A_B_C3.get());
+
+		config.remove("prefix.a.b.f1");
+		config.put("prefix.a.b.c1", "43");
+		config.remove("prefix.a.b.c3");
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectFlags.class).bind();
+
+		Assertions.assertFalse(TestObjectFlags.A_B_F1.isEnabled());
+		Assertions.assertFalse((boolean) invoker.invokeExact());
+		Assertions.assertEquals(43, TestObjectFlags.A_B_C1.get());
+		Assertions.assertNull(TestObjectFlags.A_B_C3.get());
+	}
+
+	@Test
+	public void reportTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		config.put("prefix.a.b.a1", "1;x");
+		ConfigPropertyBindReport report = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectReport.class).bind();
+		
+		Assertions.assertEquals(TestObjectReport.class, report.getTarget());
+		Assertions.assertFalse(report.isSuccess());
+		Assertions.assertEquals(Arrays.asList("A_B_A1"), new ArrayList<>(report.getFailures().keySet()));
+		Map<String, ConfigPropertyBindReport.ValueSource> sources = new HashMap<>();
+		for (ConfigPropertyBindReport.FieldReport field : report.getFields())
+		{
+			sources.put(field.getFieldName(), field.getSource());
+			Assertions.assertTrue(field.getLookupNanos() >= 0);
+		}
+		Assertions.assertEquals(ConfigPropertyBindReport.ValueSource.ADAPTER, sources.get("A_B_S1"));
+		Assertions.assertEquals(ConfigPropertyBindReport.ValueSource.DEFAULT, sources.get("A_B_I1"));
+		Assertions.assertEquals(ConfigPropertyBindReport.ValueSource.NONE, sources.get("A_B_S2"));
+		Assertions.assertEquals(ConfigPropertyBindReport.ValueSource.ADAPTER, sources.get("A_B_A1"));
+		Assertions.assertEquals(42, TestObjectReport.A_B_I1);
+		
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("info.toyonos.config:type=ConfigPropertyBinder,name=" + TestObjectReport.class.getName());
+		Assertions.assertEquals(1L, server.getAttribute(name, "BindCount"));
+		Assertions.assertEquals(4L, server.getAttribute(name, "FieldCount"));
+		Assertions.assertEquals(1L, server.getAttribute(name, "FailureCount"));
+		Assertions.assertEquals(1L, server.getAttribute(name, "DefaultValueCount"));
+		Assertions.assertEquals(SimpleConfigPropertyAdapter.class.getName(), server.getAttribute(name, "AdapterClassName"));
+		Assertions.assertNotNull(server.getAttribute(name, "LookupHistogram"));
+	}
+
+	@Test
+	public void reportThrownFailuresTest()
+	{
+		// The failures which stop a bind are reported and counted first
+		ConfigPropertyBindMetrics missingMetrics = ConfigPropertyBindMetrics.of(TestObjectFail1.class);
+		long failureCount = missingMetrics.getFailureCount();
+		Assertions.assertThrows(
+			MissingConfigPropertyException.class,
+			() -> ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(new HashMap<String, String>()), TestObjectFail1.class).bind()
+		);
+		Assertions.assertTrue(missingMetrics.getFailureCount() > failureCount);
+		Assertions.assertFalse(missingMetrics.getLastReport().contains("0 failures"));
+
+		ConfigPropertyBindMetrics finalMetrics = ConfigPropertyBindMetrics.of(TestObjectFail4.class);
+		failureCount = finalMetrics.getFailureCount();
+		Assertions.assertThrows(
+			IllegalStateException.class,
+			() -> ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(Collections.singletonMap("prefix.a.b.s10", "changed")), TestObjectFail4.class).bind()
+		);
+		Assertions.assertEquals(failureCount + 1, finalMetrics.getFailureCount());
+		Assertions.assertTrue(finalMetrics.getLastReport().contains("[A_B_S10]"));
+	}
+
+	@Test
+	public void metricsTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectMetrics.class).bind();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("info.toyonos.config:type=ConfigPropertyBinder,name=" + TestObjectMetrics.class.getName());
+		Assertions.assertEquals(1L, server.getAttribute(name, "BindCount"));
+
+		// The same class, from another loader
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { TestObjectMetrics.class.getProtectionDomain().getCodeSource().getLocation() }, null))
+		{
+			Class<?> other = loader.loadClass(TestObjectMetrics.class.getName());
+			Assertions.assertNotSame(TestObjectMetrics.class, other);
+			ObjectName otherName = ConfigPropertyBindMetrics.of(other).getObjectName();
+			Assertions.assertEquals(String.format("%x", System.identityHashCode(loader)), otherName.getKeyProperty("loader"));
+			Assertions.assertEquals(0L, server.getAttribute(otherName, "BindCount"));
+			Assertions.assertEquals(1L, server.getAttribute(name, "BindCount"));
+
+			ConfigPropertyBinder.unregisterMetrics(other);
+			Assertions.assertFalse(server.isRegistered(otherName));
+			Assertions.assertTrue(server.isRegistered(name));
+		}
+
+		ConfigPropertyBinder.unregisterMetrics(TestObjectMetrics.class);
+		Assertions.assertFalse(server.isRegistered(name));
+		ConfigPropertyBinder.unregisterMetrics(TestObjectMetrics.class);
+
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectMetrics.class).rebind(Collections.singleton("prefix.a.b.s1"));
+		Assertions.assertEquals(1L, server.getAttribute(name, "BindCount"));
+	}
+	
+	@Test
+	public void fieldWriterFactoryTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		config.put("prefix.a.b.i1", "42");
+		
+		List<String> writtenFields = new ArrayList<>();
+		FieldWriterFactory fieldWriterFactory = field ->
+		{
+			FieldWriter writer = DefaultFieldWriterFactory.getInstance().create(field);
+			return value ->
+			{
+				writtenFields.add(field.getName());
+				writer.set(value);
+			};
+		};
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectWriter.class).withFieldWriterFactory(fieldWriterFactory).bind();
+		
+		Assertions.assertEquals(Arrays.asList("A_B_S1", "A_B_I1"), writtenFields);
+		Assertions.assertEquals("test1", getFieldValue(TestObjectWriter.class, "A_B_S1"));
+		Assertions.assertEquals(42, getFieldValue(TestObjectWriter.class, "A_B_I1"));
+	}
+	
+	@Test
+	public void generatedBinderTest() throws Exception
+	{
+		assumeStaticFinalWritable();
+		Class<?> generatedBinderClass = Class.forName(TestObjectGenerated.class.getName() + GeneratedConfigBinder.SUFFIX);
+		GeneratedConfigBinder generatedBinder = (GeneratedConfigBinder) generatedBinderClass.getDeclaredConstructor().newInstance();
+		Assertions.assertEquals(5, generatedBinder.getKeys().size());
+		Assertions.assertEquals(ConfigPropertyKey.of("prefix", "a.b.l1"), generatedBinder.getKeys().get(2));
+		
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		config.put("prefix.a.b.s2", "test2");
+		config.put("prefix.a.b.s3", "test3");
+		ConfigPropertyBindReport report = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectGenerated.class).bind();
+		
+		Assertions.assertTrue(report.isSuccess());
+		Assertions.assertEquals(5, report.getFields().size());
+		Assertions.assertEquals("test1", TestObjectGenerated.A_B_S1);
+		Assertions.assertEquals(42, TestObjectGenerated.A_B_I1);
+		Assertions.assertArrayEquals(new String[]{"a\"b", "c\\d"}, TestObjectGenerated.A_B_L1);
+		// Private and final fields are bound with reflection
+		Field privateField = TestObjectGenerated.class.getDeclaredField("A_B_S2");
+		privateField.setAccessible(true);
+		Assertions.assertEquals("test2", privateField.get(null));
+		Assertions.assertEquals("test3", getFieldValue(TestObjectGenerated.class, "A_B_S3"));
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void generatedBinderPrivateTypeTest() throws Exception
+	{
+		// The generated binder compiles although the type of the fields is private to the target
+		Class<?> generatedBinderClass = Class.forName(TestObjectPrivateType.class.getName() + GeneratedConfigBinder.SUFFIX);
+		GeneratedConfigBinder generatedBinder = (GeneratedConfigBinder) generatedBinderClass.getDeclaredConstructor().newInstance();
+		Assertions.assertEquals(Arrays.asList(ConfigPropertyKey.of("prefix", "a.b.m1"), ConfigPropertyKey.of("prefix", "a.b.m2"), ConfigPropertyKey.of("prefix", "a.b.s1")), generatedBinder.getKeys());
+
+		Class modeType = Class.forName(TestObjectPrivateType.class.getName() + "$Mode");
+		ConverterRegistry converters = ConverterRegistry.defaults().with(modeType, value -> Enum.valueOf(modeType, value));
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.m1", "B");
+		config.put("prefix.a.b.m2", "A;B");
+		config.put("prefix.a.b.s1", "test1");
+		ConfigPropertyBindReport report = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectPrivateType.class).withConverters(converters).bind();
+
+		Assertions.assertTrue(report.isSuccess());
+		Assertions.assertEquals(Enum.valueOf(modeType, "B"), getDeclaredFieldValue(TestObjectPrivateType.class, "A_B_M1"));
+		Object[] modes = (Object[]) getDeclaredFieldValue(TestObjectPrivateType.class, "A_B_M2");
+		Assertions.assertEquals(Arrays.asList(Enum.valueOf(modeType, "A"), Enum.valueOf(modeType, "B")), Arrays.asList(modes));
+		Assertions.assertEquals("test1", TestObjectPrivateType.A_B_S1);
+	}
+	
+	@Test
+	public void indexTest()
+	{
+		Set<String> classNames = ConfigPropertiesIndex.getClassNames(getClass().getClassLoader());
+		
+		Assertions.assertTrue(classNames.contains(TestObject.class.getName()));
+		Assertions.assertTrue(classNames.contains(TestObjectBindAll2.class.getName()));
+		Assertions.assertFalse(classNames.contains(TestObjectFail3.class.getName()));
+	}
+	
+	@Test
+	public void bindAllTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		
+		ConfigPropertyBindAllReport report = ConfigPropertyBinder.bindAll(
+			Arrays.asList(TestObjectBindAll1.class, TestObjectBindAll2.class, TestObjectBindAll3.class, TestObjectFail1.class),
+			new SimpleConfigPropertyAdapter(config),
+			new ForkJoinPool(4)
+		);
+		
+		Assertions.assertFalse(report.isSuccess());
+		Assertions.assertEquals(
+			new HashSet<>(Arrays.asList(TestObjectBindAll1.class, TestObjectBindAll2.class, TestObjectBindAll3.class)),
+			new HashSet<>(report.getBoundClasses())
+		);
+		Assertions.assertTrue(report.getFailures().get(TestObjectFail1.class) instanceof MissingConfigPropertyException);
+		Assertions.assertEquals(1, TestCountingAdapter.INSTANCES.get());
+		Assertions.assertEquals("test1", getFieldValue(TestObjectBindAll1.class, "A_B_S1"));
+		Assertions.assertEquals("TestObjectBindAll2", getFieldValue(TestObjectBindAll2.class, "A_B_S1"));
+		Assertions.assertEquals("TestObjectBindAll3", getFieldValue(TestObjectBindAll3.class, "A_B_S1"));
+	}
+	
+	@Test
+	public void convertersTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.a1", "1;2;3");
+		config.put("prefix.a.b.a2", "1.5;2.5");
+		config.put("prefix.a.b.a3", "true;no;1");
+		config.put("prefix.a.b.a4", " 7 ; 8 ");
+		config.put("prefix.a.b.n1", "12.34");
+		config.put("prefix.a.b.u1", "http://toyonos.info/config");
+		
+		ConverterRegistry converters = ConverterRegistry.defaults().with(URI.class, URI::create);
+		ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectConverters.class).withConverters(converters).bind();
+		
+		Assertions.assertArrayEquals(new int[]{1, 2, 3}, TestObjectConverters.A_B_A1);
+		Assertions.assertArrayEquals(new double[]{1.5, 2.5}, TestObjectConverters.A_B_A2);
+		Assertions.assertArrayEquals(new boolean[]{true, false, true}, TestObjectConverters.A_B_A3);
+		Assertions.assertArrayEquals(new Long[]{7L, 8L}, TestObjectConverters.A_B_A4);
+		Assertions.assertEquals(new BigDecimal("12.34"), TestObjectConverters.A_B_N1);
+		Assertions.assertEquals(URI.create("http://toyonos.info/config"), TestObjectConverters.A_B_U1);
+		
+		// The custom converter is not registered globally
+		Assertions.assertNotSame(converters, ConverterRegistry.defaults());
+		Assertions.assertArrayEquals(new int[]{-1, -1}, (int[]) ConverterRegistry.defaults().with(int.class, value -> -1).getListConverter(int[].class).convert(Arrays.asList("1", "2")));
+		Assertions.assertArrayEquals(new int[]{1, 2}, (int[]) ConverterRegistry.defaults().getListConverter(int[].class).convert(Arrays.asList("1", "2")));
+	}
+	
+	@Test
+	public void compactSetsTest() throws Exception
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.l1", "99871;17;1042;17");
+		config.put("prefix.a.b.b1", "3;64;3");
+		config.put("prefix.a.b.f1", " alpha ; beta ");
+		config.put("prefix.a.b.l2", "1;x");
+		ConfigPropertyBindReport report = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectCompactSets.class).bind();
+
+		Assertions.assertArrayEquals(new long[]{17, 1042, 99871}, TestObjectCompactSets.A_B_L1.toArray());
+		Assertions.assertArrayEquals(new int[]{1, 2, 3}, TestObjectCompactSets.A_B_I1.toArray());
+		Assertions.assertEquals(BitSet.valueOf(new long[]{1L << 3, 1L}), TestObjectCompactSets.A_B_B1);
+		Assertions.assertTrue(TestObjectCompactSets.A_B_F1.mightContain("alpha"));
+		Assertions.assertTrue(TestObjectCompactSets.A_B_F1.mightContain("beta"));
+		Assertions.assertNull(TestObjectCompactSets.A_B_L2);
+		Assertions.assertEquals(1, report.getFailures().size());
+	}
+
+	@Test
+	public void concurrentBindTest() throws Exception
+	{
+		int writers = 4;
+		int binds = 100;
+		AtomicInteger owner = new AtomicInteger(-1);
+		AtomicInteger interleavings = new AtomicInteger();
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < writers; i++)
+		{
+			int id = i;
+			Map<String, String> config = new HashMap<>();
+			config.put("prefix.a.b.s1", "t" + id);
+			config.put("prefix.a.b.s2", "t" + id);
+			// Each bind looks up its two keys : a lookup of another writer in between means that two binds have interleaved
+			ConfigPropertyAdapter adapter = new SimpleConfigPropertyAdapter(config)
+			{
+				private int lookups;
+
+				@Override
+				public String getProperty(Class<?> source, String prefix, String property)
+				{
+					if (lookups++ % 2 == 0) owner.set(id);
+					else if (owner.get() != id) interleavings.incrementAndGet();
+					Thread.yield();
+					return super.getProperty(source, prefix, property);
+				}
+			};
+			threads.add(new Thread(() ->
+			{
+				try
+				{
+					start.await();
+					for (int j = 0; j < binds; j++)
+					{
+						ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, TestObjectConcurrent.class);
+						ConfigPropertyBindReport report = j % 2 == 0 ? binder.bind() : binder.rebind(config.keySet());
+						failures.addAll(report.getFailures().values());
+					}
+				}
+				catch (Throwable e)
+				{
+					failures.add(e);
+				}
+			}));
+		}
+		for (int i = 0; i < 2; i++)
+		{
+			threads.add(new Thread(() ->
+			{
+				while (running.get())
+				{
+					String value = TestObjectConcurrent.A_B_S1;
+					if (value != null && !value.startsWith("t")) failures.add(new AssertionError(value));
+					Thread.yield();
+				}
+			}));
+		}
+
+		for (Thread thread : threads) thread.start();
+		start.countDown();
+		for (Thread thread : threads.subList(0, writers)) thread.join();
+		running.set(false);
+		for (Thread thread : threads) thread.join();
+
+		Assertions.assertEquals(Collections.emptyList(), failures);
+		Assertions.assertEquals(0, interleavings.get());
+		Assertions.assertEquals(TestObjectConcurrent.A_B_S1, TestObjectConcurrent.A_B_S2);
+	}
+
+	@Test
+	public void publicationTest() throws Throwable
+	{
+		// Java 8 has no release fence
+		Assumptions.assumeTrue(Boolean.getBoolean("info.toyonos.config.testJava9"));
+		Assertions.assertNotNull(Class.forName(TestObjectConcurrent.class.getName() + GeneratedConfigBinder.SUFFIX));
+
+		TestObjectConcurrent.A_B_S1 = null;
+		TestObjectConcurrent.A_B_S2 = null;
+		MethodHandle acquireS2 = getAcquire(TestObjectConcurrent.class, "A_B_S2", String.class);
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<String> failures = new CopyOnWriteArrayList<>();
+		// A_B_S1 is written before A_B_S2, which is released : once A_B_S2 is read with acquire semantics, A_B_S1 is at least as recent.
+		// A x86 CPU never reorders these loads and stores anyway, the test can only fail on a weakly ordered one (ARM, POWER)
+		Thread reader = new Thread(() ->
+		{
+			try
+			{
+				while (running.get())
+				{
+					String s2 = (String) acquireS2.invokeExact();
+					String s1 = TestObjectConcurrent.A_B_S1;
+					if (s2 != null && (s1 == null || Integer.parseInt(s1) < Integer.parseInt(s2))) failures.add(s1 + " < " + s2);
+				}
+			}
+			catch (Throwable e)
+			{
+				failures.add(e.toString());
+			}
+		});
+		reader.start();
+		try
+		{
+			Map<String, String> config = new HashMap<>();
+			// A rebind writes the fields in the order of its keys
+			Set<String> keys = new LinkedHashSet<>(Arrays.asList("prefix.a.b.s1", "prefix.a.b.s2"));
+			for (int i = 0; i < 2000; i++)
+			{
+				config.put("prefix.a.b.s1", String.valueOf(i));
+				config.put("prefix.a.b.s2", String.valueOf(i));
+				// The generated binder, then the VarHandle writers
+				ConfigPropertyBinder binder = ConfigPropertyBinder.create(new SimpleConfigPropertyAdapter(config), TestObjectConcurrent.class);
+				Assertions.assertTrue((i % 2 == 0 ? binder.bind() : binder.rebind(keys)).getFailures().isEmpty());
+			}
+		}
+		finally
+		{
+			running.set(false);
+			reader.join();
+		}
+		Assertions.assertEquals(Collections.emptyList(), failures);
+		Assertions.assertEquals("1999", TestObjectConcurrent.A_B_S2);
+	}
+
+	/**
+	 * @return a <code>()type</code> handle reading a static field with <code>VarHandle.getAcquire</code>, looked up reflectively since the tests are compiled for Java 8
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static MethodHandle getAcquire(Class<?> target, String field, Class<?> type) throws ReflectiveOperationException
+	{
+		Object varHandle = MethodHandles.Lookup.class.getMethod("findStaticVarHandle", Class.class, String.class, Class.class)
+			.invoke(MethodHandles.lookup(), target, field, type);
+		Class accessMode = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+		MethodHandle invoker = (MethodHandle) MethodHandles.class.getMethod("varHandleInvoker", accessMode, MethodType.class)
+			.invoke(null, Enum.valueOf(accessMode, "GET_ACQUIRE"), MethodType.methodType(type));
+		return invoker.bindTo(varHandle);
+	}
+
+	@Test
+	public void listElementsTest()
+	{
+		for (String value : Arrays.asList("", "a", "a;b", ";a;;b;;", ";;", "a;;b"))
+		{
+			List<String> elements = new ArrayList<>();
+			ListElementConsumer.forEachSeparated(value, ';', (sequence, start, end) -> elements.add(sequence.subSequence(start, end).toString()));
+			Assertions.assertEquals(Arrays.asList(value.split(";")), elements, value);
+		}
+	}
+
+	/**
+	 * The static final fields are written by clearing their final modifier : the Java 8 classes can't from Java 12,
+	 * and from Java 18 <code>Field.set</code> refuses static final fields whatever their modifiers
+	 */
+	private static void assumeStaticFinalWritable()
+	{
+		String version = System.getProperty("java.specification.version");
+		int feature = version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+		int limit = Boolean.getBoolean("info.toyonos.config.testJava9") ? 18 : 12;
+		Assumptions.assumeTrue(feature < limit, String.format("Static final fields can't be written on Java %d", feature));
+	}
+
 	private Object getFieldValue(Class<?> target, String field) throws Exception
 	{
 		return target.getField(field).get(null);
 	}
+
+	private Object getDeclaredFieldValue(Class<?> target, String field) throws Exception
+	{
+		Field declaredField = target.getDeclaredField(field);
+		declaredField.setAccessible(true);
+		return declaredField.get(null);
+	}
 }
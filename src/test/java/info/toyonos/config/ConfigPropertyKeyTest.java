@@ -0,0 +1,37 @@
+package info.toyonos.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConfigPropertyKeyTest
+{
+	@Test
+	public void hashTest()
+	{
+		Assertions.assertEquals("prefix.a.b.s1".hashCode(), ConfigPropertyKey.hash("prefix", "a.b.s1"));
+		Assertions.assertEquals("null.a.b.s1".hashCode(), ConfigPropertyKey.hash(null, "a.b.s1"));
+		Assertions.assertEquals("\u00e9.".hashCode(), ConfigPropertyKey.hash("\u00e9", ""));
+	}
+
+	@Test
+	public void matchesTest()
+	{
+		Assertions.assertTrue(ConfigPropertyKey.matches("prefix.a.b.s1", "prefix", "a.b.s1"));
+		Assertions.assertTrue(ConfigPropertyKey.matches("prefix.a.b.s1", "prefix.a", "b.s1"));
+		Assertions.assertTrue(ConfigPropertyKey.matches("null.a.b.s1", null, "a.b.s1"));
+		Assertions.assertFalse(ConfigPropertyKey.matches("prefix.a.b.s1", "prefix", "a.b.s2"));
+		Assertions.assertFalse(ConfigPropertyKey.matches("prefix_a.b.s1", "prefix", "a.b.s1"));
+		Assertions.assertFalse(ConfigPropertyKey.matches("prefix.a.b.s1.more", "prefix", "a.b.s1"));
+
+		// In place, from a buffer holding other bytes around the key
+		ByteBuffer buffer = ByteBuffer.wrap("#prefix.\u00e9.s1=value".getBytes(StandardCharsets.ISO_8859_1));
+		Assertions.assertTrue(ConfigPropertyKey.matches(buffer, 1, 11, "prefix", "\u00e9.s1"));
+		Assertions.assertFalse(ConfigPropertyKey.matches(buffer, 1, 11, "prefix", "e.s1"));
+		Assertions.assertFalse(ConfigPropertyKey.matches(buffer, 1, 12, "prefix", "\u00e9.s1"));
+		// Only the full key matters, not where the prefix ends
+		Assertions.assertTrue(ConfigPropertyKey.matches(buffer, 1, 11, "prefix.\u00e9", "s1"));
+	}
+}
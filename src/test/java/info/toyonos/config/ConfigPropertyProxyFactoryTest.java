@@ -0,0 +1,215 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+
+public class ConfigPropertyProxyFactoryTest
+{
+	@Test
+	public void proxyTest()
+	{
+		Map<String, String> tenant1 = new HashMap<>();
+		tenant1.put("myapp.db.username", "user1");
+		tenant1.put("myapp.db.enabled", "true");
+		tenant1.put("myapp.db.hosts", "h1;h2");
+		Map<String, String> tenant2 = new HashMap<>();
+		tenant2.put("myapp.db.username", "user2");
+		tenant2.put("myapp.db.connection.timeout", "30");
+		tenant2.put("myapp.db.max.idle", "1h");
+		tenant2.put("myapp.db.description", "second");
+		tenant2.put("myapp.other.name", "other");
+
+		AtomicInteger lookups = new AtomicInteger();
+		ConfigPropertyProxyFactory<TestConfigInterface> factory = ConfigPropertyProxyFactory.of(TestConfigInterface.class);
+		TestConfigInterface config1 = factory.create(new SimpleConfigPropertyAdapter(tenant1)
+		{
+			@Override
+			public String getProperty(Class<?> source, String prefix, String property)
+			{
+				lookups.incrementAndGet();
+				return super.getProperty(source, prefix, property);
+			}
+		});
+		TestConfigInterface config2 = factory.create(new SimpleConfigPropertyAdapter(tenant2));
+
+		Assertions.assertSame(factory, ConfigPropertyProxyFactory.of(TestConfigInterface.class));
+		Assertions.assertSame(config1.getClass(), config2.getClass());
+
+		// Nothing is resolved until asked, then only once
+		Assertions.assertEquals(0, lookups.get());
+		Assertions.assertEquals("user1", config1.getUsername());
+		Assertions.assertEquals("user1", config1.getUsername());
+		Assertions.assertEquals(1, lookups.get());
+
+		Assertions.assertEquals(180, config1.getConnectionTimeout());
+		Assertions.assertEquals(Duration.ofMinutes(1), config1.getMaxIdle());
+		Assertions.assertTrue(config1.isEnabled());
+		Assertions.assertArrayEquals(new String[] { "h1", "h2" }, config1.getHosts());
+		Assertions.assertNull(config1.getDescription());
+		Assertions.assertNull(config1.getDescription());
+		Assertions.assertThrows(MissingConfigPropertyException.class, config1::getName);
+
+		Assertions.assertEquals("user2", config2.getUsername());
+		Assertions.assertEquals(30, config2.getConnectionTimeout());
+		Assertions.assertEquals(Duration.ofHours(1), config2.getMaxIdle());
+		Assertions.assertEquals("second", config2.getDescription());
+		Assertions.assertEquals("other", config2.getName());
+		// A missing primitive can't be null
+		Assertions.assertThrows(MissingConfigPropertyException.class, config2::isEnabled);
+
+		Assertions.assertEquals(config1, config1);
+		Assertions.assertNotEquals(config1, config2);
+		Assertions.assertTrue(config1.toString().startsWith(TestConfigInterface.class.getName()));
+	}
+
+	@Test
+	public void tenantsTest()
+	{
+		Map<String, String> base = new HashMap<>();
+		base.put("myapp.db.username", "default");
+		base.put("myapp.db.enabled", "true");
+		base.put("myapp.db.hosts", "h1;h2");
+		base.put("myapp.other.name", "base");
+		AtomicInteger lookups = new AtomicInteger();
+		ConfigPropertyTenants<TestConfigInterface> tenants = new ConfigPropertyTenants<>(TestConfigInterface.class, new SimpleConfigPropertyAdapter(base)
+		{
+			@Override
+			public String getProperty(Class<?> source, String prefix, String property)
+			{
+				lookups.incrementAndGet();
+				return super.getProperty(source, prefix, property);
+			}
+		});
+
+		Map<String, String> overrides1 = new HashMap<>();
+		overrides1.put("myapp.db.username", "user1");
+		overrides1.put("myapp.db.hosts", "h3;h4");
+		Map<String, String> overrides2 = new HashMap<>();
+		overrides2.put("myapp.db.hosts", "h3;h4");
+		overrides2.put("myapp.db.connection.timeout", "30");
+		overrides2.put("myapp.db.unknown", "ignored");
+		TestConfigInterface config1 = tenants.create(new SimpleConfigPropertyAdapter(overrides1));
+		TestConfigInterface config2 = tenants.create(new SimpleConfigPropertyAdapter(overrides2));
+		TestConfigInterface config3 = tenants.create(new SimpleConfigPropertyAdapter(new HashMap<>()));
+
+		Assertions.assertEquals("user1", config1.getUsername());
+		Assertions.assertEquals("default", config2.getUsername());
+		Assertions.assertEquals(180, config1.getConnectionTimeout());
+		Assertions.assertEquals(30, config2.getConnectionTimeout());
+		Assertions.assertArrayEquals(new String[] { "h1", "h2" }, config3.getHosts());
+		Assertions.assertNull(config3.getDescription());
+		Assertions.assertThrows(ConfigPropertyException.class, () -> tenants.create(new SimpleConfigPropertyAdapter(Collections.singletonMap("myapp.db.connection.timeout", "abc"))));
+
+		// The base is resolved once for all the tenants, the equal overrides are stored once
+		Assertions.assertEquals("base", config1.getName());
+		Assertions.assertEquals("base", config2.getName());
+		Assertions.assertArrayEquals(config1.getHosts(), config2.getHosts());
+		// The interned array is shared : each call gets its own copy
+		config1.getHosts()[0] = "modified";
+		Assertions.assertArrayEquals(new String[] { "h3", "h4" }, config2.getHosts());
+		Assertions.assertArrayEquals(new String[] { "h3", "h4" }, config1.getHosts());
+		Assertions.assertSame(config2.getUsername(), config3.getUsername());
+		Assertions.assertTrue(config1.isEnabled() && config2.isEnabled() && config3.isEnabled());
+		Assertions.assertEquals(6, lookups.get());
+		Assertions.assertNotEquals(config1, config2);
+	}
+
+	@Test
+	public void tenantsBaseChangeTest()
+	{
+		Map<String, String> base = new HashMap<>();
+		base.put("myapp.db.username", "old");
+		ChangingAdapter adapter = new ChangingAdapter(base);
+		ConfigPropertyTenants<TestConfigInterface> tenants = new ConfigPropertyTenants<>(TestConfigInterface.class, adapter);
+		TestConfigInterface config = tenants.create(new SimpleConfigPropertyAdapter(new HashMap<>()));
+
+		// The base changes while its old value is being resolved : the old value is served once, not cached
+		adapter.changeDuringLookup = true;
+		Assertions.assertEquals("old", config.getUsername());
+		Assertions.assertEquals("new", config.getUsername());
+		Assertions.assertEquals("new", config.getUsername());
+		Assertions.assertEquals(2, adapter.lookups);
+	}
+
+	/**
+	 * A base configuration which changes during a lookup, once
+	 */
+	private static class ChangingAdapter extends SimpleConfigPropertyAdapter implements ObservableConfigPropertyAdapter
+	{
+		private final Map<String, String> values;
+		private final List<ConfigPropertyChangeListener> listeners = new ArrayList<>();
+		private boolean changeDuringLookup;
+		private int lookups;
+
+		private ChangingAdapter(Map<String, String> values)
+		{
+			super(values);
+			this.values = values;
+		}
+
+		@Override
+		public String getProperty(Class<?> source, String prefix, String property)
+		{
+			lookups++;
+			String value = super.getProperty(source, prefix, property);
+			if (changeDuringLookup)
+			{
+				changeDuringLookup = false;
+				values.put("myapp.db.username", "new");
+				for (ConfigPropertyChangeListener listener : listeners) listener.onChange(Collections.singleton("myapp.db.username"));
+			}
+			return value;
+		}
+
+		@Override
+		public void addChangeListener(ConfigPropertyChangeListener listener)
+		{
+			listeners.add(listener);
+		}
+
+		@Override
+		public void removeChangeListener(ConfigPropertyChangeListener listener)
+		{
+			listeners.remove(listener);
+		}
+	}
+
+	@Test
+	public void keysTest()
+	{
+		List<ConfigPropertyKey> keys = ConfigPropertyProxyFactory.of(TestConfigInterface.class).getKeys();
+		Assertions.assertTrue(keys.contains(ConfigPropertyKey.of("myapp.db", "connection.timeout")));
+		Assertions.assertTrue(keys.contains(ConfigPropertyKey.of("myapp.other", "name")));
+		Assertions.assertEquals(7, keys.size());
+
+		Assertions.assertEquals(
+			Arrays.asList("connection.timeout", "enabled", "a.b.s1", "url2.host", "is", "getter"),
+			Arrays.asList(
+				ConfigPropertyProxyFactory.toProperty("getConnectionTimeout"),
+				ConfigPropertyProxyFactory.toProperty("isEnabled"),
+				ConfigPropertyProxyFactory.toProperty("getA_B_S1"),
+				ConfigPropertyProxyFactory.toProperty("url2Host"),
+				ConfigPropertyProxyFactory.toProperty("is"),
+				ConfigPropertyProxyFactory.toProperty("getter")
+			)
+		);
+	}
+
+	@Test
+	public void invalidTypeTest()
+	{
+		Assertions.assertThrows(ConfigPropertyException.class, () -> ConfigPropertyProxyFactory.of(TestObject.class));
+		Assertions.assertThrows(ConfigPropertyException.class, () -> ConfigPropertyProxyFactory.of(Runnable.class));
+	}
+}
@@ -0,0 +1,102 @@
+package info.toyonos.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import info.toyonos.config.adapter.SimpleConfigPropertyAdapter;
+import info.toyonos.config.converter.ConverterRegistry;
+
+public class ConfigPropertySnapshotPublisherTest
+{
+	@Test
+	public void snapshotTest()
+	{
+		Map<String, String> config = config("user1");
+		ConfigPropertySnapshotPublisher publisher = new ConfigPropertySnapshotPublisher(new SimpleConfigPropertyAdapter(config), TestConfigInterface.class);
+
+		ConfigPropertySnapshot first = publisher.current();
+		Assertions.assertEquals(1, first.getVersion());
+		Assertions.assertEquals("user1", first.get(TestConfigInterface.class).getUsername());
+
+		config.put("myapp.db.username", "user2");
+		config.put("myapp.db.hosts", "h3");
+		ConfigPropertySnapshot second = publisher.reload();
+		Assertions.assertSame(second, publisher.current());
+		Assertions.assertEquals(2, second.getVersion());
+		Assertions.assertEquals("user2", second.get(TestConfigInterface.class).getUsername());
+		Assertions.assertArrayEquals(new String[] { "h3" }, second.get(TestConfigInterface.class).getHosts());
+		// The previous snapshot does not change
+		Assertions.assertEquals("user1", first.get(TestConfigInterface.class).getUsername());
+		Assertions.assertArrayEquals(new String[] { "h1", "h2" }, first.get(TestConfigInterface.class).getHosts());
+
+		config.remove("myapp.db.username");
+		Assertions.assertThrows(MissingConfigPropertyException.class, publisher::reload);
+		Assertions.assertSame(second, publisher.current());
+		Assertions.assertThrows(ConfigPropertyException.class, () -> second.get(String.class));
+	}
+
+	@Test
+	public void listenersTest()
+	{
+		Map<String, String> config = config("user1");
+		ConfigPropertySnapshotPublisher publisher = new ConfigPropertySnapshotPublisher(new SimpleConfigPropertyAdapter(config), TestConfigInterface.class);
+		List<String> notifications = new ArrayList<>();
+		publisher.addListener((previous, current) -> notifications.add("all " + current.getVersion()));
+		publisher.addListener(TestConfigInterface.class, (previous, current) -> notifications.add("type " + current.getVersion()));
+		publisher.addListener(ConfigPropertyKey.of("myapp.db", "username"), (previous, current) -> notifications.add("username " + current.getVersion()));
+		publisher.addListener(ConfigPropertyKey.of("myapp.other", "name"), (previous, current) -> notifications.add("name " + current.getVersion()));
+
+		config.put("myapp.other.name", "renamed");
+		publisher.reload();
+		Assertions.assertEquals(Arrays.asList("all 2", "type 2", "name 2"), notifications);
+
+		notifications.clear();
+		publisher.reload();
+		Assertions.assertEquals(Collections.singletonList("all 3"), notifications);
+	}
+
+	@Test
+	public void coalescingTest()
+	{
+		Map<String, String> config = config("user1");
+		Queue<Runnable> tasks = new ArrayDeque<>();
+		ConfigPropertySnapshotPublisher publisher = new ConfigPropertySnapshotPublisher(
+			new SimpleConfigPropertyAdapter(config), ConverterRegistry.defaults(), tasks::add, Collections.singletonList(TestConfigInterface.class)
+		);
+		List<String> notifications = new ArrayList<>();
+		publisher.addListener(TestConfigInterface.class, (previous, current) -> notifications.add(previous.getVersion() + " -> " + current.getVersion()));
+
+		for (int i = 2; i <= 4; i++)
+		{
+			config.put("myapp.db.username", "user" + i);
+			publisher.reload();
+		}
+		Assertions.assertEquals(1, tasks.size());
+		tasks.poll().run();
+		Assertions.assertEquals(Collections.singletonList("1 -> 4"), notifications);
+
+		config.put("myapp.db.username", "user5");
+		publisher.reload();
+		tasks.poll().run();
+		Assertions.assertEquals(Arrays.asList("1 -> 4", "4 -> 5"), notifications);
+	}
+
+	private static Map<String, String> config(String username)
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("myapp.db.username", username);
+		config.put("myapp.db.enabled", "true");
+		config.put("myapp.db.hosts", "h1;h2");
+		config.put("myapp.other.name", "name");
+		return config;
+	}
+}
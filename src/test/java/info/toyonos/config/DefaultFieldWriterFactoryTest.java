@@ -0,0 +1,78 @@
+package info.toyonos.config;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+public class DefaultFieldWriterFactoryTest
+{
+	/**
+	 * Set by the <code>testJava9</code> task, which runs the tests against the Java 9+ classes of the multi-release jar
+	 */
+	private static final boolean JAVA9_CLASSES = Boolean.getBoolean("info.toyonos.config.testJava9");
+
+	private static final int JAVA_VERSION = javaVersion();
+
+	@Test
+	public void classesTest() throws IOException
+	{
+		Assumptions.assumeTrue(JAVA9_CLASSES);
+		Assertions.assertTrue(JAVA_VERSION >= 9);
+		Assertions.assertEquals(53, classFileVersion(DefaultFieldWriterFactory.class));
+	}
+
+	@Test
+	public void writerTest() throws Exception
+	{
+		FieldWriter writer = DefaultFieldWriterFactory.getInstance().create(Fields.class.getDeclaredField("value"));
+		writer.set("first");
+		Assertions.assertEquals("first", Fields.value);
+		writer.set(null);
+		Assertions.assertNull(Fields.value);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> writer.set(1));
+	}
+
+	@Test
+	public void finalFieldTest() throws Exception
+	{
+		if (JAVA_VERSION >= 18 && JAVA9_CLASSES)
+		{
+			// Field.set refuses static final fields, whatever their modifiers
+			Assertions.assertThrows(IllegalAccessException.class, () -> DefaultFieldWriterFactory.getInstance().create(Fields.class.getDeclaredField("FINAL_VALUE")));
+			return;
+		}
+		// The Java 8 classes can't reach Field.modifiers since Java 12
+		Assumptions.assumeTrue(JAVA_VERSION < 12 || JAVA9_CLASSES);
+
+		DefaultFieldWriterFactory.getInstance().create(Fields.class.getDeclaredField("FINAL_VALUE")).set("final");
+		Assertions.assertEquals("final", Fields.class.getDeclaredField("FINAL_VALUE").get(null));
+	}
+
+	private static int classFileVersion(Class<?> type) throws IOException
+	{
+		try (InputStream is = type.getResourceAsStream(type.getSimpleName() + ".class"))
+		{
+			DataInputStream data = new DataInputStream(is);
+			data.readInt();
+			data.readUnsignedShort();
+			return data.readUnsignedShort();
+		}
+	}
+
+	private static int javaVersion()
+	{
+		String version = System.getProperty("java.specification.version");
+		return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+	}
+
+	public static class Fields
+	{
+		public static String value;
+
+		public static final String FINAL_VALUE = null;
+	}
+}
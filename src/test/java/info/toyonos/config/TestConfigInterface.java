@@ -0,0 +1,28 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+
+@ConfigProperties(prefix = "myapp.db")
+public interface TestConfigInterface
+{
+	@ConfigProperty
+	String getUsername();
+
+	@ConfigProperty(defaultValue = "180")
+	int getConnectionTimeout();
+
+	@ConfigProperty(defaultValue = "1m")
+	Duration getMaxIdle();
+
+	@ConfigProperty
+	boolean isEnabled();
+
+	@ConfigProperty
+	String[] getHosts();
+
+	@ConfigProperty(nullable = true)
+	String getDescription();
+
+	@ConfigProperty(prefix = "myapp.other")
+	String getName();
+}
@@ -0,0 +1,27 @@
+package info.toyonos.config;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestCountingAdapter implements ConfigPropertyAdapter
+{
+	public static final AtomicInteger INSTANCES = new AtomicInteger();
+	
+	public TestCountingAdapter()
+	{
+		INSTANCES.incrementAndGet();
+	}
+	
+	@Override
+	public String getProperty(Class<?> source, String prefix, String property)
+	{
+		return source.getSimpleName();
+	}
+
+	@Override
+	public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+	{
+		return Collections.singletonList(source.getSimpleName());
+	}
+}
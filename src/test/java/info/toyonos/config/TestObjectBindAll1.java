@@ -0,0 +1,8 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectBindAll1
+{
+	@ConfigProperty
+	public static String A_B_S1;
+}
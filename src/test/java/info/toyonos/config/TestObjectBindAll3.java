@@ -0,0 +1,8 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix", configPropertyAdapterClass = TestCountingAdapter.class)
+public class TestObjectBindAll3
+{
+	@ConfigProperty
+	public static String A_B_S1;
+}
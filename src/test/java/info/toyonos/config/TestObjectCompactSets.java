@@ -0,0 +1,26 @@
+package info.toyonos.config;
+
+import java.util.BitSet;
+
+import info.toyonos.config.value.BloomFilter;
+import info.toyonos.config.value.IntIdSet;
+import info.toyonos.config.value.LongIdSet;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectCompactSets
+{
+	@ConfigProperty
+	public static LongIdSet A_B_L1;
+
+	@ConfigProperty(defaultListValue = { "3", "1", "2" })
+	public static IntIdSet A_B_I1;
+
+	@ConfigProperty
+	public static BitSet A_B_B1;
+
+	@ConfigProperty(trim = true)
+	public static BloomFilter A_B_F1;
+
+	@ConfigProperty(nullable = true)
+	public static LongIdSet A_B_L2;
+}
@@ -0,0 +1,11 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectConcurrent
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty
+	public static String A_B_S2;
+}
@@ -0,0 +1,26 @@
+package info.toyonos.config;
+
+import java.math.BigDecimal;
+import java.net.URI;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectConverters
+{
+	@ConfigProperty
+	public static int[] A_B_A1;
+
+	@ConfigProperty
+	public static double[] A_B_A2;
+
+	@ConfigProperty
+	public static boolean[] A_B_A3;
+
+	@ConfigProperty(trim = true)
+	public static Long[] A_B_A4;
+
+	@ConfigProperty
+	public static BigDecimal A_B_N1;
+
+	@ConfigProperty(nullable = true)
+	public static URI A_B_U1;
+}
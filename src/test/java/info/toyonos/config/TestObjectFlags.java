@@ -0,0 +1,19 @@
+package info.toyonos.config;
+
+import java.time.Duration;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectFlags
+{
+	@ConfigProperty(defaultValue = "false")
+	public static final ConfigFlag A_B_F1 = new ConfigFlag();
+
+	@ConfigProperty
+	public static final ConfigConstant<Integer> A_B_C1 = new ConfigConstant<>(0);
+
+	@ConfigProperty(defaultListValue = { "a", "b" })
+	public static final ConfigConstant<String[]> A_B_C2 = new ConfigConstant<>(null);
+
+	@ConfigProperty(nullable = true)
+	public static final ConfigConstant<Duration> A_B_C3 = new ConfigConstant<>(Duration.ZERO);
+}
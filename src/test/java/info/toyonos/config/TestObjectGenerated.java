@@ -0,0 +1,20 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectGenerated
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty(defaultValue = "42")
+	static int A_B_I1;
+
+	@ConfigProperty(defaultListValue = { "a\"b", "c\\d" })
+	public static String[] A_B_L1;
+
+	@ConfigProperty
+	private static String A_B_S2;
+
+	@ConfigProperty
+	public static final String A_B_S3 = null;
+}
@@ -0,0 +1,19 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectPrivateType
+{
+	@ConfigProperty
+	static Mode A_B_M1;
+
+	@ConfigProperty(nullable = true)
+	static Mode[] A_B_M2;
+
+	@ConfigProperty
+	public static String A_B_S1;
+
+	private enum Mode
+	{
+		A, B
+	}
+}
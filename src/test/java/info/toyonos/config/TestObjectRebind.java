@@ -0,0 +1,14 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectRebind
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty
+	public static Integer[] A_B_A1;
+
+	@ConfigProperty
+	public static final String A_B_F1 = null;
+}
@@ -0,0 +1,17 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectReport
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty(defaultValue = "42")
+	public static Integer A_B_I1;
+
+	@ConfigProperty(nullable = true)
+	public static String A_B_S2;
+
+	@ConfigProperty
+	public static int[] A_B_A1;
+}
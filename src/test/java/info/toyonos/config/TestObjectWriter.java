@@ -0,0 +1,11 @@
+package info.toyonos.config;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectWriter
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty
+	public static int A_B_I1;
+}
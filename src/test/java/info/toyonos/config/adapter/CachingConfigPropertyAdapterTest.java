@@ -0,0 +1,202 @@
+package info.toyonos.config.adapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CachingConfigPropertyAdapterTest
+{
+	@Test
+	public void ttlTest()
+	{
+		SlowAdapter source = new SlowAdapter(0);
+		source.values.put("prefix.a.b.s1", "first");
+		source.values.put("prefix.secrets.s2", "secret");
+		AtomicLong clock = new AtomicLong();
+		CachingConfigPropertyAdapter adapter = CachingConfigPropertyAdapter.builder(source)
+			.withTtl(Duration.ofSeconds(60))
+			.withTtl("prefix.secrets", Duration.ofSeconds(5))
+			.withNegativeTtl(Duration.ofSeconds(10))
+			.withClock(clock::get)
+			.build();
+
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("secret", adapter.getProperty(getClass(), "prefix", "secrets.s2"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertEquals(3, source.lookups.get());
+
+		source.values.put("prefix.a.b.s1", "second");
+		source.values.put("prefix.secrets.s2", "rotated");
+		source.values.put("prefix.a.b.missing", "found");
+		clock.set(TimeUnit.SECONDS.toNanos(6));
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("rotated", adapter.getProperty(getClass(), "prefix", "secrets.s2"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+
+		clock.set(TimeUnit.SECONDS.toNanos(11));
+		Assertions.assertEquals("found", adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+
+		clock.set(TimeUnit.SECONDS.toNanos(61));
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+
+		adapter.invalidate(Collections.singleton("prefix.secrets.s2"));
+		source.values.put("prefix.secrets.s2", "invalidated");
+		Assertions.assertEquals("invalidated", adapter.getProperty(getClass(), "prefix", "secrets.s2"));
+		Assertions.assertEquals(2, adapter.getHitCount());
+		Assertions.assertEquals(7, adapter.getMissCount());
+		Assertions.assertEquals(7, adapter.getLoadCount());
+	}
+
+	@Test
+	public void refreshAheadTest()
+	{
+		SlowAdapter source = new SlowAdapter(0);
+		source.values.put("prefix.a.b.s1", "first");
+		AtomicLong clock = new AtomicLong();
+		List<Runnable> refreshes = new ArrayList<>();
+		CachingConfigPropertyAdapter adapter = CachingConfigPropertyAdapter.builder(source)
+			.withTtl(Duration.ofSeconds(10))
+			.withRefreshAhead(refreshes::add, 0.5)
+			.withMaxStale(Duration.ofSeconds(30))
+			.withClock(clock::get)
+			.build();
+
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		source.values.put("prefix.a.b.s1", "second");
+
+		// Read after half of its time to live : served, and refreshed once in the background
+		clock.set(TimeUnit.SECONDS.toNanos(6));
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(1, refreshes.size());
+		refreshes.remove(0).run();
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(1, adapter.getRefreshCount());
+
+		// Expired : stale-while-revalidate, a failed refresh keeps the value
+		source.values.put("prefix.a.b.s1", "third");
+		source.failing = true;
+		clock.set(TimeUnit.SECONDS.toNanos(20));
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		refreshes.remove(0).run();
+		Assertions.assertEquals(1, adapter.getLoadFailureCount());
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		source.failing = false;
+		refreshes.remove(0).run();
+		Assertions.assertEquals("third", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(2, adapter.getStaleHitCount());
+
+		// Beyond the max stale, the lookup waits for the adapter
+		source.values.put("prefix.a.b.s1", "fourth");
+		clock.set(TimeUnit.SECONDS.toNanos(100));
+		Assertions.assertEquals("fourth", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+	}
+
+	@Test
+	public void singleFlightTest() throws Exception
+	{
+		SlowAdapter source = new SlowAdapter(200);
+		source.values.put("prefix.a.b.s1", "value");
+		CachingConfigPropertyAdapter adapter = CachingConfigPropertyAdapter.builder(source).build();
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++)
+			{
+				results.add(executor.submit(() ->
+				{
+					start.await();
+					return adapter.getProperty(getClass(), "prefix", "a.b.s1");
+				}));
+			}
+			start.countDown();
+			for (Future<String> result : results) Assertions.assertEquals("value", result.get());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		Assertions.assertEquals(1, source.lookups.get());
+		Assertions.assertEquals(threads, adapter.getMissCount() + adapter.getHitCount());
+	}
+
+	@Test
+	public void evictionTest()
+	{
+		SlowAdapter source = new SlowAdapter(0);
+		CachingConfigPropertyAdapter adapter = CachingConfigPropertyAdapter.builder(source).withMaximumSize(2).build();
+		source.values.put("prefix.a.b.s1", "a;b");
+		source.values.put("prefix.a.b.s2", "2");
+		source.values.put("prefix.a.b.s3", "3");
+
+		Assertions.assertEquals("a;b", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		adapter.getProperty(getClass(), "prefix", "a.b.s2");
+		adapter.getProperty(getClass(), "prefix", "a.b.s1");
+		// s2 is the least recently used
+		adapter.getProperty(getClass(), "prefix", "a.b.s3");
+		Assertions.assertEquals(1, adapter.getEvictionCount());
+		Assertions.assertEquals(2, adapter.size());
+		adapter.getProperty(getClass(), "prefix", "a.b.s1");
+		Assertions.assertEquals(3, source.lookups.get());
+
+		Assertions.assertEquals(Arrays.asList("a", "b"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(3, adapter.size());
+	}
+
+	/**
+	 * A stub of a remote source, with a latency
+	 */
+	private static class SlowAdapter extends SimpleConfigPropertyAdapter
+	{
+		private final Map<String, String> values;
+		private final long latency;
+		private final AtomicInteger lookups = new AtomicInteger();
+		private volatile boolean failing;
+
+		private SlowAdapter(long latency)
+		{
+			this(new ConcurrentHashMap<>(), latency);
+		}
+
+		private SlowAdapter(Map<String, String> values, long latency)
+		{
+			super(values);
+			this.values = values;
+			this.latency = latency;
+		}
+
+		@Override
+		public String getProperty(Class<?> source, String prefix, String property)
+		{
+			lookups.incrementAndGet();
+			try
+			{
+				Thread.sleep(latency);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			if (failing) throw new IllegalStateException("Unavailable");
+			return super.getProperty(source, prefix, property);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package info.toyonos.config.adapter;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.toyonos.config.ConfigPropertyException;
+
+public class CompiledPropertiesAdapterTest
+{
+	@TempDir
+	Path directory;
+
+	@Test
+	public void sameAsPropertiesTest() throws Exception
+	{
+		String content = String.join("\n",
+			"# a comment",
+			"prefix.a.b.s1=test1",
+			"prefix.a.b.s2 = test2  ",
+			"prefix.a.b.s3=multi \\",
+			"     line",
+			"prefix.a.b.s4=escaped \\t \\u00e9 \\\\ \\= end",
+			"prefix.caf\\u00e9.s5=non ASCII key",
+			"prefix.a.b.s6=",
+			"prefix.a.b.a1=a;b;c"
+		);
+		Path source = directory.resolve("config.properties");
+		Files.write(source, content.getBytes(StandardCharsets.ISO_8859_1));
+
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(source))
+		{
+			properties.load(is);
+		}
+		CompiledPropertiesAdapter adapter = CompiledPropertiesAdapter.open(source, directory.resolve("config.bin"));
+
+		Assertions.assertFalse(adapter.isReused());
+		Assertions.assertEquals(properties.size(), adapter.size());
+		for (String key : properties.stringPropertyNames())
+		{
+			int dot = key.indexOf('.');
+			Assertions.assertEquals(properties.getProperty(key), adapter.getProperty(getClass(), key.substring(0, dot), key.substring(dot + 1)), key);
+		}
+		Assertions.assertEquals("non ASCII key", adapter.getProperty(getClass(), "prefix", "café.s5"));
+		Assertions.assertEquals(Arrays.asList("a", "b", "c"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "cafe.s5"));
+	}
+
+	@Test
+	public void snapshotReuseTest() throws Exception
+	{
+		Path source = directory.resolve("config.properties");
+		Path override = directory.resolve("override.properties");
+		Path compiled = directory.resolve("cache/config.bin");
+		Files.write(source, "prefix.a.b.s1=test1\nprefix.a.b.s2=test2".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(override, "prefix.a.b.s2=overridden".getBytes(StandardCharsets.ISO_8859_1));
+
+		CompiledPropertiesAdapter first = CompiledPropertiesAdapter.open(Arrays.asList(source, override), compiled);
+		Assertions.assertFalse(first.isReused());
+		Assertions.assertTrue(Files.exists(compiled));
+		Assertions.assertEquals("overridden", first.getProperty(getClass(), "prefix", "a.b.s2"));
+
+		CompiledPropertiesAdapter second = CompiledPropertiesAdapter.open(Arrays.asList(source, override), compiled);
+		Assertions.assertTrue(second.isReused());
+		Assertions.assertEquals("test1", second.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("overridden", second.getProperty(getClass(), "prefix", "a.b.s2"));
+
+		Files.write(override, "prefix.a.b.s2=changed".getBytes(StandardCharsets.ISO_8859_1));
+		CompiledPropertiesAdapter third = CompiledPropertiesAdapter.open(Arrays.asList(source, override), compiled);
+		Assertions.assertFalse(third.isReused());
+		Assertions.assertEquals("changed", third.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertEquals("changed", new CompiledPropertiesAdapter(compiled).getProperty(getClass(), "prefix", "a.b.s2"));
+	}
+
+	@Test
+	public void invalidSnapshotTest() throws Exception
+	{
+		Path source = directory.resolve("config.properties");
+		Path compiled = directory.resolve("config.bin");
+		Files.write(source, "prefix.a.b.s1=test1".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(compiled, "not a snapshot".getBytes(StandardCharsets.ISO_8859_1));
+
+		Assertions.assertThrows(ConfigPropertyException.class, () -> new CompiledPropertiesAdapter(compiled));
+		CompiledPropertiesAdapter adapter = CompiledPropertiesAdapter.open(source, compiled);
+		Assertions.assertFalse(adapter.isReused());
+		Assertions.assertEquals("test1", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+	}
+}
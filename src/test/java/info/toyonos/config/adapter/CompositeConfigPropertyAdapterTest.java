@@ -0,0 +1,127 @@
+package info.toyonos.config.adapter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.toyonos.config.ConfigPropertyBinder;
+
+public class CompositeConfigPropertyAdapterTest
+{
+	@TempDir
+	Path directory;
+
+	@Test
+	public void precedenceTest()
+	{
+		Map<String, String> overlay = new HashMap<>();
+		overlay.put("prefix.a.b.s1", "overlay");
+		Map<String, String> base = new HashMap<>();
+		base.put("prefix.a.b.s1", "base");
+		base.put("prefix.a.b.s2", "base");
+		base.put("prefix.a.b.a1", "a;b");
+		AtomicInteger baseLookups = new AtomicInteger();
+		CompositeConfigPropertyAdapter adapter = new CompositeConfigPropertyAdapter(Arrays.asList(
+			new SimpleConfigPropertyAdapter(overlay),
+			new SimpleConfigPropertyAdapter(base)
+			{
+				@Override
+				public String getProperty(Class<?> source, String prefix, String property)
+				{
+					baseLookups.incrementAndGet();
+					return super.getProperty(source, prefix, property);
+				}
+			}
+		));
+
+		Assertions.assertEquals("overlay", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("base", adapter.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertEquals(Arrays.asList("a", "b"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertEquals(3, baseLookups.get());
+
+		// Cached, found or not
+		Assertions.assertEquals("base", adapter.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertEquals(3, baseLookups.get());
+
+		// A change of the base layer does not evict what the overlay resolved
+		base.put("prefix.a.b.s2", "base2");
+		base.put("prefix.a.b.missing", "found");
+		adapter.invalidate(1);
+		Assertions.assertEquals("overlay", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("base2", adapter.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertEquals("found", adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertEquals(5, baseLookups.get());
+
+		overlay.remove("prefix.a.b.s1");
+		adapter.invalidate(0);
+		Assertions.assertEquals("base", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+	}
+
+	@Test
+	public void evictionTest()
+	{
+		AtomicInteger lookups = new AtomicInteger();
+		CompositeConfigPropertyAdapter adapter = new CompositeConfigPropertyAdapter(Collections.singletonList(
+			new SimpleConfigPropertyAdapter(Collections.emptyMap())
+			{
+				@Override
+				public String getProperty(Class<?> source, String prefix, String property)
+				{
+					lookups.incrementAndGet();
+					return super.getProperty(source, prefix, property);
+				}
+			}
+		), 2);
+
+		adapter.getProperty(getClass(), "prefix", "k1");
+		adapter.getProperty(getClass(), "prefix", "k2");
+		adapter.getProperty(getClass(), "prefix", "k1");
+		adapter.getProperty(getClass(), "prefix", "k3");
+		Assertions.assertEquals(3, lookups.get());
+
+		// k2 was the least recently used
+		adapter.getProperty(getClass(), "prefix", "k1");
+		Assertions.assertEquals(3, lookups.get());
+		adapter.getProperty(getClass(), "prefix", "k2");
+		Assertions.assertEquals(4, lookups.get());
+	}
+
+	@Test
+	public void observableLayerTest() throws Exception
+	{
+		Path file = directory.resolve("config.properties");
+		Files.write(file, "prefix.a.b.s1=file\nprefix.a.b.i1=1".getBytes(StandardCharsets.ISO_8859_1));
+		WatchingPropertiesAdapter watched = new WatchingPropertiesAdapter(file);
+		Map<String, String> overlay = new HashMap<>();
+		overlay.put("prefix.a.b.s1", "overlay");
+		CompositeConfigPropertyAdapter adapter = new CompositeConfigPropertyAdapter(Arrays.asList(new SimpleConfigPropertyAdapter(overlay), watched));
+		List<Set<String>> changes = new CopyOnWriteArrayList<>();
+		adapter.addChangeListener(changes::add);
+
+		ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, TestObjectWatched.class);
+		binder.bind();
+		adapter.addChangeListener(binder::rebind);
+		Assertions.assertEquals("overlay", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(1, TestObjectWatched.A_B_I1);
+
+		Files.write(file, "prefix.a.b.s1=file\nprefix.a.b.i1=2".getBytes(StandardCharsets.ISO_8859_1));
+		watched.reload();
+		Assertions.assertEquals(Collections.singletonList(Collections.singleton("prefix.a.b.i1")), changes);
+		Assertions.assertEquals("overlay", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(2, TestObjectWatched.A_B_I1);
+	}
+}
@@ -0,0 +1,59 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentLruCacheTest
+{
+	@Test
+	public void evictionTest()
+	{
+		ConcurrentLruCache<String> cache = new ConcurrentLruCache<>(16);
+		for (int i = 0; i < 16; i++)
+		{
+			cache.put("k" + i, "v" + i, cache.generation());
+		}
+		// The first half is read again : the second half is the least recently used
+		for (int i = 0; i < 8; i++)
+		{
+			Assertions.assertEquals("v" + i, cache.get("k" + i));
+		}
+		cache.put("k16", "v16", cache.generation());
+
+		// An eighth is evicted at once, the oldest inserts which were not read since
+		Assertions.assertEquals(14, cache.size());
+		Assertions.assertEquals(3, cache.getEvictionCount());
+		Assertions.assertNull(cache.get("k8"));
+		Assertions.assertNull(cache.get("k9"));
+		Assertions.assertNull(cache.get("k10"));
+		Assertions.assertEquals("v11", cache.get("k11"));
+		Assertions.assertEquals("v0", cache.get("k0"));
+		Assertions.assertEquals("v16", cache.get("k16"));
+	}
+
+	@Test
+	public void generationTest()
+	{
+		ConcurrentLruCache<String> cache = new ConcurrentLruCache<>(16);
+		long generation = cache.generation();
+		cache.put("k1", "v1", generation);
+		cache.invalidate(Arrays.asList("k1", "k2"));
+
+		// Retrieved before the invalidation : not cached
+		Assertions.assertFalse(cache.put("k2", "outdated", generation));
+		Assertions.assertNull(cache.get("k1"));
+		Assertions.assertNull(cache.get("k2"));
+
+		cache.put("k1", "v1", cache.generation());
+		cache.put("k2", "v2", cache.generation());
+		cache.invalidateIf("v1"::equals);
+		Assertions.assertNull(cache.get("k1"));
+		Assertions.assertEquals("v2", cache.get("k2"));
+		cache.invalidateAll();
+		Assertions.assertEquals(0, cache.size());
+
+		Assertions.assertFalse(new ConcurrentLruCache<String>(0).put("k1", "v1", 0));
+	}
+}
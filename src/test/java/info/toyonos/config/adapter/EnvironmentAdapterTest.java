@@ -0,0 +1,47 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EnvironmentAdapterTest
+{
+	@Test
+	public void relaxedLookupTest()
+	{
+		Map<String, String> environment = new HashMap<>();
+		environment.put("MYAPP_DB_USERNAME", "user");
+		environment.put("MYAPP_DB_HOSTS", "h1;h2");
+		environment.put("MYAPP_DB_PASSWORD", "upper");
+		environment.put("myapp.db.password", "relaxed");
+		environment.put("PATH", "/usr/bin");
+		EnvironmentAdapter adapter = new EnvironmentAdapter(environment);
+
+		Assertions.assertEquals(4, adapter.size());
+		Assertions.assertEquals("user", adapter.getProperty(getClass(), "myapp.db", "username"));
+		Assertions.assertEquals("user", adapter.getProperty(getClass(), "MYAPP", "DB_USERNAME"));
+		Assertions.assertEquals("user", adapter.getProperty(getClass(), "myapp", "db.UserName"));
+		Assertions.assertEquals("relaxed", adapter.getProperty(getClass(), "myapp.db", "password"));
+		Assertions.assertEquals(Arrays.asList("h1", "h2"), adapter.getPropertyAsList(getClass(), "myapp.db", "hosts"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "myapp.db", "user.name"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "myapp", "dbusername"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "path", "x"));
+	}
+
+	@Test
+	public void systemPropertiesTest()
+	{
+		Properties properties = new Properties();
+		properties.setProperty("myapp.db.username", "user");
+		properties.setProperty("MYAPP_DB_TIMEOUT", "30");
+		SystemPropertiesAdapter adapter = new SystemPropertiesAdapter(properties);
+
+		Assertions.assertEquals("user", adapter.getProperty(getClass(), "myapp.db", "username"));
+		Assertions.assertEquals("30", adapter.getProperty(getClass(), "myapp.db", "timeout"));
+		Assertions.assertNotNull(new SystemPropertiesAdapter().getProperty(getClass(), "java", "version"));
+	}
+}
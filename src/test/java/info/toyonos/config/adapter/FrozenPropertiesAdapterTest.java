@@ -0,0 +1,49 @@
+package info.toyonos.config.adapter;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FrozenPropertiesAdapterTest
+{
+	@Test
+	public void lookupTest() throws Exception
+	{
+		FrozenPropertiesAdapter adapter = new FrozenPropertiesAdapter(new StringReader(String.join("\n",
+			"prefix.a.b.s1=test1",
+			"prefix.a.b.a1=a;b;c",
+			"prefix.a.b.s2=",
+			"null.a.b.s3=without prefix"
+		)));
+
+		Assertions.assertEquals(4, adapter.size());
+		Assertions.assertEquals("test1", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("", adapter.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertEquals("without prefix", adapter.getProperty(getClass(), null, "a.b.s3"));
+		Assertions.assertEquals(Arrays.asList("a", "b", "c"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertSame(adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix.a", "b.s1x"));
+	}
+
+	@Test
+	public void collidingKeysTest()
+	{
+		// "Aa" and "BB" have the same hash code
+		Map<String, String> properties = new HashMap<>();
+		properties.put("p.Aa", "1");
+		properties.put("p.BB", "2");
+		for (int i = 0; i < 1000; i++) properties.put("p.key" + i, "value" + i);
+		FrozenPropertiesAdapter adapter = new FrozenPropertiesAdapter(properties);
+
+		Assertions.assertEquals("1", adapter.getProperty(getClass(), "p", "Aa"));
+		Assertions.assertEquals("2", adapter.getProperty(getClass(), "p", "BB"));
+		for (int i = 0; i < 1000; i++) Assertions.assertEquals("value" + i, adapter.getProperty(getClass(), "p", "key" + i));
+		Assertions.assertNull(adapter.getProperty(getClass(), "p", "key1000"));
+	}
+}
@@ -0,0 +1,183 @@
+package info.toyonos.config.adapter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import info.toyonos.config.ConfigPropertyBinder;
+
+public class HttpConfigPropertyAdapterTest
+{
+	private HttpServer server;
+	private URI uri;
+	private volatile String body;
+	private volatile int status;
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+
+	@BeforeEach
+	public void startServer() throws IOException
+	{
+		body = "prefix.a.b.s1=first\nprefix.a.b.a1=a;b\n";
+		status = 200;
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/namespaces/myapp", this::handle);
+		server.start();
+		uri = URI.create(String.format("http://127.0.0.1:%d/namespaces/myapp", server.getAddress().getPort()));
+	}
+
+	@AfterEach
+	public void stopServer()
+	{
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException
+	{
+		requests.incrementAndGet();
+		String eTag = '"' + Integer.toHexString(body.hashCode()) + '"';
+		if (status != 200)
+		{
+			exchange.sendResponseHeaders(status, -1);
+		}
+		else if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+		{
+			notModified.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+		}
+		else
+		{
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("ETag", eTag);
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream os = exchange.getResponseBody())
+			{
+				os.write(bytes);
+			}
+		}
+		exchange.close();
+	}
+
+	@Test
+	public void conditionalGetTest() throws IOException
+	{
+		HttpConfigPropertyAdapter adapter = new HttpConfigPropertyAdapter(uri);
+		Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(Arrays.asList("a", "b"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNotNull(adapter.getETag());
+
+		// Unchanged : a 304, without any notification
+		Set<String> notifiedKeys = new HashSet<>();
+		adapter.addChangeListener(notifiedKeys::addAll);
+		Assertions.assertEquals(Collections.emptySet(), adapter.reload());
+		Assertions.assertEquals(1, notModified.get());
+
+		body = "prefix.a.b.s1=second\nprefix.a.b.a1=a;b\nprefix.a.b.s2=new\n";
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("prefix.a.b.s1", "prefix.a.b.s2")), adapter.reload());
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("prefix.a.b.s1", "prefix.a.b.s2")), notifiedKeys);
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+
+		// Outage : the last good snapshot is kept
+		status = 503;
+		Assertions.assertThrows(IOException.class, adapter::reload);
+		Assertions.assertEquals("second", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(4, requests.get());
+	}
+
+	@Test
+	public void annotationTest()
+	{
+		Set<Thread> pollers = pollers();
+		System.setProperty(HttpConfigPropertyAdapter.URI_PROPERTY, uri.toString());
+		try
+		{
+			ConfigPropertyBinder.create(TestObjectHttp.class).bind();
+			ConfigPropertyBinder.create(TestObjectHttp.class).bind();
+		}
+		finally
+		{
+			System.clearProperty(HttpConfigPropertyAdapter.URI_PROPERTY);
+		}
+
+		Assertions.assertEquals("first", TestObjectHttp.A_B_S1);
+		Assertions.assertEquals(2, requests.get());
+		// The adapters created by the binders are never exposed : they do not poll, no thread is left behind
+		Set<Thread> newPollers = pollers();
+		newPollers.removeAll(pollers);
+		Assertions.assertEquals(Collections.emptySet(), newPollers);
+	}
+
+	@Test
+	public void pollingTest() throws Exception
+	{
+		BlockingQueue<Set<String>> changes = new ArrayBlockingQueue<>(10);
+		try (HttpConfigPropertyAdapter adapter = new HttpConfigPropertyAdapter(uri, Duration.ofMillis(20), Duration.ofMillis(200)))
+		{
+			// The listeners already see the recovery
+			List<Integer> failuresSeen = new CopyOnWriteArrayList<>();
+			adapter.addChangeListener(keys ->
+			{
+				failuresSeen.add(adapter.getConsecutiveFailures());
+				changes.add(keys);
+			});
+			adapter.start();
+
+			status = 500;
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (adapter.getConsecutiveFailures() < 2 && System.nanoTime() < deadline) Thread.sleep(10);
+			Assertions.assertTrue(adapter.getConsecutiveFailures() >= 2);
+			Assertions.assertEquals("first", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+
+			body = "prefix.a.b.s1=recovered\n";
+			status = 200;
+			Assertions.assertEquals(
+				new HashSet<>(Arrays.asList("prefix.a.b.s1", "prefix.a.b.a1")),
+				changes.poll(5, TimeUnit.SECONDS)
+			);
+			Assertions.assertEquals("recovered", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+			Assertions.assertEquals(0, adapter.getConsecutiveFailures());
+			Assertions.assertEquals(Collections.singletonList(0), failuresSeen);
+		}
+	}
+
+	@Test
+	public void backoffTest()
+	{
+		Assertions.assertEquals(1000, HttpConfigPropertyAdapter.backoff(1, 1000, 60_000, 0));
+		Assertions.assertEquals(2000, HttpConfigPropertyAdapter.backoff(1, 1000, 60_000, 1));
+		Assertions.assertEquals(8000, HttpConfigPropertyAdapter.backoff(3, 1000, 60_000, 1));
+		Assertions.assertEquals(60_000, HttpConfigPropertyAdapter.backoff(100, 1000, 60_000, 1));
+		Assertions.assertEquals(30_000, HttpConfigPropertyAdapter.backoff(100, 1000, 60_000, 0));
+	}
+
+	private static Set<Thread> pollers()
+	{
+		Set<Thread> pollers = new HashSet<>();
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().startsWith("config-poller-")) pollers.add(thread);
+		}
+		return pollers;
+	}
+}
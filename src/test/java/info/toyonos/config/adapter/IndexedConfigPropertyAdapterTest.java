@@ -0,0 +1,129 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyBinder;
+import info.toyonos.config.ConfigPropertyKey;
+import info.toyonos.config.ListElementConsumer;
+import info.toyonos.config.ScopedConfigPropertyAdapter;
+
+public class IndexedConfigPropertyAdapterTest
+{
+	@Test
+	public void lookupTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		config.put("prefix.a.b.a1", "a;b;c");
+		config.put("prefix", "no property");
+		config.put("prefix-other.a.b.s1", "other");
+		config.put("prefixes.a.b.s1", "other");
+		config.put("null.a.b.s1", "null prefix");
+		IndexedConfigPropertyAdapter adapter = new IndexedConfigPropertyAdapter(config);
+
+		Assertions.assertEquals("test1", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("null prefix", adapter.getProperty(getClass(), null, "a.b.s1"));
+		Assertions.assertEquals(Arrays.asList("a", "b", "c"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.s1.more"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "prefix", "a.b.missing"));
+	}
+
+	@Test
+	public void scanTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("myapp.db.username", "user");
+		config.put("myapp.db.password", "passw0rd");
+		config.put("myapp.db.connection.timeout", "180");
+		config.put("myapp.dbx.username", "other");
+		config.put("myapp.db", "no property");
+		config.put("myapp.supported.currencies", "usd;eur;gbp");
+		IndexedConfigPropertyAdapter adapter = new IndexedConfigPropertyAdapter(config);
+
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("connection.timeout", "180");
+		expected.put("password", "passw0rd");
+		expected.put("username", "user");
+		Assertions.assertEquals(expected, adapter.getProperties(getClass(), "myapp.db"));
+		Assertions.assertEquals(Arrays.asList("connection.timeout", "password", "username"), Arrays.asList(adapter.getProperties(getClass(), "myapp.db").keySet().toArray()));
+		Assertions.assertEquals(6, adapter.getProperties(getClass(), "myapp").size());
+		Assertions.assertEquals(6, adapter.getProperties(getClass(), null).size());
+		Assertions.assertTrue(adapter.getProperties(getClass(), "myapp.d").isEmpty());
+		Assertions.assertTrue(adapter.getProperties(getClass(), "zzz").isEmpty());
+	}
+
+	@Test
+	public void bindTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "indexed");
+		config.put("prefix.a.b.i1", "42");
+		ConfigPropertyBinder.create(new IndexedConfigPropertyAdapter(config), TestObjectWatched.class).bind();
+
+		Assertions.assertEquals("indexed", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(42, TestObjectWatched.A_B_I1);
+	}
+
+	@Test
+	public void prefetchTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("prefix.a.b.s1", "test1");
+		config.put("prefix.a.b.s2", "test2");
+		config.put("prefix.a.b.s3", "test3");
+		IndexedConfigPropertyAdapter adapter = new IndexedConfigPropertyAdapter(config);
+		List<ConfigPropertyKey> keys = Arrays.asList(ConfigPropertyKey.of("prefix", "a.b.s1"), ConfigPropertyKey.of("prefix", "a.b.missing"));
+		Assertions.assertSame(adapter, adapter.prefetch(keys));
+
+		// The default prefetch of a scoped adapter : one scan per prefix, the other keys are looked up one by one
+		AtomicInteger scans = new AtomicInteger();
+		AtomicInteger lookups = new AtomicInteger();
+		ScopedConfigPropertyAdapter scoped = new ScopedConfigPropertyAdapter()
+		{
+			@Override
+			public String getProperty(Class<?> source, String prefix, String property)
+			{
+				lookups.incrementAndGet();
+				return adapter.getProperty(source, prefix, property);
+			}
+
+			@Override
+			public List<String> getPropertyAsList(Class<?> source, String prefix, String property)
+			{
+				return adapter.getPropertyAsList(source, prefix, property);
+			}
+
+			@Override
+			public boolean forEachListElement(Class<?> source, String prefix, String property, ListElementConsumer consumer)
+			{
+				return adapter.forEachListElement(source, prefix, property, consumer);
+			}
+
+			@Override
+			public void forEachProperty(Class<?> source, String prefix, BiConsumer<String, String> action)
+			{
+				scans.incrementAndGet();
+				adapter.forEachProperty(source, prefix, action);
+			}
+		};
+		ConfigPropertyAdapter prefetched = scoped.prefetch(keys);
+		Assertions.assertEquals("test1", prefetched.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertNull(prefetched.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertEquals(1, scans.get());
+		Assertions.assertEquals(0, lookups.get());
+		Assertions.assertEquals("test2", prefetched.getProperty(getClass(), "prefix", "a.b.s2"));
+		Assertions.assertEquals(1, scans.get());
+		Assertions.assertEquals(1, lookups.get());
+	}
+}
@@ -0,0 +1,132 @@
+package info.toyonos.config.adapter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import info.toyonos.config.ConfigPropertyChangeListener;
+import info.toyonos.config.ConfigPropertyException;
+import info.toyonos.config.ObservableConfigPropertyAdapter;
+
+public class InterpolatingConfigPropertyAdapterTest
+{
+	@Test
+	public void interpolationTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("myapp.db.host", "db.local");
+		config.put("myapp.db.port", "5432");
+		config.put("myapp.db.url", "jdbc:x://${myapp.db.host}:${myapp.db.port}/${myapp.db.name:main}");
+		config.put("myapp.db.urls", "${myapp.db.url};jdbc:x://backup:${myapp.db.port}");
+		config.put("myapp.db.unterminated", "${myapp.db.host");
+		config.put("myapp.db.broken", "${myapp.db.missing}");
+		InterpolatingConfigPropertyAdapter adapter = new InterpolatingConfigPropertyAdapter(new SimpleConfigPropertyAdapter(config));
+
+		Assertions.assertEquals("jdbc:x://db.local:5432/main", adapter.getProperty(getClass(), "myapp.db", "url"));
+		Assertions.assertEquals(
+			Arrays.asList("jdbc:x://db.local:5432/main", "jdbc:x://backup:5432"),
+			adapter.getPropertyAsList(getClass(), "myapp.db", "urls")
+		);
+		Assertions.assertEquals("${myapp.db.host", adapter.getProperty(getClass(), "myapp.db", "unterminated"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "myapp.db", "missing"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "myapp.db", "missing"));
+		ConfigPropertyException e = Assertions.assertThrows(ConfigPropertyException.class, () -> adapter.getProperty(getClass(), "myapp.db", "broken"));
+		Assertions.assertTrue(e.getMessage().contains("myapp.db.missing"));
+	}
+
+	@Test
+	public void cycleTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("myapp.a", "${myapp.b}");
+		config.put("myapp.b", "x${myapp.c}");
+		config.put("myapp.c", "${myapp.a}");
+		InterpolatingConfigPropertyAdapter adapter = new InterpolatingConfigPropertyAdapter(new SimpleConfigPropertyAdapter(config));
+
+		ConfigPropertyException e = Assertions.assertThrows(ConfigPropertyException.class, () -> adapter.getProperty(getClass(), "myapp", "a"));
+		Assertions.assertEquals("Circular reference between the properties myapp.a -> myapp.b -> myapp.c -> myapp.a", e.getMessage());
+
+		config.put("myapp.c", "c");
+		Assertions.assertEquals("xc", adapter.getProperty(getClass(), "myapp", "a"));
+	}
+
+	@Test
+	public void incrementalTest()
+	{
+		Map<String, String> config = new HashMap<>();
+		config.put("myapp.db.host", "db.local");
+		config.put("myapp.db.url", "jdbc:x://${myapp.db.host}");
+		config.put("myapp.db.pool", "${myapp.db.url}?pool=true");
+		config.put("myapp.other", "${myapp.name}");
+		config.put("myapp.name", "name");
+		Map<String, Integer> lookups = new HashMap<>();
+		ObservableAdapter observableAdapter = new ObservableAdapter(config, lookups);
+		InterpolatingConfigPropertyAdapter adapter = new InterpolatingConfigPropertyAdapter(observableAdapter);
+		List<Set<String>> notifications = new CopyOnWriteArrayList<>();
+		adapter.addChangeListener(notifications::add);
+
+		for (int i = 0; i < 3; i++)
+		{
+			Assertions.assertEquals("jdbc:x://db.local?pool=true", adapter.getProperty(getClass(), "myapp.db", "pool"));
+			Assertions.assertEquals("name", adapter.getProperty(getClass(), "myapp", "other"));
+		}
+		Assertions.assertEquals(Integer.valueOf(1), lookups.get("myapp.db.host"));
+		Assertions.assertEquals(Integer.valueOf(1), lookups.get("myapp.db.pool"));
+
+		config.put("myapp.db.host", "db2.local");
+		observableAdapter.fire(Collections.singleton("myapp.db.host"));
+		Assertions.assertEquals(
+			Collections.singletonList(new HashSet<>(Arrays.asList("myapp.db.host", "myapp.db.url", "myapp.db.pool"))),
+			notifications
+		);
+		Assertions.assertEquals("jdbc:x://db2.local?pool=true", adapter.getProperty(getClass(), "myapp.db", "pool"));
+		Assertions.assertEquals("name", adapter.getProperty(getClass(), "myapp", "other"));
+		Assertions.assertEquals(Integer.valueOf(2), lookups.get("myapp.db.host"));
+		Assertions.assertEquals(Integer.valueOf(2), lookups.get("myapp.db.pool"));
+		Assertions.assertEquals(Integer.valueOf(1), lookups.get("myapp.name"));
+	}
+
+	private static class ObservableAdapter extends SimpleConfigPropertyAdapter implements ObservableConfigPropertyAdapter
+	{
+		private final Map<String, Integer> lookups;
+		private final List<ConfigPropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+		private ObservableAdapter(Map<String, String> config, Map<String, Integer> lookups)
+		{
+			super(config);
+			this.lookups = lookups;
+		}
+
+		@Override
+		public String getProperty(Class<?> source, String prefix, String property)
+		{
+			lookups.merge(prefix + '.' + property, 1, Integer::sum);
+			return super.getProperty(source, prefix, property);
+		}
+
+		@Override
+		public void addChangeListener(ConfigPropertyChangeListener listener)
+		{
+			listeners.add(listener);
+		}
+
+		@Override
+		public void removeChangeListener(ConfigPropertyChangeListener listener)
+		{
+			listeners.remove(listener);
+		}
+
+		private void fire(Set<String> changedKeys)
+		{
+			for (ConfigPropertyChangeListener listener : listeners) listener.onChange(changedKeys);
+		}
+	}
+}
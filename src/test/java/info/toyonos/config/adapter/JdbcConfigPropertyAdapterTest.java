@@ -0,0 +1,100 @@
+package info.toyonos.config.adapter;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.toyonos.config.ConfigPropertyAdapter;
+import info.toyonos.config.ConfigPropertyBinder;
+import info.toyonos.config.ConfigPropertyKey;
+
+public class JdbcConfigPropertyAdapterTest
+{
+	private final AtomicInteger connections = new AtomicInteger();
+	private DataSource dataSource;
+
+	@BeforeEach
+	public void setup() throws Exception
+	{
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:config;DB_CLOSE_DELAY=-1");
+		try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement())
+		{
+			statement.execute("DROP TABLE IF EXISTS app_config");
+			statement.execute("CREATE TABLE app_config (config_key VARCHAR(255) PRIMARY KEY, config_value VARCHAR(255))");
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO app_config VALUES (?, ?)"))
+			{
+				for (int i = 0; i < 1500; i++)
+				{
+					insert.setString(1, "prefix.key" + i);
+					insert.setString(2, "value" + i);
+					insert.addBatch();
+				}
+				insert.executeBatch();
+			}
+			statement.execute("INSERT INTO app_config VALUES ('prefix.a.b.s1', 'jdbc'), ('prefix.a.b.i1', '42'), ('prefix.a.b.a1', 'a;b;c')");
+		}
+
+		// Count the round trips to the database
+		dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { DataSource.class }, (proxy, method, args) ->
+		{
+			if (method.getName().equals("getConnection")) connections.incrementAndGet();
+			return method.invoke(h2, args);
+		});
+	}
+
+	@Test
+	public void lookupTest()
+	{
+		ConfigPropertyAdapter adapter = new JdbcConfigPropertyAdapter(dataSource, "app_config", "config_key", "config_value");
+
+		Assertions.assertEquals("jdbc", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals(Arrays.asList("a", "b", "c"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "missing"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "prefix", "missing"));
+		Assertions.assertEquals(4, connections.get());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new JdbcConfigPropertyAdapter(dataSource, "app_config; DROP TABLE app_config", "config_key", "config_value"));
+	}
+
+	@Test
+	public void prefetchTest()
+	{
+		ConfigPropertyAdapter adapter = new JdbcConfigPropertyAdapter(dataSource, "app_config", "config_key", "config_value");
+
+		List<ConfigPropertyKey> keys = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) keys.add(ConfigPropertyKey.of("prefix", "key" + i));
+		keys.add(ConfigPropertyKey.of("prefix", "missing"));
+		ConfigPropertyAdapter prefetched = adapter.prefetch(keys);
+		Assertions.assertEquals(1, connections.get());
+
+		for (int i = 0; i < 1200; i++) Assertions.assertEquals("value" + i, prefetched.getProperty(getClass(), "prefix", "key" + i));
+		Assertions.assertNull(prefetched.getProperty(getClass(), "prefix", "missing"));
+		Assertions.assertEquals(1, connections.get());
+
+		// Not prefetched
+		Assertions.assertEquals("value1300", prefetched.getProperty(getClass(), "prefix", "key1300"));
+		Assertions.assertEquals(2, connections.get());
+	}
+
+	@Test
+	public void bindTest()
+	{
+		ConfigPropertyBinder.create(new JdbcConfigPropertyAdapter(dataSource, "app_config", "config_key", "config_value"), TestObjectWatched.class).bind();
+
+		Assertions.assertEquals("jdbc", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(42, TestObjectWatched.A_B_I1);
+		Assertions.assertEquals(1, connections.get());
+	}
+}
@@ -0,0 +1,81 @@
+package info.toyonos.config.adapter;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedPropertiesAdapterTest
+{
+	@TempDir
+	Path directory;
+
+	@Test
+	public void sameAsPropertiesTest() throws Exception
+	{
+		String content = String.join("\n",
+			"# a comment",
+			"   ! another comment",
+			"",
+			"prefix.a.b.s1=test1",
+			"prefix.a.b.s2 = test2  ",
+			"prefix.a.b.s3:test3",
+			"prefix.a.b.s4   test4",
+			"\tprefix.a.b.s5=multi \\",
+			"     line \\",
+			"\tvalue",
+			"prefix.a.b.s6=escaped \\t \\u00e9 \\\\ \\= end",
+			"prefix.a\\=b.s7=key with an escaped separator",
+			"prefix.a.b.s8=",
+			"prefix.a.b.s9",
+			"prefix.a.b.s1=duplicate",
+			"prefix.a.b.s10=caf\u00e9\r\nprefix.a.b.s11=windows\r",
+			"prefix.a.b.a1=a;b;c",
+			"prefix.a.b.s12=last line without terminator"
+		);
+		Path file = directory.resolve("config.properties");
+		Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file))
+		{
+			properties.load(is);
+		}
+		MappedPropertiesAdapter adapter = new MappedPropertiesAdapter(file);
+
+		for (String key : properties.stringPropertyNames())
+		{
+			int dot = key.indexOf('.');
+			Assertions.assertEquals(properties.getProperty(key), adapter.getProperty(getClass(), key.substring(0, dot), key.substring(dot + 1)), key);
+		}
+		Assertions.assertEquals("duplicate", adapter.getProperty(getClass(), "prefix", "a.b.s1"));
+		Assertions.assertEquals("key with an escaped separator", adapter.getProperty(getClass(), "prefix", "a=b.s7"));
+		Assertions.assertEquals(Arrays.asList("a", "b", "c"), adapter.getPropertyAsList(getClass(), "prefix", "a.b.a1"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "prefix", "a.b.missing"));
+		Assertions.assertNull(adapter.getPropertyAsList(getClass(), "prefix", "a.b.missing"));
+	}
+
+	@Test
+	public void largeFileTest() throws Exception
+	{
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100_000; i++)
+		{
+			content.append("routing.key").append(i).append('=').append("value").append(i).append('\n');
+		}
+		Path file = directory.resolve("large.properties");
+		Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+		MappedPropertiesAdapter adapter = new MappedPropertiesAdapter(file, StandardCharsets.UTF_8);
+		Assertions.assertEquals("value0", adapter.getProperty(getClass(), "routing", "key0"));
+		Assertions.assertEquals("value54321", adapter.getProperty(getClass(), "routing", "key54321"));
+		Assertions.assertEquals("value99999", adapter.getProperty(getClass(), "routing", "key99999"));
+		Assertions.assertNull(adapter.getProperty(getClass(), "routing", "key100000"));
+	}
+}
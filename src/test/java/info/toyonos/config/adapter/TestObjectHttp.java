@@ -0,0 +1,11 @@
+package info.toyonos.config.adapter;
+
+import info.toyonos.config.ConfigProperties;
+import info.toyonos.config.ConfigProperty;
+
+@ConfigProperties(prefix = "prefix", configPropertyAdapterClass = HttpConfigPropertyAdapter.class)
+public class TestObjectHttp
+{
+	@ConfigProperty
+	public static String A_B_S1;
+}
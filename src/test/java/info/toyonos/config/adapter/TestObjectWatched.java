@@ -0,0 +1,14 @@
+package info.toyonos.config.adapter;
+
+import info.toyonos.config.ConfigProperties;
+import info.toyonos.config.ConfigProperty;
+
+@ConfigProperties(prefix = "prefix")
+public class TestObjectWatched
+{
+	@ConfigProperty
+	public static String A_B_S1;
+
+	@ConfigProperty
+	public static Integer A_B_I1;
+}
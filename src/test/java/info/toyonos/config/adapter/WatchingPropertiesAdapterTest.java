@@ -0,0 +1,93 @@
+package info.toyonos.config.adapter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.toyonos.config.ConfigPropertyBinder;
+
+public class WatchingPropertiesAdapterTest
+{
+	@TempDir
+	Path directory;
+
+	@Test
+	public void reloadTest() throws Exception
+	{
+		Path file = write(directory.resolve("config.properties"), "prefix.a.b.s1=test1", "prefix.a.b.i1=1");
+		WatchingPropertiesAdapter adapter = new WatchingPropertiesAdapter(file);
+		ConfigPropertyBinder binder = ConfigPropertyBinder.create(adapter, TestObjectWatched.class);
+		binder.bind();
+		adapter.addChangeListener(binder::rebind);
+		
+		Assertions.assertEquals("test1", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(Integer.valueOf(1), TestObjectWatched.A_B_I1);
+		
+		// Only the fields mapped to the changed keys are bound again
+		TestObjectWatched.A_B_S1 = "untouched";
+		write(file, "prefix.a.b.s1=test1", "prefix.a.b.i1=2", "prefix.a.b.other=x");
+		
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("prefix.a.b.i1", "prefix.a.b.other")), adapter.reload());
+		Assertions.assertEquals("untouched", TestObjectWatched.A_B_S1);
+		Assertions.assertEquals(Integer.valueOf(2), TestObjectWatched.A_B_I1);
+		Assertions.assertEquals(Collections.emptySet(), adapter.reload());
+	}
+
+	@Test
+	public void failingListenerTest() throws Exception
+	{
+		Path file = write(directory.resolve("failing.properties"), "prefix.a.b.s1=test1");
+		WatchingPropertiesAdapter adapter = new WatchingPropertiesAdapter(file);
+		List<Set<String>> changes = new ArrayList<>();
+		adapter.addChangeListener(changedKeys ->
+		{
+			throw new IllegalStateException("failing listener");
+		});
+		adapter.addChangeListener(changes::add);
+
+		write(file, "prefix.a.b.s1=test2");
+
+		Set<String> changedKeys = Collections.singleton("prefix.a.b.s1");
+		Assertions.assertEquals(changedKeys, adapter.reload());
+		Assertions.assertEquals(Collections.singletonList(changedKeys), changes);
+		Assertions.assertEquals("test2", adapter.getProperty(TestObjectWatched.class, "prefix", "a.b.s1"));
+	}
+
+	@Test
+	public void watchTest() throws Exception
+	{
+		Path file = write(directory.resolve("watched.properties"), "prefix.a.b.s1=test1");
+		BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+		try (WatchingPropertiesAdapter adapter = new WatchingPropertiesAdapter(file, Duration.ofMillis(50)))
+		{
+			adapter.addChangeListener(changes::add);
+			adapter.start();
+			
+			write(file, "prefix.a.b.s1=test2");
+			
+			Set<String> changedKeys = changes.poll(30, TimeUnit.SECONDS);
+			Assertions.assertEquals(Collections.singleton("prefix.a.b.s1"), changedKeys);
+			Assertions.assertEquals("test2", adapter.getProperty(TestObjectWatched.class, "prefix", "a.b.s1"));
+		}
+	}
+
+	private Path write(Path file, String... lines) throws IOException
+	{
+		return Files.write(file, Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+	}
+}
@@ -0,0 +1,65 @@
+package info.toyonos.config.value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CompactSetsTest
+{
+	@Test
+	public void idSetTest()
+	{
+		LongIdSet longIds = LongIdSet.of(42, -7, 99_871_000_000L, 42);
+		Assertions.assertEquals(3, longIds.size());
+		Assertions.assertArrayEquals(new long[]{-7, 42, 99_871_000_000L}, longIds.toArray());
+		Assertions.assertTrue(longIds.contains(99_871_000_000L));
+		Assertions.assertFalse(longIds.contains(43));
+		Assertions.assertEquals(LongIdSet.of(), LongIdSet.of(new long[0]));
+
+		IntIdSet intIds = IntIdSet.of(5, 3, 5, 1);
+		Assertions.assertArrayEquals(new int[]{1, 3, 5}, intIds.toArray());
+		Assertions.assertTrue(intIds.contains(3));
+		Assertions.assertFalse(intIds.contains(4));
+	}
+
+	@Test
+	public void bloomFilterTest()
+	{
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) values.add("token-" + i);
+		BloomFilter filter = BloomFilter.converter(0.01).convert(values);
+
+		// About 1.2 bytes per value at 1%
+		Assertions.assertTrue(filter.getBitCount() < 10_000 * 10, filter.toString());
+		for (String value : values) Assertions.assertTrue(filter.mightContain(value));
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++)
+		{
+			if (filter.mightContain("other-" + i)) falsePositives++;
+		}
+		Assertions.assertTrue(falsePositives < 300, String.valueOf(falsePositives));
+
+		BloomFilter small = BloomFilter.of(0.001, "a", "b");
+		Assertions.assertTrue(small.mightContain("a"));
+		Assertions.assertTrue(small.mightContain(new StringBuilder("b")));
+		Assertions.assertFalse(BloomFilter.of(0.01).mightContain("a"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> BloomFilter.converter(1));
+	}
+
+	@Test
+	public void parseLongTest()
+	{
+		Assertions.assertEquals(42, ValueParsers.parseLong("1;42;3", 2, 4));
+		Assertions.assertEquals(-7, ValueParsers.parseLong(" -7 ", 0, 4));
+		Assertions.assertEquals(Long.MAX_VALUE, ValueParsers.parseLong(String.valueOf(Long.MAX_VALUE), 0, 19));
+		Assertions.assertEquals(Long.MIN_VALUE, ValueParsers.parseLong(String.valueOf(Long.MIN_VALUE), 0, 20));
+		for (String value : Arrays.asList("", " ", "-", "1a", "9223372036854775808", "-9223372036854775809"))
+		{
+			Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseLong(value, 0, value.length()), value);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package info.toyonos.config.value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ValueParsersTest
+{
+	@Test
+	public void durationTest()
+	{
+		Assertions.assertEquals(Duration.ofMillis(5), ValueParsers.parseDuration("5ms"));
+		Assertions.assertEquals(Duration.ofMinutes(5), ValueParsers.parseDuration("5m"));
+		Assertions.assertEquals(Duration.ofDays(1).plusHours(2).plusMinutes(30), ValueParsers.parseDuration("1d2h30m"));
+		Assertions.assertEquals(Duration.ofMinutes(90), ValueParsers.parseDuration(" 1h 30min "));
+		Assertions.assertEquals(Duration.ofSeconds(1, 500_000_250), ValueParsers.parseDuration("1s500ms250ns"));
+		Assertions.assertEquals(Duration.ofMillis(2500), ValueParsers.parseDuration("2500ms"));
+		Assertions.assertEquals(Duration.ofMinutes(5), ValueParsers.parseDuration("PT5M"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "5", "5x", "d", "1h30", "PT", "99999999999999999999d", "106751991167301d", "9223372036854775807s 1000ms" })
+	public void invalidDurationTest(String value)
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDuration(value));
+	}
+
+	@Test
+	public void dataSizeTest()
+	{
+		Assertions.assertEquals(512, ValueParsers.parseDataSize("512").toBytes());
+		Assertions.assertEquals(512, ValueParsers.parseDataSize("512B").toBytes());
+		Assertions.assertEquals(64_000_000, ValueParsers.parseDataSize("64MB").toBytes());
+		Assertions.assertEquals(64_000_000, ValueParsers.parseDataSize("64 mb").toBytes());
+		Assertions.assertEquals(1L << 30, ValueParsers.parseDataSize("1GiB").toBytes());
+		Assertions.assertEquals(1536, ValueParsers.parseDataSize("1.5KiB").toBytes());
+		Assertions.assertEquals(DataSize.ofBytes(1024), DataSize.parse("1KiB"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDataSize("64XB"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDataSize("MB"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDataSize("99999999PiB"));
+	}
+
+	@Test
+	public void percentageAndRateTest()
+	{
+		Assertions.assertEquals(0.75, ValueParsers.parsePercentage("75%").toRatio());
+		Assertions.assertEquals(12.5, ValueParsers.parsePercentage("12.5 %").getValue());
+		Assertions.assertEquals(Percentage.of(75), ValueParsers.parsePercentage("75"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parsePercentage("75%%"));
+
+		Assertions.assertEquals(100, ValueParsers.parseRate("100/s").perSecond(), 1e-9);
+		Assertions.assertEquals(5000, ValueParsers.parseRate("5000 / min").per(TimeUnit.MINUTES), 1e-9);
+		Assertions.assertEquals(2.5, ValueParsers.parseRate("2.5/h").per(TimeUnit.HOURS), 1e-9);
+		Assertions.assertEquals(Rate.of(1, TimeUnit.MILLISECONDS), ValueParsers.parseRate("1000/s"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseRate("100"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseRate("100/week"));
+	}
+
+	@Test
+	public void timeTest()
+	{
+		Assertions.assertEquals(Instant.parse("2020-06-01T10:15:30Z"), ValueParsers.parseInstant("2020-06-01T10:15:30Z"));
+		Assertions.assertEquals(Instant.ofEpochMilli(1_590_000_000_000L), ValueParsers.parseInstant("1590000000000"));
+		Assertions.assertEquals(Instant.ofEpochMilli(-1000), ValueParsers.parseInstant("-1000"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseInstant("yesterday"));
+
+		Assertions.assertEquals(LocalTime.of(8, 30), ValueParsers.parseLocalTime("08:30"));
+		Assertions.assertEquals(LocalTime.of(23, 59, 59), ValueParsers.parseLocalTime("23:59:59"));
+		Assertions.assertEquals(LocalTime.of(10, 15, 30, 250_000_000), ValueParsers.parseLocalTime("10:15:30.250"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseLocalTime("24:00"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseLocalTime("8:30"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseLocalTime("08:30:"));
+	}
+}